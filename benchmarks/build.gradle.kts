@@ -0,0 +1,55 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+plugins {
+    java
+    id("me.champeau.jmh") version "0.6.6"
+}
+
+val edcVersion: String by project
+val edcGroup: String by project
+val rsApi: String by project
+val micrometerVersion: String by project
+
+dependencies {
+    jmh(project(":extensions:registration-service"))
+    jmh(project(":extensions:participant-store-memory"))
+    jmh(project(":extensions:registration-policy-gaiax-member"))
+    jmh(project(":extensions:registration-policy-claims"))
+    jmh("${edcGroup}:identity-did-crypto:${edcVersion}")
+    jmh("jakarta.ws.rs:jakarta.ws.rs-api:${rsApi}")
+    jmh("io.micrometer:micrometer-core:${micrometerVersion}")
+}
+
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+
+jmh {
+    jmhVersion.set(project.property("jmhVersion") as String)
+    resultFormat.set("JSON")
+    resultsFile.set(jmhResults)
+    // run a subset of the benchmarks with e.g. -PjmhInclude=ParticipantStore
+    if (project.hasProperty("jmhInclude")) {
+        includes.set(listOf(project.property("jmhInclude") as String))
+    }
+}
+
+// keeps the results of each version, so that they can be compared across releases
+tasks.register<Copy>("jmhArchiveResults") {
+    group = "benchmark"
+    description = "Runs the benchmarks and copies the JSON results to benchmarks/results/<version>.json"
+    dependsOn("jmh")
+    from(jmhResults)
+    into(layout.projectDirectory.dir("results"))
+    rename { "${project.version}.json" }
+}
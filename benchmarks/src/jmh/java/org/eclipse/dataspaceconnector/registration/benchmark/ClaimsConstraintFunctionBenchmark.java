@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.benchmark;
+
+import org.eclipse.dataspaceconnector.policy.model.Operator;
+import org.eclipse.dataspaceconnector.registration.authority.policy.ClaimPath;
+import org.eclipse.dataspaceconnector.registration.authority.policy.ClaimPredicates;
+import org.eclipse.dataspaceconnector.registration.policy.claims.ClaimConstraint;
+import org.eclipse.dataspaceconnector.registration.policy.claims.ClaimsConstraintFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.dataspaceconnector.policy.model.Operator.EQ;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.GT;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.IN;
+import static org.eclipse.dataspaceconnector.registration.authority.policy.ClaimPredicates.NOW;
+
+/**
+ * Measures the evaluation of configured claim constraints, for participants holding a number of verifiable credentials
+ * of unrelated types, plus (if {@code member}) a membership credential satisfying all constraints.
+ * <p>
+ * Run with {@code ./gradlew :benchmarks:jmh -PjmhInclude=ClaimsConstraintFunction}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClaimsConstraintFunctionBenchmark {
+
+    private static final String MEMBERSHIP = "GaiaXMembership";
+
+    @Param({ "1", "10", "100", "1000" })
+    public int credentials;
+
+    /**
+     * Whether the participant holds the membership credential. If not, all credentials are inspected.
+     */
+    @Param({ "true", "false" })
+    public boolean member;
+
+    private final ClaimsConstraintFunction function = new ClaimsConstraintFunction(List.of(
+            constraint("member", "vc.credentialSubject.gaiaXMember", EQ, "true"),
+            constraint("expiry", "vc.expirationDate", GT, NOW),
+            constraint("level", "vc.credentialSubject.level", IN, List.of("gold", "silver"))));
+    private Map<String, Object> claims;
+
+    @Setup
+    public void setUp() {
+        claims = new HashMap<>();
+        for (var i = 0; i < credentials; i++) {
+            var subject = Map.of("id", "did:web:participant", "credential-" + i, "value-" + i);
+            claims.put("vc-" + i, Map.of("vc", Map.of("type", List.of("VerifiableCredential", "Credential" + i), "credentialSubject", subject)));
+        }
+        if (member) {
+            var subject = Map.of("id", "did:web:participant", "gaiaXMember", "true", "level", "gold");
+            var vc = Map.of("type", List.of("VerifiableCredential", MEMBERSHIP), "expirationDate", "2999-12-31T00:00:00Z", "credentialSubject", subject);
+            claims.put("vc-" + credentials / 2, Map.of("vc", vc));
+        }
+    }
+
+    @Benchmark
+    public boolean evaluate() {
+        return function.evaluate(claims);
+    }
+
+    private static ClaimConstraint constraint(String name, String path, Operator operator, Object rightOperand) {
+        return new ClaimConstraint(name, MEMBERSHIP, ClaimPath.parse(path), ClaimPredicates.of(operator, rightOperand));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.benchmark;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import org.eclipse.dataspaceconnector.iam.did.crypto.key.EcPublicKeyWrapper;
+import org.eclipse.dataspaceconnector.iam.did.spi.key.PublicKeyWrapper;
+import org.eclipse.dataspaceconnector.registration.auth.CachingDidPublicKeyResolver;
+import org.eclipse.dataspaceconnector.registration.auth.DidJwtAuthenticationFilter;
+import org.eclipse.dataspaceconnector.registration.auth.VerifiedTokenCache;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static org.eclipse.dataspaceconnector.registration.auth.DidJwtAuthenticationFilter.CALLER_DID_HEADER;
+
+/**
+ * Measures the time for the authentication filter to authenticate a request whose bearer token was already used, with
+ * the verified token cache disabled ({@code cold}: the token is parsed and its signature verified) and enabled
+ * ({@code warm}: the token is found in the cache), for keys on several curves. In both cases, the public key of the
+ * caller is cached. The setup checks the cache misses, so that a cold run cannot be served from the cache.
+ * <p>
+ * Run with {@code ./gradlew :benchmarks:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DidJwtAuthenticationFilterBenchmark {
+
+    private static final String AUDIENCE = "http://registration-service";
+    private static final String ISSUER = "did:web:participant";
+
+    @Param({ "cold", "warm" })
+    public String tokenCache;
+
+    @Param({ "P-256", "P-384", "P-521" })
+    public String keyType;
+
+    private DidJwtAuthenticationFilter filter;
+    private MultivaluedHashMap<String, String> headers;
+    private ContainerRequestContext request;
+
+    @Setup
+    public void setUp() throws Exception {
+        var curve = Curve.parse(keyType);
+        var key = new ECKeyGenerator(curve).generate();
+        Result<PublicKeyWrapper> publicKey = Result.success(new EcPublicKeyWrapper(key.toPublicJWK()));
+        var meterRegistry = new SimpleMeterRegistry();
+        var publicKeyResolver = new CachingDidPublicKeyResolver(did -> publicKey, Duration.ofHours(1), 100, Duration.ofSeconds(10), meterRegistry);
+        var verifiedTokens = new VerifiedTokenCache(Duration.ofHours(1), "warm".equals(tokenCache) ? 100 : 0, Clock.systemUTC(), meterRegistry);
+        filter = new DidJwtAuthenticationFilter(new Monitor() {
+        }, publicKeyResolver, verifiedTokens, AUDIENCE);
+
+        // same claims as VerifiableCredentialFactory.create, which only signs with P-256 keys
+        var claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(ISSUER)
+                .audience(AUDIENCE)
+                .jwtID(UUID.randomUUID().toString())
+                .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .build();
+        var jwt = new SignedJWT(new JWSHeader(signatureAlgorithm(curve)), claims);
+        jwt.sign(new ECDSASigner(key));
+        var token = jwt.serialize();
+        headers = new MultivaluedHashMap<>();
+        headers.putSingle("Authorization", "Bearer " + token);
+        request = (ContainerRequestContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ ContainerRequestContext.class },
+                (proxy, method, args) -> {
+                    if ("getHeaders".equals(method.getName())) {
+                        return headers;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        // resolves the public key, and caches the token in warm mode
+        filter.filter(request);
+
+        // every request misses the cache in cold mode, and only the first one in warm mode
+        var lookups = 10;
+        for (var i = 0; i < lookups; i++) {
+            filter.filter(request);
+        }
+        var misses = meterRegistry.get("cache.gets").tag("cache", VerifiedTokenCache.CACHE_NAME).tag("result", "miss").functionCounter().count();
+        var expectedMisses = "warm".equals(tokenCache) ? 1 : lookups + 1;
+        if (misses != expectedMisses) {
+            throw new IllegalStateException(format("Expected %s verified token cache misses in %s mode, got %s", expectedMisses, tokenCache, misses));
+        }
+    }
+
+    @Benchmark
+    public String authenticate() {
+        filter.filter(request);
+        return headers.getFirst(CALLER_DID_HEADER);
+    }
+
+    private static JWSAlgorithm signatureAlgorithm(Curve curve) {
+        if (Curve.P_256.equals(curve)) {
+            return JWSAlgorithm.ES256;
+        } else if (Curve.P_384.equals(curve)) {
+            return JWSAlgorithm.ES384;
+        } else if (Curve.P_521.equals(curve)) {
+            return JWSAlgorithm.ES512;
+        }
+        throw new IllegalArgumentException("Unsupported curve " + curve);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.benchmark;
+
+import org.eclipse.dataspaceconnector.registration.policy.GaiaxMemberConstraintFunction;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.dataspaceconnector.policy.model.Operator.EQ;
+import static org.eclipse.dataspaceconnector.registration.policy.GaiaxMemberDataspaceRegistrationPolicyExtension.CREDENTIAL_VALUE;
+
+/**
+ * Measures the evaluation of the GAIA-X membership constraint, for participants holding a number of verifiable
+ * credentials, one of which (if any) is the membership credential.
+ * <p>
+ * Run with {@code ./gradlew :benchmarks:jmh -PjmhInclude=GaiaxMemberConstraintFunction}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GaiaxMemberConstraintFunctionBenchmark {
+
+    @Param({ "1", "10", "100", "1000" })
+    public int credentials;
+
+    /**
+     * Whether the participant holds the membership credential. If not, all credentials are inspected.
+     */
+    @Param({ "true", "false" })
+    public boolean member;
+
+    private final GaiaxMemberConstraintFunction function = new GaiaxMemberConstraintFunction(new Monitor() {
+    });
+    private Map<String, Object> claims;
+
+    @Setup
+    public void setUp() {
+        claims = new HashMap<>();
+        for (var i = 0; i < credentials; i++) {
+            var subject = Map.of("id", "did:web:participant", "credential-" + i, "value-" + i);
+            claims.put("vc-" + i, Map.of("vc", Map.of("credentialSubject", subject)));
+        }
+        if (member) {
+            var subject = Map.of("id", "did:web:participant", "gaiaXMember", CREDENTIAL_VALUE);
+            claims.put("vc-" + credentials / 2, Map.of("vc", Map.of("credentialSubject", subject)));
+        }
+    }
+
+    @Benchmark
+    public boolean evaluate() {
+        return function.evaluate(EQ, CREDENTIAL_VALUE, claims);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.benchmark;
+
+import org.eclipse.dataspaceconnector.registration.api.RegistrationService;
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
+import org.eclipse.dataspaceconnector.registration.store.InMemoryParticipantStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZING;
+
+/**
+ * Measures the cost of the queries run by the API and by the participant state machine against the in-memory
+ * participant store, for several store sizes. Participants are spread evenly across all states.
+ * <p>
+ * Run with {@code ./gradlew :benchmarks:jmh -PjmhInclude=InMemoryParticipantStore}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryParticipantStoreBenchmark {
+
+    private static final String LEASE_HOLDER = "benchmark";
+
+    @Param({ "1000", "10000", "100000" })
+    public int storeSize;
+
+    /**
+     * Number of participants claimed by each state machine iteration.
+     */
+    @Param({ "20", "200" })
+    public int claimCount;
+
+    private InMemoryParticipantStore store;
+
+    @Setup
+    public void setUp() {
+        store = new InMemoryParticipantStore();
+        var statuses = ParticipantStatus.values();
+        for (var i = 0; i < storeSize; i++) {
+            store.save(Participant.Builder.newInstance().did("did:web:participant-" + i).status(statuses[i % statuses.length]).build());
+        }
+    }
+
+    @Benchmark
+    public Collection<Participant> listParticipantsWithStatus() {
+        return store.listParticipantsWithStatus(AUTHORIZING);
+    }
+
+    /**
+     * Lists a page of participants in the middle of the store, as when following continuation tokens.
+     */
+    @Benchmark
+    public List<Participant> listParticipantsPage() {
+        return store.listParticipants(Set.of(), "did:web:participant-" + storeSize / 2, RegistrationService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Participant> nextForState() {
+        return store.nextForState(AUTHORIZING, claimCount);
+    }
+
+    /**
+     * Claims participants, and breaks their leases so that the next invocation claims them again.
+     */
+    @Benchmark
+    public void claimAndBreakLeases(Blackhole blackhole) {
+        var claimed = store.claimNextForState(AUTHORIZING, claimCount, LEASE_HOLDER, Duration.ofMinutes(1));
+        for (var participant : claimed) {
+            store.breakLease(participant.getDid(), LEASE_HOLDER);
+        }
+        blackhole.consume(claimed);
+    }
+}
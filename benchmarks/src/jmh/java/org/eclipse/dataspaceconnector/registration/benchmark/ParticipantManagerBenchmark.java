@@ -0,0 +1,134 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.benchmark;
+
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.manager.ParticipantManager;
+import org.eclipse.dataspaceconnector.registration.store.InMemoryParticipantStore;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.eclipse.dataspaceconnector.spi.response.StatusResult;
+import org.eclipse.dataspaceconnector.spi.system.ExecutorInstrumentation;
+import org.eclipse.dataspaceconnector.spi.telemetry.Telemetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZED;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZING;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDED;
+
+/**
+ * Measures the time for the participant manager to onboard a backlog of participants, when verification and pushing
+ * credentials to the Identity Hub are slow remote calls, for each way of executing them.
+ * <p>
+ * Run with {@code ./gradlew :benchmarks:jmh}. Virtual threads are only used on a runtime that supports them, otherwise
+ * the {@code virtual-threads} mode falls back to platform threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParticipantManagerBenchmark {
+
+    /**
+     * {@code state-machine-thread}: participants are processed one at a time on the state machine thread, as before
+     * worker pools were introduced. {@code platform-threads}: default worker pools. {@code virtual-threads}: one virtual
+     * thread per participant being processed.
+     */
+    @Param({ "state-machine-thread", "platform-threads", "virtual-threads" })
+    public String mode;
+
+    @Param({ "200" })
+    public int participants;
+
+    /**
+     * Latency of each remote call, i.e. of the verification of a participant and of the credential push.
+     */
+    @Param({ "20" })
+    public long remoteCallMillis;
+
+    private InMemoryParticipantStore store;
+    private ParticipantManager manager;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        store = new InMemoryParticipantStore();
+        IntStream.range(0, participants)
+                .mapToObj(i -> Participant.Builder.newInstance().did("did:web:participant-" + i).status(AUTHORIZING).build())
+                .forEach(store::save);
+
+        var builder = ParticipantManager.Builder.newInstance()
+                .monitor(new Monitor() {
+                })
+                .participantStore(store)
+                .participantVerifier(did -> {
+                    remoteCall();
+                    return StatusResult.success(true);
+                })
+                .executorInstrumentation(ExecutorInstrumentation.noop())
+                .verifiableCredentialService(participant -> {
+                    remoteCall();
+                    return StatusResult.success();
+                })
+                .telemetry(new Telemetry());
+        switch (mode) {
+            case "state-machine-thread":
+                builder.workers(AUTHORIZING, 0).workers(AUTHORIZED, 0);
+                break;
+            case "virtual-threads":
+                builder.virtualThreads(true);
+                break;
+            default:
+                break;
+        }
+        manager = builder.build();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        manager.stop();
+    }
+
+    @Benchmark
+    public void onboardParticipants() throws InterruptedException {
+        manager.start();
+        while (store.listParticipantsWithStatus(ONBOARDED).size() < participants) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void remoteCall() {
+        try {
+            Thread.sleep(remoteCallMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.benchmark;
+
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
+import org.eclipse.dataspaceconnector.registration.transform.ParticipantToParticipantDtoTransformer;
+import org.eclipse.dataspaceconnector.spi.transformer.TransformerContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to transform a page of participants into DTOs, as done when listing participants.
+ * <p>
+ * Run with {@code ./gradlew :benchmarks:jmh -PjmhInclude=ParticipantToParticipantDtoTransformer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParticipantToParticipantDtoTransformerBenchmark {
+
+    @Param({ "100", "10000" })
+    public int participants;
+
+    private final ParticipantToParticipantDtoTransformer transformer = new ParticipantToParticipantDtoTransformer();
+    private List<Participant> input;
+    private TransformerContext context;
+
+    @Setup
+    public void setUp() {
+        var statuses = ParticipantStatus.values();
+        input = new ArrayList<>(participants);
+        for (var i = 0; i < participants; i++) {
+            input.add(Participant.Builder.newInstance().did("did:web:participant-" + i).status(statuses[i % statuses.length]).build());
+        }
+        // the transformer does not use its context
+        context = (TransformerContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ TransformerContext.class },
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Benchmark
+    public void transform(Blackhole blackhole) {
+        for (var participant : input) {
+            blackhole.consume(transformer.transform(participant, context));
+        }
+    }
+}
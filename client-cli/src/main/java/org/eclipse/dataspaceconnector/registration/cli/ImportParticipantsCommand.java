@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.cli;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.eclipse.dataspaceconnector.registration.client.models.ParticipantImportResultDto;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+import picocli.CommandLine.Spec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.eclipse.dataspaceconnector.registration.cli.ClientUtils.writeToOutput;
+import static org.eclipse.dataspaceconnector.registration.cli.RegistrationServiceCli.MAPPER;
+
+@Command(name = "import", description = "Add participants to dataspace in bulk. Requires the client DID to be a dataspace operator")
+class ImportParticipantsCommand implements Callable<Integer> {
+
+    static final int DEFAULT_BATCH_SIZE = 1000;
+
+    @ParentCommand
+    private ParticipantsCommand command;
+
+    @Spec
+    private CommandSpec spec;
+
+    @Parameters(paramLabel = "FILE", description = "File containing the DIDs to import, as a JSON array, or one DID per line.")
+    Path file;
+
+    @Option(names = "--batch-size", description = "Number of DIDs sent per request.")
+    int batchSize = DEFAULT_BATCH_SIZE;
+
+    @Override
+    public Integer call() throws Exception {
+        if (batchSize < 1) {
+            throw new CliException("Batch size must be positive");
+        }
+        var dids = readDids(file);
+
+        List<ParticipantImportResultDto> results = new ArrayList<>();
+        for (var from = 0; from < dids.size(); from += batchSize) {
+            results.addAll(command.cli.registryApiClient.importParticipants(dids.subList(from, Math.min(from + batchSize, dids.size()))));
+        }
+        writeToOutput(spec.commandLine(), results);
+        return 0;
+    }
+
+    /**
+     * Reads DIDs from a JSON array, or from lines containing a DID, possibly as a JSON string (i.e. newline-delimited
+     * JSON). Blank lines are ignored.
+     */
+    static List<String> readDids(Path file) throws IOException {
+        var content = Files.readString(file);
+        if (content.stripLeading().startsWith("[")) {
+            return MAPPER.readValue(content, new TypeReference<>() {
+            });
+        }
+        var dids = new ArrayList<String>();
+        for (var line : content.split("\\R")) {
+            var did = line.strip();
+            if (did.startsWith("\"")) {
+                dids.add(MAPPER.readValue(did, String.class));
+            } else if (!did.isEmpty()) {
+                dids.add(did);
+            }
+        }
+        return dids;
+    }
+}
@@ -12,13 +12,18 @@
  *
  */
 
+
 package org.eclipse.dataspaceconnector.registration.cli;
 
+import org.eclipse.dataspaceconnector.registration.client.models.ParticipantDto;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.ParentCommand;
 import picocli.CommandLine.Spec;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 import static org.eclipse.dataspaceconnector.registration.cli.ClientUtils.writeToOutput;
@@ -26,15 +31,31 @@ import static org.eclipse.dataspaceconnector.registration.cli.ClientUtils.writeT
 @Command(name = "list", description = "List dataspace participants")
 class ListParticipantsCommand implements Callable<Integer> {
 
+    static final String CONTINUATION_TOKEN_HEADER = "Continuation-Token";
+
     @ParentCommand
     private ParticipantsCommand command;
 
     @Spec
     private CommandSpec spec;
 
+    @Option(names = "--status", description = "Only list participants with this status (ONBOARDING_IN_PROGRESS, ONBOARDED or DENIED).")
+    String status;
+
+    @Option(names = "--page-size", description = "Number of participants fetched per request.")
+    Integer pageSize;
+
     @Override
     public Integer call() throws Exception {
-        writeToOutput(spec.commandLine(), command.cli.registryApiClient.listParticipants());
+        List<ParticipantDto> participants = new ArrayList<>();
+        String continuationToken = null;
+        do {
+            var response = command.cli.registryApiClient.listParticipantsWithHttpInfo(status, continuationToken, pageSize);
+            participants.addAll(response.getData());
+            var tokens = response.getHeaders().get(CONTINUATION_TOKEN_HEADER);
+            continuationToken = tokens == null || tokens.isEmpty() ? null : tokens.get(0);
+        } while (continuationToken != null);
+        writeToOutput(spec.commandLine(), participants);
         return 0;
     }
 }
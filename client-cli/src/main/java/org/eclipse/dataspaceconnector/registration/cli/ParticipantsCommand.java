@@ -22,7 +22,8 @@ import picocli.CommandLine.ParentCommand;
         subcommands = {
                 ListParticipantsCommand.class,
                 AddParticipantCommand.class,
-                GetParticipantCommand.class
+                GetParticipantCommand.class,
+                ImportParticipantsCommand.class
         })
 class ParticipantsCommand {
     @ParentCommand
@@ -18,9 +18,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.javafaker.Faker;
+import org.eclipse.dataspaceconnector.registration.client.ApiResponse;
 import org.eclipse.dataspaceconnector.registration.client.TestKeyData;
 import org.eclipse.dataspaceconnector.registration.client.api.RegistryApi;
 import org.eclipse.dataspaceconnector.registration.client.models.ParticipantDto;
+import org.eclipse.dataspaceconnector.registration.client.models.ParticipantImportResultDto;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,9 +32,12 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.registration.cli.ListParticipantsCommand.CONTINUATION_TOKEN_HEADER;
 import static org.eclipse.dataspaceconnector.registration.cli.TestUtils.createParticipantDto;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -70,13 +75,25 @@ class ParticipantsCommandTest {
     @Test
     void list() throws Exception {
         var participants = List.of(this.participant1, participant2);
-        when(app.registryApiClient.listParticipants())
-                .thenReturn(participants);
+        when(app.registryApiClient.listParticipantsWithHttpInfo(null, null, null))
+                .thenReturn(new ApiResponse<>(200, Map.of(), participants));
 
         var exitCode = executeParticipantsList("-d", dataspaceDid);
         assertListParticipants(participants, exitCode, app.dataspaceDid, dataspaceDid);
     }
 
+    @Test
+    void list_followsContinuationToken() throws Exception {
+        var continuationToken = FAKER.lorem().word();
+        when(app.registryApiClient.listParticipantsWithHttpInfo("ONBOARDED", null, 1))
+                .thenReturn(new ApiResponse<>(200, Map.of(CONTINUATION_TOKEN_HEADER, List.of(continuationToken)), List.of(participant1)));
+        when(app.registryApiClient.listParticipantsWithHttpInfo("ONBOARDED", continuationToken, 1))
+                .thenReturn(new ApiResponse<>(200, Map.of(), List.of(participant2)));
+
+        var exitCode = executeParticipantsList("-d", dataspaceDid, "--status", "ONBOARDED", "--page-size", "1");
+        assertListParticipants(List.of(participant1, participant2), exitCode, app.dataspaceDid, dataspaceDid);
+    }
+
     @Test
     void add() {
         var exitCode = executeParticipantsAdd("-d", dataspaceDid);
@@ -98,6 +115,42 @@ class ParticipantsCommandTest {
                 .isEqualTo(participant1);
     }
 
+    @Test
+    void importParticipants() throws Exception {
+        var file = Files.createTempFile("dids", ".ndjson");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, "did:web:participant-1\n\n\"did:web:participant-2\"\ndid:web:participant-3\n");
+        var result1 = importResult("did:web:participant-1");
+        var result2 = importResult("did:web:participant-2");
+        var result3 = importResult("did:web:participant-3");
+        when(app.registryApiClient.importParticipants(List.of("did:web:participant-1", "did:web:participant-2")))
+                .thenReturn(List.of(result1, result2));
+        when(app.registryApiClient.importParticipants(List.of("did:web:participant-3")))
+                .thenReturn(List.of(result3));
+
+        var exitCode = cmd.execute(
+                "-c", clientDid,
+                "-k", privateKeyFile.toString(),
+                "-d", dataspaceDid,
+                "participants", "import", "--batch-size", "2", file.toString());
+
+        assertThat(exitCode).isEqualTo(0);
+        var parsedResult = MAPPER.readValue(sw.toString(), new TypeReference<List<ParticipantImportResultDto>>() {
+        });
+        assertThat(parsedResult)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(result1, result2, result3);
+    }
+
+    @Test
+    void importParticipants_readsJsonArray() throws Exception {
+        var file = Files.createTempFile("dids", ".json");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, "[\"did:web:participant-1\", \"did:web:participant-2\"]");
+
+        assertThat(ImportParticipantsCommand.readDids(file)).containsExactly("did:web:participant-1", "did:web:participant-2");
+    }
+
     private void assertAddParticipants(int exitCode, String serverUrl, String service) {
         assertThat(exitCode).isEqualTo(0);
         assertThat(serverUrl).isEqualTo(service);
@@ -115,6 +168,10 @@ class ParticipantsCommandTest {
                 .isEqualTo(participants);
     }
 
+    private static ParticipantImportResultDto importResult(String did) {
+        return new ParticipantImportResultDto().did(did).outcome(ParticipantImportResultDto.OutcomeEnum.REGISTERED);
+    }
+
     private int executeParticipantsAdd(String inputCmd, String inputValue) {
         return cmd.execute(
                 "-c", clientDid,
@@ -123,12 +180,14 @@ class ParticipantsCommandTest {
                 "participants", "add");
     }
 
-    private int executeParticipantsList(String inputCmd, String inputValue) {
-        return cmd.execute(
+    private int executeParticipantsList(String inputCmd, String inputValue, String... listOptions) {
+        var args = new ArrayList<>(List.of(
                 "-c", clientDid,
                 "-k", privateKeyFile.toString(),
                 inputCmd, inputValue,
-                "participants", "list");
+                "participants", "list"));
+        args.addAll(List.of(listOptions));
+        return cmd.execute(args.toArray(String[]::new));
     }
 
     private int executeGetParticipant() {
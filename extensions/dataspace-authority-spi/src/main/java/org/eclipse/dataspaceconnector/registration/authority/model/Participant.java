@@ -33,15 +33,27 @@ import static org.eclipse.dataspaceconnector.registration.authority.model.Partic
 
 /**
  * Dataspace participant.
+ * <p>
+ * Participants are immutable: transitions return a new instance, which must be saved to the store. Stored
+ * participants can thus be shared with readers without copying them.
  */
 @JsonDeserialize(builder = Participant.Builder.class)
 public class Participant implements TraceCarrier {
 
-    private String did;
-    private ParticipantStatus status = ONBOARDING_INITIATED;
-    private Map<String, String> traceContext = Map.of();
-
-    private Participant() {
+    private final String did;
+    private final ParticipantStatus status;
+    private final Map<String, String> traceContext;
+    private final int retryCount;
+    private final long nextAttemptAt;
+    private final long sequence;
+
+    private Participant(Builder builder) {
+        did = builder.did;
+        status = builder.status;
+        traceContext = builder.traceContext;
+        retryCount = builder.retryCount;
+        nextAttemptAt = builder.nextAttemptAt;
+        sequence = builder.sequence;
     }
 
     public String getDid() {
@@ -57,24 +69,78 @@ public class Participant implements TraceCarrier {
         return traceContext;
     }
 
-    public void transitionAuthorizing() {
-        transition(AUTHORIZING, ONBOARDING_INITIATED);
+    /**
+     * Number of times processing the participant in its current state has been retried after a transient failure.
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Time (in epoch milliseconds) before which the participant must not be processed, {@code 0} if it can be processed
+     * right away.
+     */
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    /**
+     * Sequence number of the last save of the participant, assigned by the store. Sequence numbers increase with each
+     * save across all participants, {@code 0} if the participant was never saved. As it changes with every save, the
+     * sequence number also serves as the version of the participant, e.g. for conditional saves.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the participant with the sequence number assigned by the store when saving it.
+     *
+     * @param sequence the sequence number of the save.
+     * @return the saved participant.
+     */
+    public Participant withSequence(long sequence) {
+        return sequence == this.sequence ? this : toBuilder().sequence(sequence).build();
+    }
+
+    /**
+     * Schedules processing the participant again in its current state, after a transient failure.
+     *
+     * @param nextAttemptAt the time (in epoch milliseconds) before which the participant must not be processed.
+     * @return the participant scheduled for retry.
+     */
+    public Participant scheduleRetry(long nextAttemptAt) {
+        return toBuilder().retryCount(retryCount + 1).nextAttemptAt(nextAttemptAt).build();
     }
 
-    public void transitionAuthorized() {
-        transition(AUTHORIZED, AUTHORIZING);
+    public Participant transitionAuthorizing() {
+        return transition(AUTHORIZING, ONBOARDING_INITIATED);
     }
 
-    public void transitionDenied() {
-        transition(DENIED, AUTHORIZING);
+    public Participant transitionAuthorized() {
+        return transition(AUTHORIZED, AUTHORIZING);
     }
 
-    public void transitionOnboarded() {
-        transition(ONBOARDED, AUTHORIZED);
+    public Participant transitionDenied() {
+        return transition(DENIED, AUTHORIZING);
     }
 
-    public void transitionFailed() {
-        transition(FAILED, AUTHORIZING, AUTHORIZED);
+    public Participant transitionOnboarded() {
+        return transition(ONBOARDED, AUTHORIZED);
+    }
+
+    public Participant transitionFailed() {
+        return transition(FAILED, AUTHORIZING, AUTHORIZED);
+    }
+
+    public Builder toBuilder() {
+        return new Builder()
+                .did(did)
+                .status(status)
+                .traceContext(traceContext)
+                .retryCount(retryCount)
+                .nextAttemptAt(nextAttemptAt)
+                .sequence(sequence);
     }
 
     /**
@@ -82,20 +148,25 @@ public class Participant implements TraceCarrier {
      *
      * @param end    The desired state.
      * @param starts The allowed previous states.
+     * @return the participant in the end state.
      */
-    private void transition(ParticipantStatus end, ParticipantStatus... starts) {
+    private Participant transition(ParticipantStatus end, ParticipantStatus... starts) {
         if (Arrays.stream(starts).noneMatch(s -> s == status)) {
             throw new IllegalStateException(format("Cannot transition from state %s to %s", status, end));
         }
-        status = end;
+        return toBuilder().status(end).retryCount(0).nextAttemptAt(0).build();
     }
 
     @JsonPOJOBuilder(withPrefix = "")
     public static class Builder {
-        private final Participant participant;
+        private String did;
+        private ParticipantStatus status = ONBOARDING_INITIATED;
+        private Map<String, String> traceContext = Map.of();
+        private int retryCount;
+        private long nextAttemptAt;
+        private long sequence;
 
         private Builder() {
-            participant = new Participant();
         }
 
         public static Builder newInstance() {
@@ -103,24 +174,39 @@ public class Participant implements TraceCarrier {
         }
 
         public Builder did(String did) {
-            participant.did = did;
+            this.did = did;
             return this;
         }
 
         public Builder status(ParticipantStatus status) {
-            participant.status = status;
+            this.status = status;
             return this;
         }
 
         public Builder traceContext(Map<String, String> traceContext) {
-            participant.traceContext = unmodifiableMap(traceContext);
+            this.traceContext = unmodifiableMap(traceContext);
+            return this;
+        }
+
+        public Builder retryCount(int retryCount) {
+            this.retryCount = retryCount;
+            return this;
+        }
+
+        public Builder nextAttemptAt(long nextAttemptAt) {
+            this.nextAttemptAt = nextAttemptAt;
+            return this;
+        }
+
+        public Builder sequence(long sequence) {
+            this.sequence = sequence;
             return this;
         }
 
         public Participant build() {
-            Objects.requireNonNull(participant.did, "did");
-            Objects.requireNonNull(participant.status, "status");
-            return participant;
+            Objects.requireNonNull(did, "did");
+            Objects.requireNonNull(status, "status");
+            return new Participant(this);
         }
     }
 }
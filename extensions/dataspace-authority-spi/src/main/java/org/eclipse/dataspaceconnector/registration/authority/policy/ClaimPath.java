@@ -0,0 +1,206 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.authority.policy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import static java.lang.String.format;
+
+/**
+ * Path to the values of a verifiable credential claim, such as {@code vc.credentialSubject.gaiaXMember}.
+ * <p>
+ * The path is parsed once, so that it can be evaluated against the claims of many participants without further
+ * parsing. It is a subset of JSONPath: an optional {@code $} root followed by keys separated by {@code .}. Each key
+ * can be followed by {@code [n]} to select the n-th element of a list, or {@code [*]} to select any element. Keys
+ * containing other characters than letters, digits, {@code _}, {@code -} and {@code :} are written {@code ['key']}.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class ClaimPath {
+
+    private static final int ANY = -1;
+
+    private final String expression;
+    private final List<Step> steps;
+
+    private ClaimPath(String expression, List<Step> steps) {
+        this.expression = expression;
+        this.steps = steps;
+    }
+
+    /**
+     * Parses a claim path.
+     *
+     * @param expression the path, e.g. {@code vc.credentialSubject.gaiaXMember} or {@code vc.type[*]}.
+     * @return the parsed path.
+     * @throws IllegalArgumentException if the path is not valid.
+     */
+    public static ClaimPath parse(String expression) {
+        return new Parser(Objects.requireNonNull(expression, "expression")).parse();
+    }
+
+    /**
+     * Tests the values selected by the path within a claim, stopping at the first value that matches. Values that
+     * cannot be selected, because the claim does not have the expected structure, are ignored.
+     *
+     * @param claim     the claim, as deserialized from JSON into maps and lists.
+     * @param predicate the predicate to test the selected values with.
+     * @return {@code true} if a selected value matches the predicate.
+     */
+    public boolean anyMatch(Object claim, Predicate<Object> predicate) {
+        return anyMatch(claim, 0, predicate);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private boolean anyMatch(Object node, int index, Predicate<Object> predicate) {
+        for (var i = index; i < steps.size(); i++) {
+            var step = steps.get(i);
+            if (step.key != null) {
+                if (!(node instanceof Map)) {
+                    return false;
+                }
+                node = ((Map<?, ?>) node).get(step.key);
+            } else {
+                if (!(node instanceof List)) {
+                    return false;
+                }
+                var list = (List<?>) node;
+                if (step.position == ANY) {
+                    for (var element : list) {
+                        if (anyMatch(element, i + 1, predicate)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                if (step.position >= list.size()) {
+                    return false;
+                }
+                node = list.get(step.position);
+            }
+        }
+        return node != null && predicate.test(node);
+    }
+
+    /**
+     * Selects a map entry by key, or a list element by position.
+     */
+    private static final class Step {
+        private final String key;
+        private final int position;
+
+        private Step(String key, int position) {
+            this.key = key;
+            this.position = position;
+        }
+    }
+
+    private static final class Parser {
+        private final String expression;
+        private final List<Step> steps = new ArrayList<>();
+        private int index;
+
+        private Parser(String expression) {
+            this.expression = expression;
+        }
+
+        private ClaimPath parse() {
+            if (expression.startsWith("$")) {
+                index = 1;
+                if (index < expression.length() && expression.charAt(index) != '[') {
+                    expect('.');
+                }
+            }
+            while (index < expression.length()) {
+                if (expression.charAt(index) == '[') {
+                    parseBracket();
+                } else {
+                    if (!steps.isEmpty()) {
+                        expect('.');
+                    }
+                    parseKey();
+                }
+            }
+            if (steps.isEmpty()) {
+                throw invalid("empty path");
+            }
+            return new ClaimPath(expression, List.copyOf(steps));
+        }
+
+        private void parseKey() {
+            var start = index;
+            while (index < expression.length() && isKeyCharacter(expression.charAt(index))) {
+                index++;
+            }
+            if (start == index) {
+                throw invalid("expected a key");
+            }
+            steps.add(new Step(expression.substring(start, index), 0));
+        }
+
+        private void parseBracket() {
+            expect('[');
+            if (index < expression.length() && expression.charAt(index) == '\'') {
+                var end = expression.indexOf('\'', index + 1);
+                if (end < 0) {
+                    throw invalid("unterminated key");
+                }
+                steps.add(new Step(expression.substring(index + 1, end), 0));
+                index = end + 1;
+            } else if (index < expression.length() && expression.charAt(index) == '*') {
+                steps.add(new Step(null, ANY));
+                index++;
+            } else {
+                var start = index;
+                while (index < expression.length() && Character.isDigit(expression.charAt(index))) {
+                    index++;
+                }
+                if (start == index) {
+                    throw invalid("expected a key, a position or '*'");
+                }
+                try {
+                    steps.add(new Step(null, Integer.parseInt(expression.substring(start, index))));
+                } catch (NumberFormatException e) {
+                    throw invalid("position out of range");
+                }
+            }
+            expect(']');
+        }
+
+        private void expect(char c) {
+            if (index >= expression.length() || expression.charAt(index) != c) {
+                throw invalid(format("expected '%s'", c));
+            }
+            index++;
+        }
+
+        private IllegalArgumentException invalid(String reason) {
+            return new IllegalArgumentException(format("Invalid claim path '%s' at position %s: %s", expression, index, reason));
+        }
+
+        private static boolean isKeyCharacter(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == ':';
+        }
+    }
+}
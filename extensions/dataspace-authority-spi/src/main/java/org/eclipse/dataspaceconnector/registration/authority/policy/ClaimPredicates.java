@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.authority.policy;
+
+import org.eclipse.dataspaceconnector.policy.model.Operator;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import static java.lang.String.format;
+
+/**
+ * Predicates on claim values, for the operators of policy constraints.
+ * <p>
+ * {@code EQ}, {@code NEQ} and {@code IN} compare values for equality, {@code IN} requiring a collection of values as
+ * right operand. {@code GT}, {@code GEQ}, {@code LT} and {@code LEQ} compare numbers or dates, depending on the right
+ * operand:
+ * <ul>
+ *     <li>a number, given as a JSON number or as a string, is compared with values that are numbers;</li>
+ *     <li>an ISO-8601 date ({@code 2023-01-31}) or date-time with offset ({@code 2023-01-31T12:00:00Z}), or
+ *     {@value #NOW} for the time of the evaluation, is compared with values that are dates or date-times, or numbers
+ *     of seconds since the epoch as in JWT claims.</li>
+ * </ul>
+ * Values that cannot be compared never match. The right operand is converted once, when the predicate is created.
+ */
+public final class ClaimPredicates {
+
+    public static final String NOW = "now";
+
+    private ClaimPredicates() {
+    }
+
+    /**
+     * Creates the predicate for a constraint.
+     *
+     * @param operator     the constraint operator.
+     * @param rightOperand the right operand of the constraint.
+     * @return the predicate, matching the claim values that satisfy the constraint.
+     * @throws IllegalArgumentException if the operator is not supported, or the right operand does not suit it.
+     */
+    public static Predicate<Object> of(Operator operator, Object rightOperand) {
+        return of(operator, rightOperand, Clock.systemUTC());
+    }
+
+    /**
+     * Creates the predicate for a constraint.
+     *
+     * @param operator     the constraint operator.
+     * @param rightOperand the right operand of the constraint.
+     * @param clock        the clock giving the time of the evaluation, for comparisons with {@value #NOW}.
+     * @return the predicate, matching the claim values that satisfy the constraint.
+     * @throws IllegalArgumentException if the operator is not supported, or the right operand does not suit it.
+     */
+    public static Predicate<Object> of(Operator operator, Object rightOperand, Clock clock) {
+        switch (operator) {
+            case EQ:
+                return value -> Objects.equals(value, rightOperand);
+            case NEQ:
+                return value -> !Objects.equals(value, rightOperand);
+            case IN:
+                if (!(rightOperand instanceof Collection)) {
+                    throw new IllegalArgumentException(format("Operator IN requires a collection, got %s", rightOperand));
+                }
+                var values = new HashSet<>((Collection<?>) rightOperand);
+                return values::contains;
+            case GT:
+                return compareTo(operator, rightOperand, clock, c -> c > 0);
+            case GEQ:
+                return compareTo(operator, rightOperand, clock, c -> c >= 0);
+            case LT:
+                return compareTo(operator, rightOperand, clock, c -> c < 0);
+            case LEQ:
+                return compareTo(operator, rightOperand, clock, c -> c <= 0);
+            default:
+                throw new IllegalArgumentException(format("Unsupported operator %s", operator));
+        }
+    }
+
+    private static Predicate<Object> compareTo(Operator operator, Object rightOperand, Clock clock, IntPredicate expected) {
+        var number = toNumber(rightOperand);
+        if (number != null) {
+            return value -> {
+                var n = toNumber(value);
+                return n != null && expected.test(n.compareTo(number));
+            };
+        }
+        if (NOW.equals(rightOperand)) {
+            return value -> {
+                var instant = toInstant(value);
+                return instant != null && expected.test(instant.compareTo(clock.instant()));
+            };
+        }
+        var date = rightOperand instanceof String ? toInstant(rightOperand) : null;
+        if (date != null) {
+            return value -> {
+                var instant = toInstant(value);
+                return instant != null && expected.test(instant.compareTo(date));
+            };
+        }
+        throw new IllegalArgumentException(format("Operator %s requires a number or a date, got %s", operator, rightOperand));
+    }
+
+    private static BigDecimal toNumber(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (!(value instanceof Number) && !(value instanceof String)) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Number) {
+            return Instant.ofEpochSecond(((Number) value).longValue());
+        }
+        if (!(value instanceof String)) {
+            return null;
+        }
+        var text = (String) value;
+        try {
+            if (text.length() == 10) {
+                return LocalDate.parse(text).atStartOfDay(ZoneOffset.UTC).toInstant();
+            }
+            return OffsetDateTime.parse(text).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
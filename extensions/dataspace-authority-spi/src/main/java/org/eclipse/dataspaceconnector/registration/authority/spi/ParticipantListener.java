@@ -0,0 +1,38 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.authority.spi;
+
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+
+/**
+ * Listener notified of changes to dataspace participants.
+ */
+public interface ParticipantListener {
+    /**
+     * Called after a participant has been added to the dataspace and saved, before its onboarding is processed.
+     *
+     * @param participant the added participant.
+     */
+    default void added(Participant participant) {
+    }
+
+    /**
+     * Called after the status of a participant has changed and the participant has been saved.
+     *
+     * @param participant the participant, in its new status.
+     */
+    default void statusChanged(Participant participant) {
+    }
+}
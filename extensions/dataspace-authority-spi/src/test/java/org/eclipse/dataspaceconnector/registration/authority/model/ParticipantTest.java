@@ -15,6 +15,7 @@
 package org.eclipse.dataspaceconnector.registration.authority.model;
 
 import org.eclipse.dataspaceconnector.registration.authority.TestUtils;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -36,8 +37,9 @@ class ParticipantTest {
     @MethodSource("allowedStatesForTransitioningToAuthorizing")
     void transitionAuthorizing_fromAllowedState(ParticipantStatus status) {
         var build = participantWithStatus(status);
-        build.transitionAuthorizing();
-        assertThat(build.getStatus()).isEqualTo(AUTHORIZING);
+        var transitioned = build.transitionAuthorizing();
+        assertThat(transitioned.getStatus()).isEqualTo(AUTHORIZING);
+        assertThat(build.getStatus()).isEqualTo(status);
     }
 
     @ParameterizedTest
@@ -52,8 +54,7 @@ class ParticipantTest {
     @MethodSource("allowedStatesForTransitioningToAuthorized")
     void transitionAuthorized_fromAllowedState(ParticipantStatus status) {
         var build = participantWithStatus(status);
-        build.transitionAuthorized();
-        assertThat(build.getStatus()).isEqualTo(AUTHORIZED);
+        assertThat(build.transitionAuthorized().getStatus()).isEqualTo(AUTHORIZED);
     }
 
     private Participant participantWithStatus(ParticipantStatus status) {
@@ -74,8 +75,7 @@ class ParticipantTest {
     @MethodSource("allowedStatesForTransitioningToDenied")
     void transitionDenied_fromAllowedState(ParticipantStatus status) {
         Participant build = participantWithStatus(status);
-        build.transitionDenied();
-        assertThat(build.getStatus()).isEqualTo(DENIED);
+        assertThat(build.transitionDenied().getStatus()).isEqualTo(DENIED);
     }
 
     @ParameterizedTest
@@ -86,6 +86,34 @@ class ParticipantTest {
                 .isThrownBy(build::transitionDenied);
     }
 
+    @Test
+    void scheduleRetry_thenTransition_resetsRetryState() {
+        var participant = participantWithStatus(AUTHORIZING)
+                .scheduleRetry(1000)
+                .scheduleRetry(3000);
+
+        assertThat(participant.getStatus()).isEqualTo(AUTHORIZING);
+        assertThat(participant.getRetryCount()).isEqualTo(2);
+        assertThat(participant.getNextAttemptAt()).isEqualTo(3000);
+
+        var authorized = participant.transitionAuthorized();
+
+        assertThat(authorized.getRetryCount()).isZero();
+        assertThat(authorized.getNextAttemptAt()).isZero();
+    }
+
+    @Test
+    void withSequence_keepsOtherFields() {
+        var participant = participantWithStatus(AUTHORIZING).scheduleRetry(1000);
+
+        var saved = participant.withSequence(42);
+
+        assertThat(saved.getSequence()).isEqualTo(42);
+        assertThat(participant.getSequence()).isZero();
+        assertThat(saved).usingRecursiveComparison().ignoringFields("sequence").isEqualTo(participant);
+        assertThat(saved.withSequence(42)).isSameAs(saved);
+    }
+
     static List<ParticipantStatus> allowedStatesForTransitioningToAuthorizing() {
         return List.of(ONBOARDING_INITIATED);
     }
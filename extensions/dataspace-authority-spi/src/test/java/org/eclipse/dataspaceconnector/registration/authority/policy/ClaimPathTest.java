@@ -0,0 +1,99 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.authority.policy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ClaimPathTest {
+
+    static final Map<String, Object> CLAIM = Map.of("vc", Map.of(
+            "type", List.of("VerifiableCredential", "GaiaXMembership"),
+            "credentialSubject", Map.of("gaiaXMember", "true", "https://example.com/level", 3)));
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "vc.credentialSubject.gaiaXMember",
+            "$.vc.credentialSubject.gaiaXMember",
+            "$['vc']['credentialSubject']['gaiaXMember']",
+            "vc['credentialSubject'].gaiaXMember"
+    })
+    void anyMatch_key(String expression) {
+        var path = ClaimPath.parse(expression);
+
+        assertThat(path.anyMatch(CLAIM, "true"::equals)).isTrue();
+        assertThat(path.anyMatch(CLAIM, "false"::equals)).isFalse();
+    }
+
+    @Test
+    void anyMatch_quotedKey() {
+        var path = ClaimPath.parse("vc.credentialSubject['https://example.com/level']");
+
+        assertThat(path.anyMatch(CLAIM, Integer.valueOf(3)::equals)).isTrue();
+    }
+
+    @Test
+    void anyMatch_listElements() {
+        assertThat(ClaimPath.parse("vc.type[1]").anyMatch(CLAIM, "GaiaXMembership"::equals)).isTrue();
+        assertThat(ClaimPath.parse("vc.type[0]").anyMatch(CLAIM, "GaiaXMembership"::equals)).isFalse();
+        assertThat(ClaimPath.parse("vc.type[2]").anyMatch(CLAIM, "GaiaXMembership"::equals)).isFalse();
+        assertThat(ClaimPath.parse("vc.type[*]").anyMatch(CLAIM, "GaiaXMembership"::equals)).isTrue();
+    }
+
+    @Test
+    void anyMatch_stopsAtFirstMatch() {
+        var tested = new ArrayList<>();
+
+        var matched = ClaimPath.parse("[*]").anyMatch(List.of("a", "b", "c"), value -> tested.add(value) && "b".equals(value));
+
+        assertThat(matched).isTrue();
+        assertThat(tested).containsExactly("a", "b");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "vc.credentialSubject.gaiaXMember.value",
+            "vc.credentialSubject[0]",
+            "vc.type.gaiaXMember",
+            "vc.credentialSubject.missing",
+            "credentialSubject.gaiaXMember"
+    })
+    void anyMatch_unexpectedStructure(String expression) {
+        assertThat(ClaimPath.parse(expression).anyMatch(CLAIM, value -> true)).isFalse();
+    }
+
+    @Test
+    void anyMatch_notAMap() {
+        var path = ClaimPath.parse("vc.credentialSubject.gaiaXMember");
+
+        assertThat(path.anyMatch(new Object(), value -> true)).isFalse();
+        assertThat(path.anyMatch(null, value -> true)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "$", "$.", "vc.", ".vc", "vc..type", "vc type", "vc[", "vc[x]", "vc['type", "vc[0]type", "vc[99999999999]" })
+    void parse_invalid(String expression) {
+        assertThatIllegalArgumentException().isThrownBy(() -> ClaimPath.parse(expression));
+    }
+}
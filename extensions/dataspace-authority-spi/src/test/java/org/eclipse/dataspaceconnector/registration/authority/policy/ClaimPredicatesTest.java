@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.authority.policy;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.EQ;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.GEQ;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.GT;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.IN;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.LEQ;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.LT;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.NEQ;
+import static org.eclipse.dataspaceconnector.registration.authority.policy.ClaimPredicates.NOW;
+
+class ClaimPredicatesTest {
+
+    @Test
+    void equality() {
+        assertThat(ClaimPredicates.of(EQ, "true").test("true")).isTrue();
+        assertThat(ClaimPredicates.of(EQ, "true").test("true ")).isFalse();
+        assertThat(ClaimPredicates.of(EQ, "true").test(true)).isFalse();
+        assertThat(ClaimPredicates.of(NEQ, "true").test("false")).isTrue();
+        assertThat(ClaimPredicates.of(NEQ, "true").test("true")).isFalse();
+    }
+
+    @Test
+    void in() {
+        var predicate = ClaimPredicates.of(IN, List.of("gold", "silver"));
+
+        assertThat(predicate.test("silver")).isTrue();
+        assertThat(predicate.test("bronze")).isFalse();
+    }
+
+    @Test
+    void in_requiresCollection() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ClaimPredicates.of(IN, "gold"));
+    }
+
+    @Test
+    void comparison_numbers() {
+        assertThat(ClaimPredicates.of(GT, 2).test(3)).isTrue();
+        assertThat(ClaimPredicates.of(GT, 2).test(2)).isFalse();
+        assertThat(ClaimPredicates.of(GEQ, "2").test(2.0)).isTrue();
+        assertThat(ClaimPredicates.of(LT, 2.5).test("2")).isTrue();
+        assertThat(ClaimPredicates.of(LEQ, 2).test(3L)).isFalse();
+    }
+
+    @Test
+    void comparison_ignoresValuesThatAreNotNumbers() {
+        assertThat(ClaimPredicates.of(GT, 2).test("three")).isFalse();
+        assertThat(ClaimPredicates.of(GT, 2).test(List.of(3))).isFalse();
+    }
+
+    @Test
+    void comparison_dates() {
+        assertThat(ClaimPredicates.of(GT, "2023-01-31").test("2023-02-01")).isTrue();
+        assertThat(ClaimPredicates.of(GT, "2023-01-31").test("2023-01-31T00:00:00Z")).isFalse();
+        assertThat(ClaimPredicates.of(GEQ, "2023-01-31").test("2023-01-31T00:00:00Z")).isTrue();
+        assertThat(ClaimPredicates.of(LT, "2023-01-31T12:00:00Z").test("2023-01-31T13:00:00+02:00")).isTrue();
+        assertThat(ClaimPredicates.of(LT, "2023-01-31T12:00:00Z").test(Instant.parse("2023-01-31T11:00:00Z").getEpochSecond())).isTrue();
+        assertThat(ClaimPredicates.of(LT, "2023-01-31").test("yesterday")).isFalse();
+    }
+
+    @Test
+    void comparison_now() {
+        var now = Instant.parse("2023-01-31T12:00:00Z");
+        var predicate = ClaimPredicates.of(GT, NOW, Clock.fixed(now, ZoneOffset.UTC));
+
+        assertThat(predicate.test("2023-01-31T12:00:01Z")).isTrue();
+        assertThat(predicate.test("2023-01-31T12:00:00Z")).isFalse();
+        assertThat(predicate.test(now.getEpochSecond() + 1)).isTrue();
+    }
+
+    @Test
+    void comparison_requiresNumberOrDate() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ClaimPredicates.of(GT, "two"));
+        assertThatIllegalArgumentException().isThrownBy(() -> ClaimPredicates.of(LT, "2023-02-30"));
+    }
+}
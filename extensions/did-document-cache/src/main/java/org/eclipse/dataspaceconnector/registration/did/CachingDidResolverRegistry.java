@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.did;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.eclipse.dataspaceconnector.iam.did.spi.document.DidDocument;
+import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidResolver;
+import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidResolverRegistry;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static java.lang.String.format;
+
+/**
+ * {@link DidResolverRegistry} caching the DID documents resolved by another registry.
+ * <p>
+ * Resolved documents are kept for a fixed time, and resolution failures (e.g. an unreachable did:web host) for a
+ * shorter time, so that a failing DID is not resolved again on every request, but is retried soon. The number of
+ * cached DIDs is bounded, least valuable entries being evicted first. Concurrent lookups of the same DID are resolved
+ * only once, the other callers waiting for the result.
+ */
+public class CachingDidResolverRegistry implements DidResolverRegistry, MeterBinder {
+
+    public static final String CACHE_NAME = "did.documents";
+
+    private final DidResolverRegistry delegate;
+    private final Cache<String, Result<DidDocument>> cache;
+
+    public CachingDidResolverRegistry(DidResolverRegistry delegate, Duration ttl, Duration negativeTtl, long maximumSize) {
+        this(delegate, ttl, negativeTtl, maximumSize, Ticker.systemTicker());
+    }
+
+    CachingDidResolverRegistry(DidResolverRegistry delegate, Duration ttl, Duration negativeTtl, long maximumSize, Ticker ticker) {
+        if (ttl.isNegative() || negativeTtl.isNegative() || maximumSize < 0) {
+            throw new IllegalArgumentException(format("Invalid DID document cache configuration: ttl %s, negative ttl %s, maximum size %s",
+                    ttl, negativeTtl, maximumSize));
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ResultExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void register(DidResolver resolver) {
+        delegate.register(resolver);
+    }
+
+    @Override
+    public Result<DidDocument> resolve(String didKey) {
+        return cache.get(didKey, delegate::resolve);
+    }
+
+    /**
+     * Removes a DID from the cache, so that it is resolved again on next lookup.
+     *
+     * @param didKey the DID.
+     */
+    public void invalidate(String didKey) {
+        cache.invalidate(didKey);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Publishes the cache size, hits, misses and evictions, as {@code cache.*} meters tagged with
+     * {@code cache=did.documents}.
+     */
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache, CACHE_NAME, Tags.empty()).bindTo(registry);
+    }
+
+    private static class ResultExpiry implements Expiry<String, Result<DidDocument>> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        ResultExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Result<DidDocument> result, long currentTime) {
+            return result.succeeded() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Result<DidDocument> result, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, result, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Result<DidDocument> result, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.did;
+
+import io.micrometer.core.instrument.Metrics;
+import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidPublicKeyResolver;
+import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidResolverRegistry;
+import org.eclipse.dataspaceconnector.spi.EdcSetting;
+import org.eclipse.dataspaceconnector.spi.system.Provides;
+import org.eclipse.dataspaceconnector.spi.system.Requires;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
+
+import java.time.Duration;
+
+/**
+ * EDC extension replacing the {@link DidResolverRegistry} with a {@link CachingDidResolverRegistry}, so that the
+ * participant verifier and the verifiable credential service share resolved DID documents.
+ * <p>
+ * The extension requires the {@link DidPublicKeyResolver}, so that it is initialized after the extension providing the
+ * original registry, and provides the {@link DidResolverRegistry}, so that it is initialized before the extensions
+ * using it.
+ */
+@Requires(DidPublicKeyResolver.class)
+@Provides(DidResolverRegistry.class)
+public class DidDocumentCacheExtension implements ServiceExtension {
+
+    @EdcSetting(type = "integer", value = "Time in seconds during which a resolved DID document is cached")
+    public static final String TTL_SETTING = "registration.did.cache.ttl";
+    public static final long DEFAULT_TTL = 300;
+    @EdcSetting(type = "integer", value = "Time in seconds during which a DID resolution failure is cached")
+    public static final String NEGATIVE_TTL_SETTING = "registration.did.cache.negative-ttl";
+    public static final long DEFAULT_NEGATIVE_TTL = 10;
+    @EdcSetting(type = "integer", value = "Maximum number of cached DIDs")
+    public static final String MAXIMUM_SIZE_SETTING = "registration.did.cache.maximum-size";
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var registry = new CachingDidResolverRegistry(context.getService(DidResolverRegistry.class),
+                Duration.ofSeconds(context.getSetting(TTL_SETTING, DEFAULT_TTL)),
+                Duration.ofSeconds(context.getSetting(NEGATIVE_TTL_SETTING, DEFAULT_NEGATIVE_TTL)),
+                context.getSetting(MAXIMUM_SIZE_SETTING, DEFAULT_MAXIMUM_SIZE));
+        registry.bindTo(Metrics.globalRegistry);
+        context.registerService(DidResolverRegistry.class, registry);
+    }
+}
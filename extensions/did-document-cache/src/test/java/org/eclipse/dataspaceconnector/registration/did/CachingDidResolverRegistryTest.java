@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.did;
+
+import com.github.javafaker.Faker;
+import org.eclipse.dataspaceconnector.iam.did.spi.document.DidDocument;
+import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidResolver;
+import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidResolverRegistry;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingDidResolverRegistryTest {
+    static final Faker FAKER = new Faker();
+    static final Duration TTL = Duration.ofMinutes(5);
+    static final Duration NEGATIVE_TTL = Duration.ofSeconds(10);
+
+    String did = "did:web:" + FAKER.internet().domainName();
+    DidResolverRegistry delegate = mock(DidResolverRegistry.class);
+    AtomicLong nanos = new AtomicLong();
+    CachingDidResolverRegistry registry = new CachingDidResolverRegistry(delegate, TTL, NEGATIVE_TTL, 100, nanos::get);
+
+    @Test
+    void resolve_cachesDocument() {
+        var document = Result.success(DidDocument.Builder.newInstance().id(did).build());
+        when(delegate.resolve(did)).thenReturn(document);
+
+        assertThat(registry.resolve(did)).isSameAs(document);
+        assertThat(registry.resolve(did)).isSameAs(document);
+
+        verify(delegate, times(1)).resolve(did);
+        assertThat(registry.stats().hitCount()).isEqualTo(1);
+        assertThat(registry.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void resolve_afterTtl_resolvesAgain() {
+        when(delegate.resolve(did)).thenReturn(Result.success(DidDocument.Builder.newInstance().id(did).build()));
+        registry.resolve(did);
+
+        advance(TTL.minusSeconds(1));
+        registry.resolve(did);
+        verify(delegate, times(1)).resolve(did);
+
+        advance(Duration.ofSeconds(1));
+        registry.resolve(did);
+        verify(delegate, times(2)).resolve(did);
+    }
+
+    @Test
+    void resolve_cachesFailureForNegativeTtl() {
+        when(delegate.resolve(did)).thenReturn(Result.failure(FAKER.lorem().sentence()));
+
+        assertThat(registry.resolve(did).failed()).isTrue();
+        assertThat(registry.resolve(did).failed()).isTrue();
+        verify(delegate, times(1)).resolve(did);
+
+        advance(NEGATIVE_TTL);
+        registry.resolve(did);
+        verify(delegate, times(2)).resolve(did);
+    }
+
+    @Test
+    void invalidate() {
+        when(delegate.resolve(did)).thenReturn(Result.success(DidDocument.Builder.newInstance().id(did).build()));
+        registry.resolve(did);
+
+        registry.invalidate(did);
+        registry.resolve(did);
+
+        verify(delegate, times(2)).resolve(did);
+    }
+
+    @Test
+    void resolve_concurrentLookups_resolvedOnce() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var document = Result.success(DidDocument.Builder.newInstance().id(did).build());
+        when(delegate.resolve(did)).thenAnswer(i -> {
+            started.countDown();
+            release.await(10, SECONDS);
+            return document;
+        });
+
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var lookups = new ArrayList<CompletableFuture<Result<DidDocument>>>();
+            for (var i = 0; i < 8; i++) {
+                lookups.add(CompletableFuture.supplyAsync(() -> registry.resolve(did), executor));
+            }
+            assertThat(started.await(10, SECONDS)).isTrue();
+            Thread.sleep(100);
+            release.countDown();
+
+            for (var lookup : lookups) {
+                assertThat(lookup.get(10, SECONDS)).isSameAs(document);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(delegate, times(1)).resolve(did);
+    }
+
+    @Test
+    void register_delegates() {
+        var resolver = mock(DidResolver.class);
+
+        registry.register(resolver);
+
+        verify(delegate).register(resolver);
+        verify(delegate, times(0)).resolve(any());
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
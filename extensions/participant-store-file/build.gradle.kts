@@ -0,0 +1,22 @@
+plugins {
+    `java-library`
+}
+
+val jacksonVersion: String by project
+val jupiterVersion: String by project
+val assertj: String by project
+val mockitoVersion: String by project
+val faker: String by project
+
+dependencies {
+    api(project(":extensions:participant-store-spi"))
+    implementation(project(":extensions:participant-store-memory"))
+    implementation("com.fasterxml.jackson.core:jackson-databind:${jacksonVersion}")
+
+    testImplementation("org.assertj:assertj-core:${assertj}")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:${jupiterVersion}")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:${jupiterVersion}")
+    testImplementation("org.mockito:mockito-core:${mockitoVersion}")
+    testImplementation("com.github.javafaker:javafaker:${faker}")
+    testImplementation(testFixtures(project(":extensions:dataspace-authority-spi")))
+}
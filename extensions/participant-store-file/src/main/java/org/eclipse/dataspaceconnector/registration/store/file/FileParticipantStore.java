@@ -0,0 +1,523 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.store.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
+import org.eclipse.dataspaceconnector.registration.store.InMemoryParticipantStore;
+import org.eclipse.dataspaceconnector.registration.store.spi.ParticipantStore;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Durable {@link ParticipantStore} backed by files in a local directory.
+ * <p>
+ * Participants are held in an {@link InMemoryParticipantStore}, which serves all queries and leases. Every save is
+ * additionally appended to a log file, as one JSON record per line, and the log is forced to disk before
+ * {@link #save(Participant)} returns. Concurrent saves share a single force ("group commit"), so the number of fsync
+ * calls does not grow with the number of concurrent writers.
+ * <p>
+ * Every {@code snapshotInterval} saves, a new log file is started and a compacted snapshot of all participants is
+ * written in the background. Older snapshots and log files are deleted once the snapshot is complete. On startup, the
+ * latest snapshot is read using memory-mapped I/O, and the log files written since are replayed on top of it. Log
+ * records contain the full participant, so replaying a record that is already reflected in the snapshot is harmless.
+ * A record that was only partially written (e.g. because the process was killed) is discarded. Records include the
+ * sequence number assigned to the save, so that sequence numbers keep increasing across restarts.
+ * <p>
+ * Leases are not persisted, and the directory must not be shared between processes.
+ */
+public class FileParticipantStore implements ParticipantStore {
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String LOG_PREFIX = "log-";
+    private static final String FILE_SUFFIX = ".ndjson";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long MAX_MAPPED_WINDOW = 256L * 1024 * 1024;
+
+    private final InMemoryParticipantStore memory = new InMemoryParticipantStore();
+    private final Path directory;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final Monitor monitor;
+    private final int snapshotInterval;
+    private final ExecutorService snapshotExecutor;
+
+    // lock order: snapshotLock, then forceLock, then writeLock
+    private final Object snapshotLock = new Object();
+    private final Object forceLock = new Object();
+    private final Object writeLock = new Object();
+
+    // guarded by writeLock
+    private FileChannel logChannel;
+    private long generation;
+    private long writtenOffset;
+    private int recordsSinceSnapshot;
+    private boolean snapshotScheduled;
+    private long lastSequence;
+
+    // offsets are counted since the store was opened, across log files
+    private volatile long durableOffset;
+
+    public FileParticipantStore(Path directory, ObjectMapper mapper, Monitor monitor, int snapshotInterval) {
+        this.directory = directory;
+        this.writer = mapper.writerFor(Participant.class).without(SerializationFeature.INDENT_OUTPUT);
+        this.reader = mapper.readerFor(Participant.class);
+        this.monitor = monitor;
+        this.snapshotInterval = snapshotInterval;
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(r -> {
+            var thread = new Thread(r, "participant-store-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new EdcException("Failed to recover participants from " + directory, e);
+        }
+    }
+
+    @Override
+    public @Nullable Participant findByDid(String did) {
+        return memory.findByDid(did);
+    }
+
+    @Override
+    public List<Participant> listParticipants() {
+        return memory.listParticipants();
+    }
+
+    @Override
+    public List<Participant> listParticipants(Set<ParticipantStatus> statuses, @Nullable String afterDid, int limit) {
+        return memory.listParticipants(statuses, afterDid, limit);
+    }
+
+    @Override
+    public List<Participant> listChanges(long sinceSequence, int limit) {
+        return memory.listChanges(sinceSequence, limit);
+    }
+
+    @Override
+    public Participant save(Participant participant) {
+        Participant saved;
+        long offset;
+        synchronized (writeLock) {
+            saved = nextSave(participant);
+            offset = appendAndRestore(saved);
+        }
+        force(offset);
+        return saved;
+    }
+
+    @Override
+    public boolean saveIfAbsent(Participant participant) {
+        long offset;
+        synchronized (writeLock) {
+            // participants are only added under the write lock, so none can be added between the check and the save
+            if (memory.findByDid(participant.getDid()) != null) {
+                return false;
+            }
+            offset = appendAndRestore(nextSave(participant));
+        }
+        force(offset);
+        return true;
+    }
+
+    /**
+     * Appends the absent participants under a single acquisition of the write lock, and forces the log once.
+     */
+    @Override
+    public List<Participant> saveAllIfAbsent(Collection<Participant> participants) {
+        var saved = new ArrayList<Participant>();
+        var offset = 0L;
+        synchronized (writeLock) {
+            for (var participant : participants) {
+                if (memory.findByDid(participant.getDid()) == null) {
+                    var stored = nextSave(participant);
+                    offset = appendAndRestore(stored);
+                    saved.add(stored);
+                }
+            }
+        }
+        force(offset);
+        return saved;
+    }
+
+    @Override
+    public @Nullable Participant save(Participant participant, long expectedSequence) {
+        Participant saved;
+        long offset;
+        synchronized (writeLock) {
+            var stored = memory.findByDid(participant.getDid());
+            if ((stored == null ? 0 : stored.getSequence()) != expectedSequence) {
+                return null;
+            }
+            saved = nextSave(participant);
+            offset = appendAndRestore(saved);
+        }
+        force(offset);
+        return saved;
+    }
+
+    @Override
+    public Collection<Participant> listParticipantsWithStatus(ParticipantStatus state) {
+        return memory.listParticipantsWithStatus(state);
+    }
+
+    @Override
+    public List<Participant> nextForState(ParticipantStatus state, int max) {
+        return memory.nextForState(state, max);
+    }
+
+    @Override
+    public List<Participant> claimNextForState(ParticipantStatus state, int max, String leaseHolder, Duration leaseDuration) {
+        return memory.claimNextForState(state, max, leaseHolder, leaseDuration);
+    }
+
+    @Override
+    public boolean renewLease(String did, String leaseHolder, Duration leaseDuration) {
+        return memory.renewLease(did, leaseHolder, leaseDuration);
+    }
+
+    @Override
+    public void breakLease(String did, String leaseHolder) {
+        memory.breakLease(did, leaseHolder);
+    }
+
+    /**
+     * Waits for a pending snapshot to complete, and closes the log file. Closing an already closed store has no effect.
+     */
+    public void close() {
+        snapshotExecutor.shutdown();
+        try {
+            if (!snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                monitor.warning("Timed out waiting for participant snapshot to complete");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (forceLock) {
+            synchronized (writeLock) {
+                if (!logChannel.isOpen()) {
+                    return;
+                }
+                try {
+                    logChannel.force(false);
+                    logChannel.close();
+                } catch (IOException e) {
+                    throw new EdcException("Failed to close participant log", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts a new log file and writes a snapshot of all participants. Log files and snapshots that are superseded by
+     * the new snapshot are deleted.
+     */
+    void snapshot() {
+        synchronized (snapshotLock) {
+            long snapshotGeneration;
+            synchronized (forceLock) {
+                synchronized (writeLock) {
+                    try {
+                        logChannel.force(false);
+                        logChannel.close();
+                        durableOffset = writtenOffset;
+                        generation++;
+                        logChannel = openLog(generation);
+                    } catch (IOException e) {
+                        throw new EdcException("Failed to start new participant log", e);
+                    }
+                    recordsSinceSnapshot = 0;
+                    snapshotGeneration = generation;
+                }
+            }
+
+            // all records of previous log files are applied to the in-memory store at this point
+            try {
+                writeSnapshot(snapshotGeneration, memory.listParticipants());
+                deleteFilesBefore(snapshotGeneration);
+            } catch (IOException e) {
+                throw new EdcException("Failed to write participant snapshot", e);
+            } finally {
+                synchronized (writeLock) {
+                    snapshotScheduled = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Assigns the next sequence number to a participant. Must be called while holding the write lock.
+     */
+    private Participant nextSave(Participant participant) {
+        // the sequence number is assigned here rather than by the in-memory store, so that it is part of the record
+        return participant.withSequence(++lastSequence);
+    }
+
+    /**
+     * Appends a participant to the log and stores it in memory. Must be called while holding the write lock.
+     *
+     * @return the offset to force for the participant to be durable.
+     */
+    private long appendAndRestore(Participant participant) {
+        var offset = append(serialize(participant));
+        memory.restore(participant);
+        return offset;
+    }
+
+    private long append(byte[] record) {
+        try {
+            var position = logChannel.size();
+            try {
+                var buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    logChannel.write(buffer);
+                }
+            } catch (IOException e) {
+                // do not leave a partial record in the middle of the log
+                logChannel.truncate(position);
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new EdcException("Failed to append to participant log", e);
+        }
+        writtenOffset += record.length;
+        if (++recordsSinceSnapshot >= snapshotInterval && !snapshotScheduled) {
+            snapshotScheduled = true;
+            snapshotExecutor.execute(this::snapshotQuietly);
+        }
+        return writtenOffset;
+    }
+
+    private void force(long offset) {
+        if (durableOffset >= offset) {
+            return;
+        }
+        synchronized (forceLock) {
+            // another thread may have forced the log while this one was waiting
+            if (durableOffset >= offset) {
+                return;
+            }
+            FileChannel channel;
+            long target;
+            synchronized (writeLock) {
+                channel = logChannel;
+                target = writtenOffset;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new EdcException("Failed to sync participant log", e);
+            }
+            durableOffset = target;
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            monitor.severe("Failed to write participant snapshot", e);
+        }
+    }
+
+    private void recover() throws IOException {
+        deleteTemporaryFiles();
+        var snapshots = generations(SNAPSHOT_PREFIX);
+        var snapshotGeneration = snapshots.isEmpty() ? 0L : snapshots.get(snapshots.size() - 1);
+        var participants = 0L;
+        if (!snapshots.isEmpty()) {
+            var snapshot = file(SNAPSHOT_PREFIX, snapshotGeneration);
+            var counter = new long[1];
+            var length = readRecords(snapshot, participant -> {
+                memory.restore(participant);
+                counter[0]++;
+            });
+            if (length < Files.size(snapshot)) {
+                throw new EdcException("Incomplete participant snapshot " + snapshot);
+            }
+            participants = counter[0];
+        }
+
+        var logs = generations(LOG_PREFIX).stream().filter(g -> g >= snapshotGeneration).collect(Collectors.toList());
+        var records = new long[1];
+        for (var i = 0; i < logs.size(); i++) {
+            var log = file(LOG_PREFIX, logs.get(i));
+            var length = readRecords(log, participant -> {
+                memory.restore(participant);
+                records[0]++;
+            });
+            if (length < Files.size(log)) {
+                if (i < logs.size() - 1) {
+                    throw new EdcException("Incomplete record in participant log " + log);
+                }
+                monitor.warning(format("Discarding incomplete record at the end of %s", log));
+                try (var channel = FileChannel.open(log, WRITE)) {
+                    channel.truncate(length);
+                }
+            }
+        }
+
+        generation = logs.isEmpty() ? snapshotGeneration : logs.get(logs.size() - 1);
+        lastSequence = memory.listParticipants().stream().mapToLong(Participant::getSequence).max().orElse(0);
+        logChannel = openLog(generation);
+        recordsSinceSnapshot = (int) Math.min(records[0], Integer.MAX_VALUE);
+        monitor.info(format("Recovered %d participants from snapshot and %d records from log in %s", participants, records[0], directory));
+    }
+
+    /**
+     * Reads newline-delimited participant records from a file, using memory-mapped windows.
+     *
+     * @return the length of the file up to the end of the last complete record.
+     */
+    private long readRecords(Path file, Consumer<Participant> consumer) throws IOException {
+        try (var channel = FileChannel.open(file, READ)) {
+            var size = channel.size();
+            var position = 0L;
+            while (position < size) {
+                var buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAX_MAPPED_WINDOW, size - position));
+                var limit = buffer.limit();
+                var recordStart = 0;
+                for (var i = 0; i < limit; i++) {
+                    if (buffer.get(i) == '\n') {
+                        consumer.accept(parse(buffer.slice(recordStart, i - recordStart), file));
+                        recordStart = i + 1;
+                    }
+                }
+                if (recordStart == 0) {
+                    if (position + limit < size) {
+                        throw new EdcException(format("Record exceeding %d bytes in %s", MAX_MAPPED_WINDOW, file));
+                    }
+                    // incomplete record at the end of the file
+                    break;
+                }
+                position += recordStart;
+            }
+            return position;
+        }
+    }
+
+    private Participant parse(ByteBuffer record, Path file) {
+        try {
+            return reader.readValue(new ByteBufferBackedInputStream(record));
+        } catch (IOException e) {
+            throw new EdcException("Invalid participant record in " + file, e);
+        }
+    }
+
+    private byte[] serialize(Participant participant) {
+        try {
+            var json = writer.writeValueAsBytes(participant);
+            var record = new byte[json.length + 1];
+            System.arraycopy(json, 0, record, 0, json.length);
+            record[json.length] = '\n';
+            return record;
+        } catch (IOException e) {
+            throw new EdcException("Failed to serialize participant " + participant.getDid(), e);
+        }
+    }
+
+    private void writeSnapshot(long snapshotGeneration, List<Participant> participants) throws IOException {
+        var snapshot = file(SNAPSHOT_PREFIX, snapshotGeneration);
+        var temp = directory.resolve(snapshot.getFileName() + TEMP_SUFFIX);
+        try (var channel = FileChannel.open(temp, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            var out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+            for (var participant : participants) {
+                out.write(serialize(participant));
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, snapshot, ATOMIC_MOVE, REPLACE_EXISTING);
+        monitor.debug(() -> format("Wrote snapshot of %d participants to %s", participants.size(), snapshot));
+    }
+
+    private void deleteFilesBefore(long snapshotGeneration) throws IOException {
+        for (var prefix : List.of(SNAPSHOT_PREFIX, LOG_PREFIX)) {
+            for (var g : generations(prefix)) {
+                if (g < snapshotGeneration) {
+                    Files.deleteIfExists(file(prefix, g));
+                }
+            }
+        }
+    }
+
+    private void deleteTemporaryFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            files.filter(f -> f.getFileName().toString().endsWith(TEMP_SUFFIX)).forEach(f -> {
+                try {
+                    Files.delete(f);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private List<Long> generations(String prefix) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(FILE_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - FILE_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private FileChannel openLog(long logGeneration) throws IOException {
+        return FileChannel.open(file(LOG_PREFIX, logGeneration), CREATE, WRITE, APPEND);
+    }
+
+    private Path file(String prefix, long fileGeneration) {
+        return directory.resolve(format("%s%020d%s", prefix, fileGeneration, FILE_SUFFIX));
+    }
+}
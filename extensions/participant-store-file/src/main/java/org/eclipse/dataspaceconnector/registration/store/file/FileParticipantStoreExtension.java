@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.store.file;
+
+import org.eclipse.dataspaceconnector.registration.store.spi.ParticipantStore;
+import org.eclipse.dataspaceconnector.spi.EdcSetting;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.eclipse.dataspaceconnector.spi.system.Inject;
+import org.eclipse.dataspaceconnector.spi.system.Provider;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+import static java.lang.String.format;
+
+/**
+ * EDC extension to provide a durable, file-based {@link ParticipantStore}.
+ */
+public class FileParticipantStoreExtension implements ServiceExtension {
+
+    @EdcSetting(value = "Directory in which participants are persisted")
+    public static final String DIRECTORY_SETTING = "registration.store.file.directory";
+    @EdcSetting(type = "integer", value = "Number of saved participants after which a snapshot is written and older log files are deleted")
+    public static final String SNAPSHOT_INTERVAL_SETTING = "registration.store.file.snapshot-interval";
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 10_000;
+
+    @Inject
+    private Monitor monitor;
+
+    private FileParticipantStore store;
+
+    @Provider
+    public ParticipantStore participantStore(ServiceExtensionContext context) {
+        var directory = Objects.requireNonNull(context.getSetting(DIRECTORY_SETTING, null),
+                () -> format("Missing setting %s", DIRECTORY_SETTING));
+        var snapshotInterval = context.getSetting(SNAPSHOT_INTERVAL_SETTING, DEFAULT_SNAPSHOT_INTERVAL);
+
+        store = new FileParticipantStore(Path.of(directory), context.getTypeManager().getMapper(), monitor, snapshotInterval);
+        return store;
+    }
+
+    @Override
+    public void shutdown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+}
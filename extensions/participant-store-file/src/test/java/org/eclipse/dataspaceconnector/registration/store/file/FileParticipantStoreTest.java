@@ -0,0 +1,256 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.store.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.eclipse.dataspaceconnector.registration.authority.TestUtils.createParticipant;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZED;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZING;
+import static org.mockito.Mockito.mock;
+
+class FileParticipantStoreTest {
+
+    @TempDir
+    Path directory;
+
+    ObjectMapper mapper = new ObjectMapper();
+    Monitor monitor = mock(Monitor.class);
+    List<FileParticipantStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(FileParticipantStore::close);
+    }
+
+    @Test
+    void recover_empty() {
+        assertThat(open(100).listParticipants()).isEmpty();
+    }
+
+    @Test
+    void recover_afterClose() {
+        var store = open(100);
+        var participant1 = store.save(createParticipant().build());
+        var participant2 = store.save(createParticipant().build());
+        store.close();
+
+        assertThat(open(100).listParticipants())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrder(participant1, participant2);
+    }
+
+    @Test
+    void recover_keepsLatestVersion() {
+        var store = open(100);
+        var participant = store.save(createParticipant().status(AUTHORIZING).build());
+        store.save(participant.transitionAuthorized());
+        store.close();
+
+        var recovered = open(100);
+        assertThat(recovered.listParticipants()).hasSize(1);
+        assertThat(recovered.findByDid(participant.getDid()).getStatus()).isEqualTo(AUTHORIZED);
+        assertThat(recovered.listParticipantsWithStatus(AUTHORIZED)).hasSize(1);
+    }
+
+    @Test
+    void saveIfAbsent_recovered() {
+        var store = open(100);
+        assertThat(store.saveIfAbsent(createParticipant().status(AUTHORIZING).build())).isTrue();
+        var participant = store.listParticipants().get(0);
+        assertThat(store.saveIfAbsent(createParticipant().did(participant.getDid()).build())).isFalse();
+        store.close();
+
+        var recovered = open(100);
+        assertThat(recovered.listChanges(0, 10))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(participant);
+    }
+
+    @Test
+    void saveAllIfAbsent_recovered() {
+        var store = open(100);
+        var existing = store.save(createParticipant().status(AUTHORIZING).build());
+        var added = createParticipant().build();
+
+        var saved = store.saveAllIfAbsent(List.of(createParticipant().did(existing.getDid()).build(), added, createParticipant().did(added.getDid()).build()));
+        store.close();
+
+        assertThat(saved).extracting(Participant::getDid, Participant::getSequence).containsExactly(tuple(added.getDid(), existing.getSequence() + 1));
+        var recovered = open(100);
+        assertThat(recovered.findByDid(existing.getDid()).getStatus()).isEqualTo(AUTHORIZING);
+        assertThat(recovered.listChanges(0, 10)).extracting(Participant::getDid).containsExactly(existing.getDid(), added.getDid());
+    }
+
+    @Test
+    void save_expectedSequence() {
+        var store = open(100);
+        var participant = store.save(createParticipant().status(AUTHORIZING).build());
+        var readSequence = participant.getSequence();
+        participant = store.save(participant);
+
+        var stale = createParticipant().did(participant.getDid()).status(AUTHORIZED).build();
+        assertThat(store.save(stale, readSequence)).isNull();
+        store.close();
+
+        var recovered = open(100);
+        assertThat(recovered.findByDid(participant.getDid()).getStatus()).isEqualTo(AUTHORIZING);
+        assertThat(recovered.save(stale, participant.getSequence())).isNotNull();
+        assertThat(recovered.listParticipantsWithStatus(AUTHORIZED)).hasSize(1);
+    }
+
+    @Test
+    void recover_keepsSequenceNumbers() {
+        var store = open(2);
+        var participants = saveParticipants(store, 5);
+        store.close();
+
+        var recovered = open(2);
+        assertThat(recovered.listChanges(0, 10)).extracting(Participant::getSequence).containsExactly(1L, 2L, 3L, 4L, 5L);
+        var participant = recovered.save(createParticipant().build());
+        assertThat(participant.getSequence()).isEqualTo(6);
+        assertThat(recovered.listChanges(participants.get(4).getSequence(), 10)).extracting(Participant::getDid).containsExactly(participant.getDid());
+    }
+
+    @Test
+    void snapshot_deletesOlderFiles() throws IOException {
+        var store = open(100);
+        var before = saveParticipants(store, 10);
+        store.snapshot();
+        var after = saveParticipants(store, 5);
+        store.close();
+
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(f -> f.getFileName().toString()))
+                    .containsExactlyInAnyOrder("snapshot-00000000000000000001.ndjson", "log-00000000000000000001.ndjson");
+        }
+        assertThat(open(100).listParticipants())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(Stream.concat(before.stream(), after.stream()).collect(Collectors.toList()));
+    }
+
+    @Test
+    void snapshot_triggeredByInterval() throws IOException {
+        var store = open(5);
+        saveParticipants(store, 20);
+        store.close();
+
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(f -> f.getFileName().toString())).anyMatch(f -> f.startsWith("snapshot-"));
+        }
+        assertThat(open(5).listParticipants()).hasSize(20);
+    }
+
+    @Test
+    void recover_truncatesIncompleteTail() throws IOException {
+        var store = open(100);
+        var participants = saveParticipants(store, 3);
+        store.close();
+
+        Files.writeString(directory.resolve("log-00000000000000000000.ndjson"), "{\"did\":\"incompl", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        var recovered = open(100);
+        assertThat(recovered.listParticipants())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(participants);
+
+        var participant = createParticipant().build();
+        recovered.save(participant);
+        recovered.close();
+        assertThat(open(100).listParticipants()).hasSize(4);
+    }
+
+    @Test
+    void recover_failsOnCorruptedSnapshot() throws IOException {
+        var store = open(100);
+        saveParticipants(store, 3);
+        store.snapshot();
+        store.close();
+
+        Files.writeString(directory.resolve("snapshot-00000000000000000001.ndjson"), "{\"did\":\"incompl", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertThatThrownBy(() -> open(100)).isInstanceOf(EdcException.class);
+    }
+
+    @Test
+    void save_concurrently() throws Exception {
+        var store = open(50);
+        var executor = Executors.newFixedThreadPool(8);
+        var futures = new ArrayList<Future<List<Participant>>>();
+        for (var i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> saveParticipants(store, 100)));
+        }
+        var saved = new ArrayList<Participant>();
+        for (var future : futures) {
+            saved.addAll(future.get(30, SECONDS));
+        }
+        executor.shutdown();
+        store.close();
+
+        assertThat(open(50).listParticipants())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(saved);
+    }
+
+    @Test
+    void saveAllIfAbsent_concurrentlyWithSaveIfAbsent() throws Exception {
+        var store = open(50);
+        var dids = IntStream.range(0, 100).mapToObj(i -> "did:web:participant-" + i).collect(Collectors.toList());
+        var executor = Executors.newFixedThreadPool(2);
+        var imported = executor.submit(() -> store.saveAllIfAbsent(dids.stream().map(did -> createParticipant().did(did).build()).collect(Collectors.toList())).size());
+        var registered = executor.submit(() -> (int) dids.stream().filter(did -> store.saveIfAbsent(createParticipant().did(did).build())).count());
+        var saved = imported.get(30, SECONDS) + registered.get(30, SECONDS);
+        executor.shutdown();
+        store.close();
+
+        assertThat(saved).isEqualTo(dids.size());
+        assertThat(open(50).listChanges(0, 1000)).hasSize(dids.size());
+    }
+
+    private FileParticipantStore open(int snapshotInterval) {
+        var store = new FileParticipantStore(directory, mapper, monitor, snapshotInterval);
+        stores.add(store);
+        return store;
+    }
+
+    private List<Participant> saveParticipants(FileParticipantStore store, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> store.save(createParticipant().build()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,17 @@
+plugins {
+    `java-library`
+}
+
+val jupiterVersion: String by project
+val assertj: String by project
+val faker: String by project
+
+dependencies {
+    api(project(":extensions:participant-store-spi"))
+
+    testImplementation("org.assertj:assertj-core:${assertj}")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:${jupiterVersion}")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:${jupiterVersion}")
+    testImplementation("com.github.javafaker:javafaker:${faker}")
+    testImplementation(testFixtures(project(":extensions:dataspace-authority-spi")))
+}
@@ -0,0 +1,355 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.store;
+
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
+import org.eclipse.dataspaceconnector.registration.store.spi.ParticipantStore;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory store for dataspace participants.
+ * <p>
+ * Participants are additionally indexed by status, so that status queries only visit matching participants. Within a
+ * status, participants are sorted by the time they are due for processing, so that participants waiting to retry are
+ * not visited when looking for participants to process. The index is updated atomically with the stored entry. As
+ * stored participants are immutable, reads return them without copying or locking, and the index always matches the
+ * stored participant. Leases are kept with the stored entry, so that claiming a participant is atomic with respect to
+ * concurrent saves. DIDs are also kept sorted, overall and per status, so that a page of participants can be listed
+ * without sorting the whole store or visiting participants in other statuses, and so are the sequence numbers of the
+ * last save of each participant, so that changes can be listed without visiting unchanged participants.
+ * <p>
+ * Sequence numbers start over with each store instance, which therefore has its own {@link #getSequenceEpoch() epoch}.
+ */
+public class InMemoryParticipantStore implements ParticipantStore {
+
+    private final Map<String, Entry> storage = new ConcurrentHashMap<>();
+    private final Map<ParticipantStatus, NavigableSet<IndexKey>> statusIndex = new EnumMap<>(ParticipantStatus.class);
+    private final NavigableSet<String> dids = new ConcurrentSkipListSet<>();
+    private final Map<ParticipantStatus, NavigableSet<String>> didsByStatus = new EnumMap<>(ParticipantStatus.class);
+    private final NavigableMap<Long, String> changes = new ConcurrentSkipListMap<>();
+    private final Clock clock;
+    private final String sequenceEpoch = UUID.randomUUID().toString();
+
+    // guarded by changes
+    private long lastSequence;
+
+    public InMemoryParticipantStore() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryParticipantStore(Clock clock) {
+        this.clock = clock;
+        for (var status : ParticipantStatus.values()) {
+            statusIndex.put(status, new ConcurrentSkipListSet<>(IndexKey.COMPARATOR));
+            didsByStatus.put(status, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    @Override
+    public @Nullable Participant findByDid(String did) {
+        var entry = storage.get(did);
+        return entry == null ? null : entry.participant;
+    }
+
+    @Override
+    public List<Participant> listParticipants() {
+        return storage.values().stream().map(entry -> entry.participant).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Participant> listParticipants(Set<ParticipantStatus> statuses, @Nullable String afterDid, int limit) {
+        if (statuses.isEmpty()) {
+            return pageOf(dids, null, afterDid, limit);
+        }
+        if (statuses.size() == 1) {
+            var status = statuses.iterator().next();
+            return pageOf(didsByStatus.get(status), status, afterDid, limit);
+        }
+        // merge the first page of each status, a DID may transiently be in two of them while its status changes
+        var merged = new TreeMap<String, Participant>();
+        for (var status : statuses) {
+            for (var participant : pageOf(didsByStatus.get(status), status, afterDid, limit)) {
+                merged.put(participant.getDid(), participant);
+            }
+        }
+        return merged.values().stream().limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * Lists the participants with the given DIDs after the given one, which are in the given status, if any.
+     */
+    private List<Participant> pageOf(NavigableSet<String> sortedDids, @Nullable ParticipantStatus status, @Nullable String afterDid, int limit) {
+        var page = new ArrayList<Participant>(Math.min(limit, 1024));
+        for (var did : afterDid == null ? sortedDids : sortedDids.tailSet(afterDid, false)) {
+            if (page.size() >= limit) {
+                break;
+            }
+            var entry = storage.get(did);
+            // the DID may be indexed before the stored entry is replaced, or removed from a status after
+            if (entry != null && (status == null || entry.status() == status)) {
+                page.add(entry.participant);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public String getSequenceEpoch() {
+        return sequenceEpoch;
+    }
+
+    @Override
+    public List<Participant> listChanges(long sinceSequence, int limit) {
+        var page = new ArrayList<Participant>(Math.min(limit, 1024));
+        for (var change : changes.tailMap(sinceSequence, false).entrySet()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            var entry = storage.get(change.getValue());
+            if (entry == null || entry.sequence() < change.getKey()) {
+                // the save is not stored yet, later changes are returned once it is
+                break;
+            }
+            if (entry.sequence() == change.getKey()) {
+                page.add(entry.participant);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public Participant save(Participant participant) {
+        return save(participant, false);
+    }
+
+    /**
+     * Saves a participant with the sequence number it already has, e.g. when loading participants saved by another
+     * store. The sequence numbers assigned by later saves are greater than that of the restored participant. A
+     * participant without sequence number is assigned the next one.
+     *
+     * @param participant the participant to restore.
+     * @return the restored participant, with its sequence number.
+     */
+    public Participant restore(Participant participant) {
+        return save(participant, true);
+    }
+
+    @Override
+    public boolean saveIfAbsent(Participant participant) {
+        var saved = new AtomicBoolean();
+        storage.computeIfAbsent(participant.getDid(), did -> {
+            saved.set(true);
+            return index(participant, false, null);
+        });
+        return saved.get();
+    }
+
+    @Override
+    public @Nullable Participant save(Participant participant, long expectedSequence) {
+        var saved = new AtomicBoolean();
+        var entry = storage.compute(participant.getDid(), (did, previous) -> {
+            var storedSequence = previous == null ? 0 : previous.participant.getSequence();
+            if (storedSequence != expectedSequence) {
+                return previous;
+            }
+            saved.set(true);
+            return index(participant, false, previous);
+        });
+        return saved.get() ? entry.participant : null;
+    }
+
+    private Participant save(Participant participant, boolean restore) {
+        // participants saved before sequence numbers were introduced have none
+        var keepSequence = restore && participant.getSequence() > 0;
+        return storage.compute(participant.getDid(), (did, previous) -> index(participant, keepSequence, previous)).participant;
+    }
+
+    /**
+     * Indexes a participant in place of the previously stored entry, if any, and returns the entry to store. Must be
+     * called while computing the stored entry, so that saves of the same participant are indexed one after the other.
+     */
+    private Entry index(Participant participant, boolean keepSequence, @Nullable Entry previous) {
+        var did = participant.getDid();
+        var status = participant.getStatus();
+        var dueAt = participant.getNextAttemptAt();
+        dids.add(did);
+        didsByStatus.get(status).add(did);
+        if (previous != null && previous.status() != status) {
+            didsByStatus.get(previous.status()).remove(did);
+        }
+        var key = new IndexKey(dueAt, did);
+        statusIndex.get(status).add(key);
+        if (previous != null && (previous.status() != status || previous.dueAt() != dueAt)) {
+            statusIndex.get(previous.status()).remove(new IndexKey(previous.dueAt(), did));
+        }
+        long sequence;
+        synchronized (changes) {
+            // sequence numbers are added to the change index in increasing order
+            lastSequence = keepSequence ? Math.max(lastSequence, participant.getSequence()) : lastSequence + 1;
+            sequence = keepSequence ? participant.getSequence() : lastSequence;
+            changes.put(sequence, did);
+        }
+        if (previous != null && previous.sequence() != sequence) {
+            changes.remove(previous.sequence(), did);
+        }
+        return new Entry(participant.withSequence(sequence), previous != null ? previous.lease : null);
+    }
+
+    @Override
+    public Collection<Participant> listParticipantsWithStatus(ParticipantStatus status) {
+        return streamWithStatus(status, statusIndex.get(status)).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Participant> nextForState(ParticipantStatus state, int max) {
+        return streamWithStatus(state, dueWithStatus(state, clock.millis())).limit(max).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Participant> claimNextForState(ParticipantStatus state, int max, String leaseHolder, Duration leaseDuration) {
+        var now = clock.millis();
+        var lease = new Lease(leaseHolder, now + leaseDuration.toMillis());
+        var claimed = new ArrayList<Participant>();
+        for (var key : dueWithStatus(state, now)) {
+            if (claimed.size() >= max) {
+                break;
+            }
+            var entry = storage.computeIfPresent(key.did, (did, e) -> e.isIndexedBy(state, key) && !e.isLeased(now) ? e.withLease(lease) : e);
+            if (entry != null && entry.lease == lease) {
+                claimed.add(entry.participant);
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public boolean renewLease(String did, String leaseHolder, Duration leaseDuration) {
+        var lease = new Lease(leaseHolder, clock.millis() + leaseDuration.toMillis());
+        var entry = storage.computeIfPresent(did, (key, e) -> e.isLeasedBy(leaseHolder) ? e.withLease(lease) : e);
+        return entry != null && entry.lease == lease;
+    }
+
+    @Override
+    public void breakLease(String did, String leaseHolder) {
+        storage.computeIfPresent(did, (key, e) -> e.isLeasedBy(leaseHolder) ? e.withLease(null) : e);
+    }
+
+    /**
+     * Index keys of participants in the given status that are due for processing at the given time, most overdue first.
+     */
+    private NavigableSet<IndexKey> dueWithStatus(ParticipantStatus status, long now) {
+        return statusIndex.get(status).headSet(new IndexKey(now, null), true);
+    }
+
+    private Stream<Participant> streamWithStatus(ParticipantStatus status, Collection<IndexKey> keys) {
+        return keys.stream()
+                .map(key -> {
+                    var entry = storage.get(key.did);
+                    // the index key may be added before the stored entry is replaced, or removed after
+                    return entry != null && entry.isIndexedBy(status, key) ? entry.participant : null;
+                })
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Stored participant, which is indexed by its status, due time and sequence number, and its current lease, if any.
+     */
+    private static final class Entry {
+        private final Participant participant;
+        private final Lease lease;
+
+        private Entry(Participant participant, @Nullable Lease lease) {
+            this.participant = participant;
+            this.lease = lease;
+        }
+
+        private ParticipantStatus status() {
+            return participant.getStatus();
+        }
+
+        private long dueAt() {
+            return participant.getNextAttemptAt();
+        }
+
+        private long sequence() {
+            return participant.getSequence();
+        }
+
+        private Entry withLease(@Nullable Lease lease) {
+            return new Entry(participant, lease);
+        }
+
+        private boolean isIndexedBy(ParticipantStatus status, IndexKey key) {
+            return status() == status && dueAt() == key.dueAt;
+        }
+
+        private boolean isLeased(long now) {
+            return lease != null && lease.expiresAt > now;
+        }
+
+        private boolean isLeasedBy(String leaseHolder) {
+            return lease != null && lease.holder.equals(leaseHolder);
+        }
+    }
+
+    /**
+     * Key of a participant in the status index, ordered by due time.
+     */
+    private static final class IndexKey {
+        // a key without DID sorts after all keys with the same due time
+        private static final Comparator<IndexKey> COMPARATOR = Comparator.<IndexKey>comparingLong(key -> key.dueAt)
+                .thenComparing(key -> key.did, Comparator.nullsLast(Comparator.naturalOrder()));
+
+        private final long dueAt;
+        private final String did;
+
+        private IndexKey(long dueAt, @Nullable String did) {
+            this.dueAt = dueAt;
+            this.did = did;
+        }
+    }
+
+    private static final class Lease {
+        private final String holder;
+        private final long expiresAt;
+
+        private Lease(String holder, long expiresAt) {
+            this.holder = holder;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
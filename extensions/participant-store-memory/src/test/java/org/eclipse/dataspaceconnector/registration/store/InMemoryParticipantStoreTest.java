@@ -0,0 +1,504 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.store;
+
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.registration.authority.TestUtils.createParticipant;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZED;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZING;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.DENIED;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDING_INITIATED;
+
+class InMemoryParticipantStoreTest {
+    static final Duration LEASE_DURATION = Duration.ofSeconds(30);
+
+    InMemoryParticipantStore store = new InMemoryParticipantStore();
+    Participant participant1 = createParticipant().build();
+    Participant participant1OtherEntry = createParticipant().did(participant1.getDid()).build();
+    Participant participant2 = createParticipant().build();
+
+    @Test
+    void listParticipants_empty() {
+        assertThat(store.listParticipants()).isEmpty();
+    }
+
+    @Test
+    void saveAndListParticipants() {
+        var saved = store.save(participant1);
+        assertThat(store.listParticipants()).containsOnly(saved);
+    }
+
+    @Test
+    void saveAndListParticipants_removesDuplicates() {
+        store.save(participant1);
+        var saved = store.save(participant1OtherEntry);
+        assertThat(store.listParticipants()).containsOnly(saved);
+    }
+
+    @Test
+    void saveIfAbsent() {
+        assertThat(store.saveIfAbsent(participant1)).isTrue();
+        var saved = store.findByDid(participant1.getDid());
+        assertThat(store.saveIfAbsent(participant1OtherEntry)).isFalse();
+
+        assertThat(store.listParticipants()).containsOnly(saved);
+        assertThat(store.listChanges(0, 10)).containsOnly(saved);
+    }
+
+    @Test
+    void concurrentSaveIfAbsent_savesOnce() throws Exception {
+        var did = participant1.getDid();
+        var threads = 8;
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<Boolean>>();
+
+        for (var t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return store.saveIfAbsent(createParticipant().did(did).build());
+            }));
+        }
+
+        start.countDown();
+        var saved = 0;
+        for (var future : futures) {
+            saved += future.get(60, SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertThat(saved).isEqualTo(1);
+        assertThat(store.listChanges(0, 10)).hasSize(1);
+    }
+
+    @Test
+    void saveAllIfAbsent_keepsExisting() {
+        var existing = store.save(participant1);
+
+        var saved = store.saveAllIfAbsent(List.of(participant2, participant1OtherEntry, createParticipant().did(participant2.getDid()).build()));
+
+        assertThat(saved).containsExactly(store.findByDid(participant2.getDid()));
+        assertThat(saved.get(0).getSequence()).isEqualTo(existing.getSequence() + 1);
+        assertThat(store.findByDid(participant1.getDid())).isEqualTo(existing);
+        assertThat(store.listChanges(0, 10)).hasSize(2);
+    }
+
+    @Test
+    void concurrentSaveAllIfAbsentAndSaveIfAbsent_savesOnce() throws Exception {
+        var dids = IntStream.range(0, 100).mapToObj(i -> "did:web:participant-" + i).collect(Collectors.toList());
+        var executor = Executors.newFixedThreadPool(2);
+        var start = new CountDownLatch(1);
+        var imported = executor.submit(() -> {
+            start.await();
+            return store.saveAllIfAbsent(dids.stream().map(did -> createParticipant().did(did).build()).collect(Collectors.toList())).size();
+        });
+        var registered = executor.submit(() -> {
+            start.await();
+            return (int) dids.stream().filter(did -> store.saveIfAbsent(createParticipant().did(did).build())).count();
+        });
+
+        start.countDown();
+        var saved = imported.get(60, SECONDS) + registered.get(60, SECONDS);
+        executor.shutdown();
+
+        assertThat(saved).isEqualTo(dids.size());
+        assertThat(store.listChanges(0, 1000)).hasSize(dids.size());
+    }
+
+    @Test
+    void save_expectedSequence() {
+        assertThat(store.save(participant1, 1)).isNull();
+        var readSequence = store.save(participant1, 0).getSequence();
+        var otherEntry = store.save(participant1OtherEntry);
+
+        var stale = createParticipant().did(participant1.getDid()).status(AUTHORIZED).build();
+        assertThat(store.save(stale, readSequence)).isNull();
+        assertThat(store.findByDid(participant1.getDid())).isSameAs(otherEntry);
+        assertThat(store.listParticipantsWithStatus(AUTHORIZED)).isEmpty();
+
+        var saved = store.save(stale, otherEntry.getSequence());
+        assertThat(saved.getSequence()).isGreaterThan(otherEntry.getSequence());
+        assertThat(store.listParticipantsWithStatus(AUTHORIZED)).containsOnly(saved);
+    }
+
+    @Test
+    void saveAndListParticipants_twoEntries() {
+        var saved1 = store.save(participant1);
+        var saved2 = store.save(participant2);
+        assertThat(store.listParticipants()).containsOnly(saved1, saved2);
+    }
+
+    @Test
+    void listParticipantsWithStatus() {
+        Participant participant01 = createParticipant().status(AUTHORIZED).build();
+        Participant participant02 = createParticipant().status(AUTHORIZING).build();
+        Participant participant03 = createParticipant().status(AUTHORIZED).build();
+        var saved01 = store.save(participant01);
+        store.save(participant02);
+        var saved03 = store.save(participant03);
+        assertThat(store.listParticipantsWithStatus(AUTHORIZED)).containsOnly(saved01, saved03);
+    }
+
+    @Test
+    void listParticipants_pages() {
+        var participants = IntStream.range(0, 5)
+                .mapToObj(i -> createParticipant().did("did:web:participant-" + i).status(i % 2 == 0 ? AUTHORIZED : AUTHORIZING).build())
+                .map(store::save)
+                .collect(Collectors.toList());
+
+        assertThat(store.listParticipants(Set.of(), null, 2)).containsExactly(participants.get(0), participants.get(1));
+        assertThat(store.listParticipants(Set.of(), "did:web:participant-1", 2)).containsExactly(participants.get(2), participants.get(3));
+        assertThat(store.listParticipants(Set.of(), "did:web:participant-3", 2)).containsExactly(participants.get(4));
+        assertThat(store.listParticipants(Set.of(AUTHORIZED), "did:web:participant-0", 10)).containsExactly(participants.get(2), participants.get(4));
+    }
+
+    @Test
+    void listParticipants_pagesAcrossStatuses() {
+        var participants = IntStream.range(0, 6)
+                .mapToObj(i -> createParticipant().did("did:web:participant-" + i).status(List.of(AUTHORIZED, AUTHORIZING, DENIED).get(i % 3)).build())
+                .map(store::save)
+                .collect(Collectors.toList());
+        var transitioned = store.save(participants.get(1).transitionAuthorized());
+
+        assertThat(store.listParticipants(Set.of(AUTHORIZED, DENIED), null, 3)).containsExactly(participants.get(0), transitioned, participants.get(2));
+        assertThat(store.listParticipants(Set.of(AUTHORIZED, DENIED), "did:web:participant-2", 3)).containsExactly(participants.get(3), participants.get(5));
+        assertThat(store.listParticipants(Set.of(AUTHORIZING), null, 10)).containsExactly(participants.get(4));
+    }
+
+    @Test
+    void getSequenceEpoch_differsBetweenStores() {
+        assertThat(store.getSequenceEpoch()).isEqualTo(store.getSequenceEpoch())
+                .isNotEqualTo(new InMemoryParticipantStore().getSequenceEpoch());
+    }
+
+    @Test
+    void listChanges_returnsLastSaveOfEachParticipant() {
+        var participant1 = store.save(createParticipant().status(AUTHORIZING).build());
+        var participant2 = store.save(createParticipant().build());
+        var sinceSequence = participant2.getSequence();
+        participant1 = store.save(participant1.transitionAuthorized());
+
+        assertThat(participant2.getSequence()).isGreaterThan(0);
+        assertThat(participant1.getSequence()).isGreaterThan(participant2.getSequence());
+        assertThat(store.listChanges(0, 10)).containsExactly(participant2, participant1);
+        assertThat(store.listChanges(0, 1)).containsExactly(participant2);
+        assertThat(store.listChanges(sinceSequence, 10)).containsExactly(participant1);
+        assertThat(store.listChanges(participant1.getSequence(), 10)).isEmpty();
+    }
+
+    @Test
+    void restore_keepsSequence() {
+        var restored = store.restore(createParticipant().sequence(42).build());
+        var saved = store.save(createParticipant().build());
+
+        assertThat(restored.getSequence()).isEqualTo(42);
+        assertThat(saved.getSequence()).isEqualTo(43);
+        assertThat(store.listChanges(0, 10)).containsExactly(restored, saved);
+    }
+
+    @Test
+    void nextForState_limitsResults() {
+        for (var i = 0; i < 5; i++) {
+            store.save(createParticipant().status(AUTHORIZING).build());
+        }
+        store.save(createParticipant().status(AUTHORIZED).build());
+
+        assertThat(store.nextForState(AUTHORIZING, 3))
+                .hasSize(3)
+                .allSatisfy(p -> assertThat(p.getStatus()).isEqualTo(AUTHORIZING));
+        assertThat(store.nextForState(AUTHORIZING, 10)).hasSize(5);
+        assertThat(store.nextForState(ONBOARDING_INITIATED, 10)).isEmpty();
+    }
+
+    @Test
+    void claimNextForState_leasesParticipants() {
+        var participant = store.save(createParticipant().status(AUTHORIZING).build());
+
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder1", LEASE_DURATION)).containsExactly(participant);
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder2", LEASE_DURATION)).isEmpty();
+        // a lease holder does not claim a participant twice either
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder1", LEASE_DURATION)).isEmpty();
+    }
+
+    @Test
+    void claimNextForState_limitsResults() {
+        for (var i = 0; i < 5; i++) {
+            store.save(createParticipant().status(AUTHORIZING).build());
+        }
+
+        assertThat(store.claimNextForState(AUTHORIZING, 3, "holder1", LEASE_DURATION)).hasSize(3);
+        assertThat(store.claimNextForState(AUTHORIZING, 3, "holder2", LEASE_DURATION)).hasSize(2);
+    }
+
+    @Test
+    void claimNextForState_afterLeaseExpired() {
+        var clock = new MutableClock();
+        store = new InMemoryParticipantStore(clock);
+        var participant = store.save(createParticipant().status(AUTHORIZING).build());
+
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder1", LEASE_DURATION)).containsExactly(participant);
+        clock.advance(LEASE_DURATION.plusMillis(1));
+
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder2", LEASE_DURATION)).containsExactly(participant);
+        assertThat(store.renewLease(participant.getDid(), "holder1", LEASE_DURATION)).isFalse();
+    }
+
+    @Test
+    void claimNextForState_skipsParticipantsNotDue() {
+        var clock = new MutableClock();
+        store = new InMemoryParticipantStore(clock);
+        var retrying = store.save(createParticipant().status(AUTHORIZING).build().scheduleRetry(clock.millis() + 1000));
+        var due = store.save(createParticipant().status(AUTHORIZING).build());
+
+        assertThat(store.nextForState(AUTHORIZING, 10)).containsExactly(due);
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder1", LEASE_DURATION)).containsExactly(due);
+        assertThat(store.listParticipantsWithStatus(AUTHORIZING)).containsExactlyInAnyOrder(retrying, due);
+
+        clock.advance(Duration.ofMillis(1000));
+
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder1", LEASE_DURATION)).containsExactly(retrying);
+    }
+
+    @Test
+    void claimNextForState_mostOverdueFirst() {
+        var clock = new MutableClock();
+        store = new InMemoryParticipantStore(clock);
+        var participants = IntStream.range(0, 5)
+                .mapToObj(i -> createParticipant().status(AUTHORIZING).nextAttemptAt(clock.millis() - i).build())
+                .map(store::save)
+                .collect(Collectors.toList());
+
+        assertThat(store.claimNextForState(AUTHORIZING, 2, "holder1", LEASE_DURATION)).containsExactly(participants.get(4), participants.get(3));
+    }
+
+    @Test
+    void save_rescheduledParticipant_isIndexedOnce() {
+        var participant = store.save(createParticipant().status(AUTHORIZING).build());
+        participant = store.save(participant.scheduleRetry(1));
+
+        assertThat(store.listParticipantsWithStatus(AUTHORIZING)).containsExactly(participant);
+        assertThat(store.nextForState(AUTHORIZING, 10)).containsExactly(participant);
+    }
+
+    @Test
+    void claimNextForState_afterLeaseBroken() {
+        var participant = store.save(createParticipant().status(AUTHORIZING).build());
+        store.claimNextForState(AUTHORIZING, 10, "holder1", LEASE_DURATION);
+
+        store.breakLease(participant.getDid(), "holder2");
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder2", LEASE_DURATION)).isEmpty();
+
+        store.breakLease(participant.getDid(), "holder1");
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder2", LEASE_DURATION)).containsExactly(participant);
+    }
+
+    @Test
+    void claimNextForState_leaseSurvivesSave() {
+        var participant = store.save(createParticipant().status(ONBOARDING_INITIATED).build());
+        store.claimNextForState(ONBOARDING_INITIATED, 10, "holder1", LEASE_DURATION);
+
+        participant = store.save(participant.transitionAuthorizing());
+
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder2", LEASE_DURATION)).isEmpty();
+        store.breakLease(participant.getDid(), "holder1");
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder2", LEASE_DURATION)).containsExactly(participant);
+    }
+
+    @Test
+    void renewLease() {
+        var clock = new MutableClock();
+        store = new InMemoryParticipantStore(clock);
+        var participant = store.save(createParticipant().status(AUTHORIZING).build());
+        store.claimNextForState(AUTHORIZING, 10, "holder1", LEASE_DURATION);
+
+        clock.advance(LEASE_DURATION.minusMillis(1));
+        assertThat(store.renewLease(participant.getDid(), "holder1", LEASE_DURATION)).isTrue();
+        assertThat(store.renewLease(participant.getDid(), "holder2", LEASE_DURATION)).isFalse();
+        clock.advance(LEASE_DURATION.minusMillis(1));
+
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder2", LEASE_DURATION)).isEmpty();
+    }
+
+    @Test
+    void concurrentClaimNextForState_claimsEachParticipantOnce() throws Exception {
+        var participants = IntStream.range(0, 1_000)
+                .mapToObj(i -> createParticipant().status(AUTHORIZING).build())
+                .map(store::save)
+                .collect(Collectors.toList());
+        var claimers = 8;
+        var executor = Executors.newFixedThreadPool(claimers);
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<List<Participant>>>();
+
+        for (var c = 0; c < claimers; c++) {
+            var holder = "holder" + c;
+            futures.add(executor.submit(() -> {
+                start.await();
+                var claimed = new ArrayList<Participant>();
+                List<Participant> batch;
+                do {
+                    batch = store.claimNextForState(AUTHORIZING, 7, holder, LEASE_DURATION);
+                    claimed.addAll(batch);
+                } while (!batch.isEmpty());
+                return claimed;
+            }));
+        }
+
+        start.countDown();
+        var claimed = new ArrayList<Participant>();
+        for (var future : futures) {
+            claimed.addAll(future.get(60, SECONDS));
+        }
+        executor.shutdown();
+
+        assertThat(claimed).containsExactlyInAnyOrderElementsOf(participants);
+    }
+
+    @Test
+    void listParticipantsWithStatus_afterStatusChange() {
+        var participant = store.save(createParticipant().status(AUTHORIZING).build());
+        var updated = store.save(createParticipant().did(participant.getDid()).status(AUTHORIZED).build());
+
+        assertThat(store.listParticipantsWithStatus(AUTHORIZING)).isEmpty();
+        assertThat(store.listParticipantsWithStatus(AUTHORIZED)).containsExactly(updated);
+    }
+
+    @Test
+    void listParticipantsWithStatus_afterTransitionOfStoredInstance() {
+        var participant = store.save(createParticipant().status(ONBOARDING_INITIATED).build());
+
+        var transitioned = participant.transitionAuthorizing();
+        // not saved yet: the stored participant is unchanged
+        assertThat(store.findByDid(participant.getDid())).isSameAs(participant);
+        assertThat(store.listParticipantsWithStatus(ONBOARDING_INITIATED)).containsExactly(participant);
+        assertThat(store.listParticipantsWithStatus(AUTHORIZING)).isEmpty();
+
+        var saved = store.save(transitioned);
+        assertThat(store.listParticipantsWithStatus(ONBOARDING_INITIATED)).isEmpty();
+        assertThat(store.listParticipantsWithStatus(AUTHORIZING)).containsExactly(saved);
+        assertThat(participant.getStatus()).isEqualTo(ONBOARDING_INITIATED);
+    }
+
+    @Test
+    void concurrentSaveAndListParticipantsWithStatus() throws Exception {
+        var dids = IntStream.range(0, 50).mapToObj(i -> createParticipant().build().getDid()).collect(Collectors.toList());
+        var statuses = ParticipantStatus.values();
+        var lastSaved = new ConcurrentHashMap<String, Participant>();
+        var writers = 4;
+        var readers = 4;
+        var executor = Executors.newFixedThreadPool(writers + readers);
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<?>>();
+
+        for (var w = 0; w < writers; w++) {
+            var writerDids = dids.subList(w * dids.size() / writers, (w + 1) * dids.size() / writers);
+            futures.add(executor.submit(() -> {
+                start.await();
+                var random = ThreadLocalRandom.current();
+                for (var i = 0; i < 2_000; i++) {
+                    var did = writerDids.get(random.nextInt(writerDids.size()));
+                    var participant = createParticipant().did(did).status(statuses[random.nextInt(statuses.length)]).build();
+                    lastSaved.put(did, store.save(participant));
+                }
+                return null;
+            }));
+        }
+        for (var r = 0; r < readers; r++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (var i = 0; i < 500; i++) {
+                    for (var status : statuses) {
+                        var result = List.copyOf(store.listParticipantsWithStatus(status));
+                        assertThat(result).allSatisfy(p -> assertThat(p.getStatus()).isEqualTo(status));
+                        assertThat(result).extracting(Participant::getDid).doesNotHaveDuplicates();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (var future : futures) {
+            future.get(60, SECONDS);
+        }
+        executor.shutdown();
+
+        Map<ParticipantStatus, List<Participant>> expected = lastSaved.values().stream()
+                .collect(Collectors.groupingBy(Participant::getStatus));
+        for (var status : statuses) {
+            assertThat(store.listParticipantsWithStatus(status))
+                    .containsExactlyInAnyOrderElementsOf(expected.getOrDefault(status, List.of()));
+        }
+        assertThat(store.listParticipants()).containsExactlyInAnyOrderElementsOf(lastSaved.values());
+    }
+
+    @Test
+    void findByDid_null() {
+        assertThat(store.findByDid(participant1.getDid())).isNull();
+    }
+
+    @Test
+    void saveAndFindByDid() {
+        var saved = store.save(participant1);
+
+        var participant = store.findByDid(participant1.getDid());
+        assertThat(participant).isSameAs(saved);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.now();
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
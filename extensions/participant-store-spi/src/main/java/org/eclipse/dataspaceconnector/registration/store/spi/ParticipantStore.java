@@ -18,16 +18,174 @@ import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
 import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * Store for dataspace participants. As participants are immutable, the participants returned by a store are snapshots
+ * of their last save, that are not affected by later saves.
+ */
 public interface ParticipantStore {
 
     @Nullable Participant findByDid(String did);
 
     List<Participant> listParticipants();
 
-    void save(Participant participant);
+    /**
+     * Returns a page of participants, ordered by DID.
+     * <p>
+     * The default implementation loads all participants; implementations should override it to only read the page.
+     *
+     * @param statuses the statuses of the participants to return, or an empty set to return participants in any status.
+     * @param afterDid the DID after which the page starts, i.e. the last DID of the previous page, or {@code null} for the
+     *                 first page.
+     * @param limit    the maximum number of participants to return.
+     * @return at most {@code limit} participants in one of the given statuses, with a DID greater than {@code afterDid}.
+     */
+    default List<Participant> listParticipants(Set<ParticipantStatus> statuses, @Nullable String afterDid, int limit) {
+        return listParticipants().stream()
+                .filter(participant -> statuses.isEmpty() || statuses.contains(participant.getStatus()))
+                .filter(participant -> afterDid == null || participant.getDid().compareTo(afterDid) > 0)
+                .sorted(Comparator.comparing(Participant::getDid))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the participants saved since a given save, ordered by {@link Participant#getSequence() sequence number}.
+     * Only the last save of each participant is returned.
+     * <p>
+     * Implementations must not make a save visible before saves with a lower sequence number, so that a caller
+     * repeatedly passing the last sequence number it received does not miss any change.
+     * <p>
+     * The default implementation loads all participants; implementations should override it to only read the changes.
+     *
+     * @param sinceSequence the sequence number of the last save known to the caller, {@code 0} to list all participants.
+     * @param limit         the maximum number of participants to return.
+     * @return at most {@code limit} participants with a sequence number greater than {@code sinceSequence}.
+     */
+    default List<Participant> listChanges(long sinceSequence, int limit) {
+        return listParticipants().stream()
+                .filter(participant -> participant.getSequence() > sinceSequence)
+                .sorted(Comparator.comparingLong(Participant::getSequence))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the epoch of the sequence numbers assigned by this store. A store whose sequence numbers start over, e.g.
+     * when it is restarted, returns a new epoch each time they do, so that a sequence number identifies a save together
+     * with the epoch it was assigned in.
+     * <p>
+     * The default implementation returns an empty string, for stores whose sequence numbers are durable.
+     *
+     * @return the sequence epoch.
+     */
+    default String getSequenceEpoch() {
+        return "";
+    }
+
+    /**
+     * Saves a participant, and assigns it the next sequence number.
+     *
+     * @param participant the participant to save.
+     * @return the saved participant, with its {@link Participant#getSequence() sequence number}.
+     */
+    Participant save(Participant participant);
+
+    /**
+     * Saves a participant, and assigns it the next sequence number, unless a participant with the same DID is already
+     * stored. Checking and saving is atomic: of several concurrent calls for the same DID, only one saves its
+     * participant.
+     *
+     * @param participant the participant to save.
+     * @return {@code true} if the participant was saved, {@code false} if a participant with the same DID is stored.
+     */
+    boolean saveIfAbsent(Participant participant);
+
+    /**
+     * Saves a participant, and assigns it the next sequence number, unless the stored participant was saved since the
+     * caller read it. As sequence numbers change with every save, the {@link Participant#getSequence() sequence number}
+     * of the participant that was read serves as its version. Checking and saving is atomic, so that concurrent writers
+     * of the same participant do not overwrite each other's changes without locking it.
+     *
+     * @param participant      the participant to save.
+     * @param expectedSequence the sequence number of the stored participant when it was read, {@code 0} if it must not be
+     *                         stored yet.
+     * @return the saved participant, with its sequence number, or {@code null} if the stored participant has another
+     *         sequence number, in which case the caller should read it again and retry.
+     */
+    @Nullable Participant save(Participant participant, long expectedSequence);
+
+    /**
+     * Saves the participants whose DID is not stored yet, as {@link #saveIfAbsent} does for each of them. Participants
+     * stored concurrently, or earlier in the given collection, are left unchanged. Implementations may override this to
+     * write the participants in a single round trip.
+     *
+     * @param participants the participants to save.
+     * @return the saved participants, with their sequence numbers, in the order of the given participants.
+     */
+    default List<Participant> saveAllIfAbsent(Collection<Participant> participants) {
+        return participants.stream()
+                .map(participant -> save(participant, 0))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 
     Collection<Participant> listParticipantsWithStatus(ParticipantStatus state);
+
+    /**
+     * Returns a batch of participants in the given state, for processing by the participant state machine. Only
+     * participants that are due, i.e. whose {@link Participant#getNextAttemptAt() next attempt time} has passed, are
+     * returned, most overdue first.
+     * <p>
+     * Unlike {@link #listParticipantsWithStatus(ParticipantStatus)}, the result is bounded, so that a large backlog in one
+     * state does not have to be loaded (and processed) in a single iteration.
+     *
+     * @param state the status of the participants to return.
+     * @param max   the maximum number of participants to return.
+     * @return at most {@code max} participants in the given state.
+     */
+    List<Participant> nextForState(ParticipantStatus state, int max);
+
+    /**
+     * Leases a batch of participants in the given state to {@code leaseHolder}, and returns them.
+     * <p>
+     * Only participants that are due (as in {@link #nextForState}) and are not leased, or whose lease has expired, are
+     * claimed. Claiming is atomic: a participant is never returned to two lease holders at the same time, so that
+     * several participant state machines can share a store without processing the same participant twice. The lease
+     * holder is expected to {@link #breakLease break} the lease once it has saved the outcome of processing the
+     * participant. If it does not (e.g. because it crashed), the participant can be claimed again once the lease has
+     * expired.
+     *
+     * @param state         the status of the participants to claim.
+     * @param max           the maximum number of participants to claim.
+     * @param leaseHolder   the identifier of the claiming party.
+     * @param leaseDuration the time after which the lease expires.
+     * @return at most {@code max} participants in the given state, leased to {@code leaseHolder}.
+     */
+    List<Participant> claimNextForState(ParticipantStatus state, int max, String leaseHolder, Duration leaseDuration);
+
+    /**
+     * Extends the lease on a participant, if it is still held by {@code leaseHolder}.
+     *
+     * @param did           the DID of the participant.
+     * @param leaseHolder   the identifier of the lease holder.
+     * @param leaseDuration the time after which the renewed lease expires, counted from now.
+     * @return {@code true} if the lease was renewed, {@code false} if the participant is not leased by {@code leaseHolder}.
+     */
+    boolean renewLease(String did, String leaseHolder, Duration leaseDuration);
+
+    /**
+     * Releases the lease on a participant, if it is held by {@code leaseHolder}.
+     *
+     * @param did         the DID of the participant.
+     * @param leaseHolder the identifier of the lease holder.
+     */
+    void breakLease(String did, String leaseHolder);
 }
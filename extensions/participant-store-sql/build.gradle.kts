@@ -0,0 +1,26 @@
+plugins {
+    `java-library`
+}
+
+val edcVersion: String by project
+val edcGroup: String by project
+val jacksonVersion: String by project
+val jupiterVersion: String by project
+val assertj: String by project
+val mockitoVersion: String by project
+val faker: String by project
+val h2Version: String by project
+
+dependencies {
+    api(project(":extensions:participant-store-spi"))
+    implementation("${edcGroup}:transaction-datasource-spi:${edcVersion}")
+    implementation("com.fasterxml.jackson.core:jackson-databind:$jacksonVersion")
+
+    testImplementation("org.assertj:assertj-core:${assertj}")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:${jupiterVersion}")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:${jupiterVersion}")
+    testImplementation("org.mockito:mockito-core:${mockitoVersion}")
+    testImplementation("com.github.javafaker:javafaker:${faker}")
+    testImplementation("com.h2database:h2:${h2Version}")
+    testImplementation(testFixtures(project(":extensions:dataspace-authority-spi")))
+}
@@ -0,0 +1,34 @@
+-- Participants of the dataspace, as persisted by the SqlParticipantStore.
+-- The participant column holds the JSON serialized participant; status, next_attempt_at and updated_at are kept in
+-- separate columns so that the participant state machine can poll for participants due for processing in a given
+-- state through an index. sequence_number is the sequence number of the last save of the participant, indexed so that
+-- changes since a given save can be listed.
+CREATE TABLE IF NOT EXISTS edc_participant
+(
+    did              VARCHAR NOT NULL PRIMARY KEY,
+    status           VARCHAR NOT NULL,
+    participant      TEXT    NOT NULL,
+    next_attempt_at  BIGINT  NOT NULL DEFAULT 0,
+    sequence_number  BIGINT  NOT NULL DEFAULT 0,
+    created_at       BIGINT  NOT NULL,
+    updated_at       BIGINT  NOT NULL,
+    lease_holder     VARCHAR,
+    lease_expires_at BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS edc_participant_status_next_attempt_at_updated_at_idx
+    ON edc_participant (status, next_attempt_at, updated_at);
+
+CREATE INDEX IF NOT EXISTS edc_participant_sequence_number_idx
+    ON edc_participant (sequence_number);
+
+-- Last sequence number assigned to a participant save. The single row is locked by saves until they commit, so that
+-- saves become visible in the order of their sequence numbers.
+CREATE TABLE IF NOT EXISTS edc_participant_sequence
+(
+    last_sequence_number BIGINT NOT NULL
+);
+
+INSERT INTO edc_participant_sequence (last_sequence_number)
+SELECT 0
+WHERE NOT EXISTS (SELECT * FROM edc_participant_sequence);
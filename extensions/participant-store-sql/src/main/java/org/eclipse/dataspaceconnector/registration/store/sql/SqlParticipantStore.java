@@ -0,0 +1,529 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.store.sql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
+import org.eclipse.dataspaceconnector.registration.store.spi.ParticipantStore;
+import org.eclipse.dataspaceconnector.registration.store.sql.schema.ParticipantStatements;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.transaction.datasource.DataSourceRegistry;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * {@link ParticipantStore} backed by a SQL database, accessed through JDBC.
+ * <p>
+ * Participants are stored as JSON, next to their status, the time they are due for processing and their last update
+ * time, which are indexed so that polling for participants due in a given state does not scan the table. See
+ * {@code docs/schema.sql} for the table definition.
+ * <p>
+ * Sequence numbers are reserved from a single-row table, whose row stays locked until the saving transaction ends.
+ * Saves are therefore serialized, which keeps the order in which they become visible consistent with their sequence
+ * numbers. A database sequence would not, as its values are drawn before the transactions drawing them commit.
+ */
+public class SqlParticipantStore implements ParticipantStore {
+
+    // SQLSTATE class for integrity constraint violations, e.g. a duplicate primary key
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION = "23";
+
+    private final DataSourceRegistry dataSourceRegistry;
+    private final String dataSourceName;
+    private final ParticipantStatements statements;
+    private final ObjectMapper mapper;
+    private final Clock clock;
+
+    public SqlParticipantStore(DataSourceRegistry dataSourceRegistry, String dataSourceName, ParticipantStatements statements, ObjectMapper mapper, Clock clock) {
+        this.dataSourceRegistry = Objects.requireNonNull(dataSourceRegistry);
+        this.dataSourceName = Objects.requireNonNull(dataSourceName);
+        this.statements = Objects.requireNonNull(statements);
+        this.mapper = Objects.requireNonNull(mapper);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    @Override
+    public @Nullable Participant findByDid(String did) {
+        try (var connection = getConnection();
+             var statement = connection.prepareStatement(statements.getFindByDidTemplate())) {
+            statement.setString(1, did);
+            var participants = readParticipants(statement);
+            return participants.isEmpty() ? null : participants.get(0);
+        } catch (SQLException e) {
+            throw new EdcException(format("Failed to find participant %s", did), e);
+        }
+    }
+
+    @Override
+    public List<Participant> listParticipants() {
+        try (var connection = getConnection();
+             var statement = connection.prepareStatement(statements.getListTemplate())) {
+            return readParticipants(statement);
+        } catch (SQLException e) {
+            throw new EdcException("Failed to list participants", e);
+        }
+    }
+
+    @Override
+    public List<Participant> listParticipants(Set<ParticipantStatus> statuses, @Nullable String afterDid, int limit) {
+        try (var connection = getConnection();
+             var statement = connection.prepareStatement(statements.getListPageTemplate(statuses.size()))) {
+            var index = 1;
+            // DIDs are never empty, so the empty string sorts before all of them
+            statement.setString(index++, afterDid == null ? "" : afterDid);
+            for (var status : statuses) {
+                statement.setString(index++, status.name());
+            }
+            statement.setInt(index, limit);
+            return readParticipants(statement);
+        } catch (SQLException e) {
+            throw new EdcException("Failed to list participants", e);
+        }
+    }
+
+    @Override
+    public List<Participant> listChanges(long sinceSequence, int limit) {
+        try (var connection = getConnection();
+             var statement = connection.prepareStatement(statements.getListChangesTemplate())) {
+            statement.setLong(1, sinceSequence);
+            statement.setInt(2, limit);
+            return readParticipants(statement);
+        } catch (SQLException e) {
+            throw new EdcException("Failed to list participant changes", e);
+        }
+    }
+
+    @Override
+    public Participant save(Participant participant) {
+        return upsertWithRetry(List.of(participant)).get(0);
+    }
+
+    /**
+     * Updates the participant if its row still has the expected sequence number. The sequence number reserved for the
+     * update is released, by rolling back the transaction, if the row was saved since.
+     */
+    @Override
+    public @Nullable Participant save(Participant participant, long expectedSequence) {
+        if (expectedSequence == 0) {
+            return insertIfAbsent(participant);
+        }
+        var now = clock.millis();
+        try (var connection = getConnection()) {
+            return inTransaction(connection, () -> {
+                var saved = participant.withSequence(reserveSequenceNumbers(connection, 1));
+                try (var update = connection.prepareStatement(statements.getConditionalUpdateTemplate())) {
+                    setUpdateParameters(update, saved, serialize(saved), now);
+                    update.setLong(7, expectedSequence);
+                    if (update.executeUpdate() == 0) {
+                        connection.rollback();
+                        return null;
+                    }
+                }
+                return saved;
+            });
+        } catch (SQLException e) {
+            throw new EdcException(format("Failed to save participant %s", participant.getDid()), e);
+        }
+    }
+
+    @Override
+    public boolean saveIfAbsent(Participant participant) {
+        return insertIfAbsent(participant) != null;
+    }
+
+    /**
+     * Inserts the participants that do not exist yet in a single transaction, with a single JDBC batch. If a participant
+     * is inserted concurrently and the dialect does not skip existing participants, the participants are inserted one by
+     * one instead.
+     */
+    @Override
+    public List<Participant> saveAllIfAbsent(Collection<Participant> participants) {
+        if (participants.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return insertAllIfAbsent(participants);
+        } catch (SQLException e) {
+            if (!isIntegrityConstraintViolation(e)) {
+                throw new EdcException("Failed to save participants", e);
+            }
+            var saved = new ArrayList<Participant>();
+            for (var participant : participants) {
+                var stored = insertIfAbsent(participant);
+                if (stored != null) {
+                    saved.add(stored);
+                }
+            }
+            return saved;
+        }
+    }
+
+    @Override
+    public Collection<Participant> listParticipantsWithStatus(ParticipantStatus state) {
+        try (var connection = getConnection();
+             var statement = connection.prepareStatement(statements.getListWithStatusTemplate())) {
+            statement.setString(1, state.name());
+            return readParticipants(statement);
+        } catch (SQLException e) {
+            throw new EdcException(format("Failed to list participants in state %s", state), e);
+        }
+    }
+
+    @Override
+    public List<Participant> nextForState(ParticipantStatus state, int max) {
+        try (var connection = getConnection();
+             var statement = connection.prepareStatement(statements.getNextForStateTemplate())) {
+            statement.setString(1, state.name());
+            statement.setLong(2, clock.millis());
+            statement.setInt(3, max);
+            return readParticipants(statement);
+        } catch (SQLException e) {
+            throw new EdcException(format("Failed to list participants in state %s", state), e);
+        }
+    }
+
+    /**
+     * Claims participants in a single transaction: candidates are selected and locked, then leased.
+     * <p>
+     * With {@link org.eclipse.dataspaceconnector.registration.store.sql.schema.PostgresParticipantStatements}, rows locked
+     * by a concurrent claim are skipped, so that concurrent claims return disjoint batches without waiting for each other.
+     */
+    @Override
+    public List<Participant> claimNextForState(ParticipantStatus state, int max, String leaseHolder, Duration leaseDuration) {
+        var now = clock.millis();
+        try (var connection = getConnection()) {
+            return inTransaction(connection, () -> {
+                var candidates = new ArrayList<Participant>();
+                try (var select = connection.prepareStatement(statements.getClaimCandidatesTemplate())) {
+                    select.setString(1, state.name());
+                    select.setLong(2, now);
+                    select.setLong(3, now);
+                    select.setInt(4, max);
+                    candidates.addAll(readParticipants(select));
+                }
+                if (candidates.isEmpty()) {
+                    return candidates;
+                }
+
+                try (var update = connection.prepareStatement(statements.getClaimTemplate())) {
+                    for (var participant : candidates) {
+                        update.setString(1, leaseHolder);
+                        update.setLong(2, now + leaseDuration.toMillis());
+                        update.setString(3, participant.getDid());
+                        update.setString(4, state.name());
+                        update.setLong(5, now);
+                        update.addBatch();
+                    }
+                    var counts = update.executeBatch();
+                    var claimed = new ArrayList<Participant>();
+                    for (var i = 0; i < counts.length; i++) {
+                        if (counts[i] > 0) {
+                            claimed.add(candidates.get(i));
+                        }
+                    }
+                    return claimed;
+                }
+            });
+        } catch (SQLException e) {
+            throw new EdcException(format("Failed to claim participants in state %s", state), e);
+        }
+    }
+
+    @Override
+    public boolean renewLease(String did, String leaseHolder, Duration leaseDuration) {
+        try (var connection = getConnection();
+             var statement = connection.prepareStatement(statements.getRenewLeaseTemplate())) {
+            statement.setLong(1, clock.millis() + leaseDuration.toMillis());
+            statement.setString(2, did);
+            statement.setString(3, leaseHolder);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new EdcException(format("Failed to renew lease on participant %s", did), e);
+        }
+    }
+
+    @Override
+    public void breakLease(String did, String leaseHolder) {
+        try (var connection = getConnection();
+             var statement = connection.prepareStatement(statements.getBreakLeaseTemplate())) {
+            statement.setString(1, did);
+            statement.setString(2, leaseHolder);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new EdcException(format("Failed to break lease on participant %s", did), e);
+        }
+    }
+
+    /**
+     * Inserts the participant, unless a participant with the same DID exists. As the transaction first locks the
+     * sequence row, it waits for concurrent saves of the same DID to be committed, and is then rolled back. Existing
+     * participants are looked up first, so that they do not contend for the sequence row.
+     *
+     * @return the saved participant, or {@code null} if a participant with the same DID exists.
+     */
+    private @Nullable Participant insertIfAbsent(Participant participant) {
+        if (findByDid(participant.getDid()) != null) {
+            return null;
+        }
+        var now = clock.millis();
+        try (var connection = getConnection()) {
+            return inTransaction(connection, () -> {
+                var saved = participant.withSequence(reserveSequenceNumbers(connection, 1));
+                try (var insert = connection.prepareStatement(statements.getInsertTemplate())) {
+                    setInsertParameters(insert, saved, serialize(saved), now);
+                    insert.executeUpdate();
+                }
+                return saved;
+            });
+        } catch (SQLException e) {
+            if (isIntegrityConstraintViolation(e)) {
+                return null;
+            }
+            throw new EdcException(format("Failed to save participant %s", participant.getDid()), e);
+        }
+    }
+
+    private List<Participant> insertAllIfAbsent(Collection<Participant> participants) throws SQLException {
+        var dids = existingDids(participants);
+        var candidates = new ArrayList<Participant>();
+        for (var participant : participants) {
+            if (dids.add(participant.getDid())) {
+                candidates.add(participant);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        var now = clock.millis();
+        try (var connection = getConnection()) {
+            return inTransaction(connection, () -> {
+                var sequence = reserveSequenceNumbers(connection, candidates.size());
+                var rows = new ArrayList<Participant>(candidates.size());
+                try (var insert = connection.prepareStatement(statements.getInsertIfAbsentTemplate())) {
+                    for (var participant : candidates) {
+                        var row = participant.withSequence(sequence++);
+                        rows.add(row);
+                        setInsertParameters(insert, row, serialize(row), now);
+                        insert.addBatch();
+                    }
+                    var counts = insert.executeBatch();
+                    var saved = new ArrayList<Participant>();
+                    for (var i = 0; i < counts.length; i++) {
+                        // drivers may report Statement.SUCCESS_NO_INFO rather than the number of inserted rows
+                        if (counts[i] != 0) {
+                            saved.add(rows.get(i));
+                        }
+                    }
+                    return saved;
+                }
+            });
+        }
+    }
+
+    private Set<String> existingDids(Collection<Participant> participants) throws SQLException {
+        try (var connection = getConnection();
+             var statement = connection.prepareStatement(statements.getExistingDidsTemplate(participants.size()))) {
+            var index = 1;
+            for (var participant : participants) {
+                statement.setString(index++, participant.getDid());
+            }
+            var dids = new HashSet<String>();
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    dids.add(resultSet.getString(1));
+                }
+            }
+            return dids;
+        }
+    }
+
+    private List<Participant> upsertWithRetry(Collection<Participant> participants) {
+        try {
+            try {
+                return upsert(participants);
+            } catch (SQLException e) {
+                if (!isIntegrityConstraintViolation(e)) {
+                    throw e;
+                }
+                // a participant was inserted concurrently after the update, so it will be updated on the second attempt
+                return upsert(participants);
+            }
+        } catch (SQLException e) {
+            throw new EdcException("Failed to save participants", e);
+        }
+    }
+
+    /**
+     * Updates the existing participants, and inserts the remaining ones.
+     *
+     * @return the saved participants, with their sequence numbers, in the order of the given participants.
+     */
+    private List<Participant> upsert(Collection<Participant> participants) throws SQLException {
+        var now = clock.millis();
+
+        try (var connection = getConnection()) {
+            return inTransaction(connection, () -> {
+                var rows = new ArrayList<Participant>(participants.size());
+                var json = new ArrayList<String>(participants.size());
+                var sequence = reserveSequenceNumbers(connection, participants.size());
+                for (var participant : participants) {
+                    var row = participant.withSequence(sequence++);
+                    rows.add(row);
+                    json.add(serialize(row));
+                }
+
+                var missing = new ArrayList<Integer>();
+                try (var update = connection.prepareStatement(statements.getUpdateTemplate())) {
+                    for (var i = 0; i < rows.size(); i++) {
+                        setUpdateParameters(update, rows.get(i), json.get(i), now);
+                        update.addBatch();
+                    }
+                    var counts = update.executeBatch();
+                    for (var i = 0; i < counts.length; i++) {
+                        if (counts[i] == 0) {
+                            missing.add(i);
+                        }
+                    }
+                }
+                if (missing.isEmpty()) {
+                    return rows;
+                }
+
+                try (var insert = connection.prepareStatement(statements.getInsertTemplate())) {
+                    for (var i : missing) {
+                        setInsertParameters(insert, rows.get(i), json.get(i), now);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+                return rows;
+            });
+        }
+    }
+
+    private void setUpdateParameters(PreparedStatement update, Participant participant, String json, long now) throws SQLException {
+        update.setString(1, participant.getStatus().name());
+        update.setString(2, json);
+        update.setLong(3, participant.getNextAttemptAt());
+        update.setLong(4, participant.getSequence());
+        update.setLong(5, now);
+        update.setString(6, participant.getDid());
+    }
+
+    private void setInsertParameters(PreparedStatement insert, Participant participant, String json, long now) throws SQLException {
+        insert.setString(1, participant.getDid());
+        insert.setString(2, participant.getStatus().name());
+        insert.setString(3, json);
+        insert.setLong(4, participant.getNextAttemptAt());
+        insert.setLong(5, participant.getSequence());
+        insert.setLong(6, now);
+        insert.setLong(7, now);
+    }
+
+    /**
+     * Reserves consecutive sequence numbers. The sequence row stays locked until the transaction ends, so that
+     * concurrent saves commit in the order of their sequence numbers, and a save is never visible before one with a
+     * lower sequence number.
+     *
+     * @return the first reserved sequence number.
+     */
+    private long reserveSequenceNumbers(Connection connection, int count) throws SQLException {
+        try (var increment = connection.prepareStatement(statements.getIncrementSequenceTemplate())) {
+            increment.setInt(1, count);
+            increment.executeUpdate();
+        }
+        try (var select = connection.prepareStatement(statements.getLastSequenceTemplate());
+             var resultSet = select.executeQuery()) {
+            if (!resultSet.next()) {
+                throw new EdcException(format("Missing row in %s", statements.getSequenceTable()));
+            }
+            return resultSet.getLong(1) - count + 1;
+        }
+    }
+
+    private <T> T inTransaction(Connection connection, SqlBlock<T> block) throws SQLException {
+        var autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            var result = block.execute();
+            connection.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private List<Participant> readParticipants(PreparedStatement statement) throws SQLException {
+        var participants = new ArrayList<Participant>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                participants.add(deserialize(resultSet.getString(statements.getParticipantColumn())));
+            }
+        }
+        return participants;
+    }
+
+    private Connection getConnection() throws SQLException {
+        var dataSource = dataSourceRegistry.resolve(dataSourceName);
+        if (dataSource == null) {
+            throw new EdcException(format("No datasource found with name %s", dataSourceName));
+        }
+        return dataSource.getConnection();
+    }
+
+    private String serialize(Participant participant) {
+        try {
+            return mapper.writeValueAsString(participant);
+        } catch (JsonProcessingException e) {
+            throw new EdcException(format("Failed to serialize participant %s", participant.getDid()), e);
+        }
+    }
+
+    private Participant deserialize(String json) {
+        try {
+            return mapper.readValue(json, Participant.class);
+        } catch (JsonProcessingException e) {
+            throw new EdcException("Failed to deserialize participant", e);
+        }
+    }
+
+    private static boolean isIntegrityConstraintViolation(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION);
+    }
+
+    @FunctionalInterface
+    private interface SqlBlock<T> {
+        T execute() throws SQLException;
+    }
+}
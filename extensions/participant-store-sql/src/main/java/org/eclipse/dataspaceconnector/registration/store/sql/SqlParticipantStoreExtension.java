@@ -0,0 +1,69 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.store.sql;
+
+import org.eclipse.dataspaceconnector.registration.store.spi.ParticipantStore;
+import org.eclipse.dataspaceconnector.registration.store.sql.schema.BaseSqlParticipantStatements;
+import org.eclipse.dataspaceconnector.registration.store.sql.schema.ParticipantStatements;
+import org.eclipse.dataspaceconnector.registration.store.sql.schema.PostgresParticipantStatements;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.EdcSetting;
+import org.eclipse.dataspaceconnector.spi.system.Inject;
+import org.eclipse.dataspaceconnector.spi.system.Provider;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
+import org.eclipse.dataspaceconnector.spi.transaction.datasource.DataSourceRegistry;
+
+import java.time.Clock;
+import java.util.Locale;
+
+import static java.lang.String.format;
+
+/**
+ * EDC extension to provide a {@link ParticipantStore} backed by a SQL database.
+ * <p>
+ * The datasource is resolved from the {@link DataSourceRegistry}, and must contain the table defined in
+ * {@code docs/schema.sql}.
+ */
+public class SqlParticipantStoreExtension implements ServiceExtension {
+
+    @EdcSetting(value = "Name of the datasource in which participants are stored")
+    public static final String DATASOURCE_NAME_SETTING = "registration.store.sql.datasource";
+    public static final String DEFAULT_DATASOURCE_NAME = "participant";
+    @EdcSetting(value = "SQL dialect of the datasource, either 'postgres' for PostgreSQL, or 'base' for H2 and other databases supporting LIMIT and SELECT ... FOR UPDATE")
+    public static final String DIALECT_SETTING = "registration.store.sql.dialect";
+    public static final String DEFAULT_DIALECT = "base";
+
+    @Inject
+    private DataSourceRegistry dataSourceRegistry;
+
+    @Provider
+    public ParticipantStore participantStore(ServiceExtensionContext context) {
+        var dataSourceName = context.getSetting(DATASOURCE_NAME_SETTING, DEFAULT_DATASOURCE_NAME);
+        var statements = statements(context.getSetting(DIALECT_SETTING, DEFAULT_DIALECT));
+        return new SqlParticipantStore(dataSourceRegistry, dataSourceName, statements, context.getTypeManager().getMapper(), Clock.systemUTC());
+    }
+
+    private static ParticipantStatements statements(String dialect) {
+        switch (dialect.toLowerCase(Locale.ROOT)) {
+            case "postgres":
+                return new PostgresParticipantStatements();
+            case "base":
+                return new BaseSqlParticipantStatements();
+            default:
+                throw new EdcException(format("Unsupported value for %s: %s", DIALECT_SETTING, dialect));
+        }
+    }
+}
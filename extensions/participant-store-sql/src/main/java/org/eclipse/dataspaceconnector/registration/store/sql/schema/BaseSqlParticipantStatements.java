@@ -0,0 +1,134 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.store.sql.schema;
+
+import java.util.Collections;
+
+import static java.lang.String.format;
+
+/**
+ * Statements for H2, which the store is tested against. They only use {@code LIMIT} and {@code SELECT ... FOR UPDATE}
+ * beyond standard SQL, so they also suit other databases supporting both, such as MySQL 8 and MariaDB.
+ */
+public class BaseSqlParticipantStatements implements ParticipantStatements {
+
+    @Override
+    public String getFindByDidTemplate() {
+        return format("SELECT %s FROM %s WHERE %s = ?", getParticipantColumn(), getParticipantTable(), getDidColumn());
+    }
+
+    @Override
+    public String getListTemplate() {
+        return format("SELECT %s FROM %s", getParticipantColumn(), getParticipantTable());
+    }
+
+    @Override
+    public String getListWithStatusTemplate() {
+        return format("SELECT %s FROM %s WHERE %s = ?", getParticipantColumn(), getParticipantTable(), getStatusColumn());
+    }
+
+    @Override
+    public String getListPageTemplate(int statusCount) {
+        var statusFilter = statusCount == 0 ? "" : format(" AND %s IN (%s)", getStatusColumn(), String.join(", ", Collections.nCopies(statusCount, "?")));
+        return format("SELECT %s FROM %s WHERE %s > ?%s ORDER BY %s LIMIT ?",
+                getParticipantColumn(), getParticipantTable(), getDidColumn(), statusFilter, getDidColumn());
+    }
+
+    @Override
+    public String getListChangesTemplate() {
+        return format("SELECT %s FROM %s WHERE %s > ? ORDER BY %s LIMIT ?",
+                getParticipantColumn(), getParticipantTable(), getSequenceNumberColumn(), getSequenceNumberColumn());
+    }
+
+    @Override
+    public String getNextForStateTemplate() {
+        return format("SELECT %s FROM %s WHERE %s = ? AND %s <= ? ORDER BY %s, %s LIMIT ?",
+                getParticipantColumn(), getParticipantTable(), getStatusColumn(), getNextAttemptAtColumn(), getNextAttemptAtColumn(), getUpdatedAtColumn());
+    }
+
+    @Override
+    public String getInsertTemplate() {
+        return format("INSERT INTO %s (%s, %s, %s, %s, %s, %s, %s) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                getParticipantTable(), getDidColumn(), getStatusColumn(), getParticipantColumn(), getNextAttemptAtColumn(), getSequenceNumberColumn(),
+                getCreatedAtColumn(), getUpdatedAtColumn());
+    }
+
+    @Override
+    public String getInsertIfAbsentTemplate() {
+        return getInsertTemplate();
+    }
+
+    @Override
+    public String getExistingDidsTemplate(int didCount) {
+        return format("SELECT %s FROM %s WHERE %s IN (%s)",
+                getDidColumn(), getParticipantTable(), getDidColumn(), String.join(", ", Collections.nCopies(didCount, "?")));
+    }
+
+    @Override
+    public String getUpdateTemplate() {
+        return format("UPDATE %s SET %s = ?, %s = ?, %s = ?, %s = ?, %s = ? WHERE %s = ?",
+                getParticipantTable(), getStatusColumn(), getParticipantColumn(), getNextAttemptAtColumn(), getSequenceNumberColumn(), getUpdatedAtColumn(),
+                getDidColumn());
+    }
+
+    @Override
+    public String getConditionalUpdateTemplate() {
+        return format("%s AND %s = ?", getUpdateTemplate(), getSequenceNumberColumn());
+    }
+
+    @Override
+    public String getIncrementSequenceTemplate() {
+        return format("UPDATE %s SET %s = %s + ?", getSequenceTable(), getLastSequenceNumberColumn(), getLastSequenceNumberColumn());
+    }
+
+    @Override
+    public String getLastSequenceTemplate() {
+        return format("SELECT %s FROM %s", getLastSequenceNumberColumn(), getSequenceTable());
+    }
+
+    @Override
+    public String getClaimCandidatesTemplate() {
+        return format("SELECT %s FROM %s WHERE %s = ? AND %s <= ? AND (%s IS NULL OR %s <= ?) ORDER BY %s, %s LIMIT ? %s",
+                getParticipantColumn(), getParticipantTable(), getStatusColumn(), getNextAttemptAtColumn(), getLeaseExpiresAtColumn(), getLeaseExpiresAtColumn(),
+                getNextAttemptAtColumn(), getUpdatedAtColumn(), getLockClause());
+    }
+
+    @Override
+    public String getClaimTemplate() {
+        // repeats the conditions of the candidate query, in case a row was not locked by it
+        return format("UPDATE %s SET %s = ?, %s = ? WHERE %s = ? AND %s = ? AND (%s IS NULL OR %s <= ?)",
+                getParticipantTable(), getLeaseHolderColumn(), getLeaseExpiresAtColumn(), getDidColumn(), getStatusColumn(),
+                getLeaseExpiresAtColumn(), getLeaseExpiresAtColumn());
+    }
+
+    @Override
+    public String getRenewLeaseTemplate() {
+        return format("UPDATE %s SET %s = ? WHERE %s = ? AND %s = ?",
+                getParticipantTable(), getLeaseExpiresAtColumn(), getDidColumn(), getLeaseHolderColumn());
+    }
+
+    @Override
+    public String getBreakLeaseTemplate() {
+        return format("UPDATE %s SET %s = NULL, %s = NULL WHERE %s = ? AND %s = ?",
+                getParticipantTable(), getLeaseHolderColumn(), getLeaseExpiresAtColumn(), getDidColumn(), getLeaseHolderColumn());
+    }
+
+    /**
+     * Row locking clause appended to the claim candidates query.
+     */
+    protected String getLockClause() {
+        return "FOR UPDATE";
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.store.sql.schema;
+
+/**
+ * SQL statements used by the {@code SqlParticipantStore}, for a specific SQL dialect.
+ */
+public interface ParticipantStatements {
+
+    default String getParticipantTable() {
+        return "edc_participant";
+    }
+
+    default String getDidColumn() {
+        return "did";
+    }
+
+    default String getStatusColumn() {
+        return "status";
+    }
+
+    default String getParticipantColumn() {
+        return "participant";
+    }
+
+    default String getNextAttemptAtColumn() {
+        return "next_attempt_at";
+    }
+
+    default String getSequenceNumberColumn() {
+        return "sequence_number";
+    }
+
+    default String getCreatedAtColumn() {
+        return "created_at";
+    }
+
+    default String getUpdatedAtColumn() {
+        return "updated_at";
+    }
+
+    default String getLeaseHolderColumn() {
+        return "lease_holder";
+    }
+
+    default String getLeaseExpiresAtColumn() {
+        return "lease_expires_at";
+    }
+
+    default String getSequenceTable() {
+        return "edc_participant_sequence";
+    }
+
+    default String getLastSequenceNumberColumn() {
+        return "last_sequence_number";
+    }
+
+    String getFindByDidTemplate();
+
+    String getListTemplate();
+
+    String getListWithStatusTemplate();
+
+    /**
+     * Selects a page of participants ordered by DID, starting after a given DID.
+     *
+     * @param statusCount the number of statuses the participants are filtered by, 0 for no filter.
+     */
+    String getListPageTemplate(int statusCount);
+
+    /**
+     * Selects the participants saved after a given sequence number, ordered by sequence number.
+     */
+    String getListChangesTemplate();
+
+    String getNextForStateTemplate();
+
+    String getInsertTemplate();
+
+    /**
+     * Same as {@link #getInsertTemplate()}, but inserts no row if a participant with the same DID exists, where the
+     * dialect supports it. Otherwise, inserting an existing participant fails with an integrity constraint violation.
+     */
+    String getInsertIfAbsentTemplate();
+
+    /**
+     * Selects the DIDs that exist among a number of DIDs.
+     *
+     * @param didCount the number of DIDs.
+     */
+    String getExistingDidsTemplate(int didCount);
+
+    String getUpdateTemplate();
+
+    /**
+     * Same as {@link #getUpdateTemplate()}, but only updates the participant if it has a given sequence number.
+     */
+    String getConditionalUpdateTemplate();
+
+    /**
+     * Reserves sequence numbers, locking the sequence row until the end of the transaction.
+     */
+    String getIncrementSequenceTemplate();
+
+    String getLastSequenceTemplate();
+
+    /**
+     * Selects the participants that can be claimed, locking them until the end of the transaction.
+     */
+    String getClaimCandidatesTemplate();
+
+    String getClaimTemplate();
+
+    String getRenewLeaseTemplate();
+
+    String getBreakLeaseTemplate();
+}
@@ -0,0 +1,37 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.store.sql.schema;
+
+import static java.lang.String.format;
+
+/**
+ * Statements for PostgreSQL 9.5 and later.
+ * <p>
+ * Rows locked by a concurrent claim are skipped rather than waited for, so that several participant state machines
+ * claiming from the same table do not serialize on each other. Inserting participants that may already exist does not
+ * fail, so that bulk inserts do not have to be retried one by one.
+ */
+public class PostgresParticipantStatements extends BaseSqlParticipantStatements {
+
+    @Override
+    public String getInsertIfAbsentTemplate() {
+        return format("%s ON CONFLICT (%s) DO NOTHING", getInsertTemplate(), getDidColumn());
+    }
+
+    @Override
+    protected String getLockClause() {
+        return "FOR UPDATE SKIP LOCKED";
+    }
+}
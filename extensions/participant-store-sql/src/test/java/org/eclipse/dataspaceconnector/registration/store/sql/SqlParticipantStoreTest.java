@@ -0,0 +1,351 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.store.sql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
+import org.eclipse.dataspaceconnector.registration.store.sql.schema.BaseSqlParticipantStatements;
+import org.eclipse.dataspaceconnector.spi.transaction.datasource.DataSourceRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.eclipse.dataspaceconnector.registration.authority.TestUtils.createParticipant;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZED;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZING;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlParticipantStoreTest {
+    static final String DATASOURCE_NAME = "participant";
+    static final Duration LEASE_DURATION = Duration.ofSeconds(30);
+
+    Clock clock = mock(Clock.class);
+    Connection keepAlive;
+    SqlParticipantStore store;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        var dataSource = new JdbcDataSource();
+        // concurrent claims wait for each other's row locks, as H2 does not skip them
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";LOCK_TIMEOUT=10000");
+        var registry = mock(DataSourceRegistry.class);
+        when(registry.resolve(DATASOURCE_NAME)).thenReturn(dataSource);
+        when(clock.millis()).thenReturn(1000L);
+
+        // the in-memory database is dropped when its last connection is closed
+        keepAlive = dataSource.getConnection();
+        try (var statement = keepAlive.createStatement()) {
+            statement.execute(Files.readString(Path.of("docs/schema.sql")));
+        }
+
+        store = new SqlParticipantStore(registry, DATASOURCE_NAME, new BaseSqlParticipantStatements(), new ObjectMapper(), clock);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        keepAlive.close();
+    }
+
+    @Test
+    void findByDid_notFound() {
+        assertThat(store.findByDid("did:web:unknown")).isNull();
+    }
+
+    @Test
+    void saveAndFind() {
+        var participant = store.save(createParticipant().traceContext(Map.of("traceparent", "00-1-2-01")).build());
+
+        assertThat(store.findByDid(participant.getDid())).usingRecursiveComparison().isEqualTo(participant);
+        assertThat(store.listParticipants()).usingRecursiveFieldByFieldElementComparator().containsOnly(participant);
+    }
+
+    @Test
+    void save_updatesExisting() {
+        var participant = store.save(createParticipant().status(AUTHORIZING).build());
+        store.save(participant.transitionAuthorized());
+
+        assertThat(store.listParticipants()).hasSize(1);
+        assertThat(store.findByDid(participant.getDid()).getStatus()).isEqualTo(AUTHORIZED);
+        assertThat(store.listParticipantsWithStatus(AUTHORIZING)).isEmpty();
+        assertThat(store.listParticipantsWithStatus(AUTHORIZED)).extracting(Participant::getDid).containsOnly(participant.getDid());
+    }
+
+    @Test
+    void saveIfAbsent_keepsExisting() {
+        assertThat(store.saveIfAbsent(createParticipant().status(AUTHORIZING).build())).isTrue();
+        var existing = store.listParticipants().get(0);
+        var duplicate = createParticipant().did(existing.getDid()).build();
+
+        assertThat(store.saveIfAbsent(duplicate)).isFalse();
+
+        assertThat(store.findByDid(existing.getDid()).getStatus()).isEqualTo(AUTHORIZING);
+        assertThat(store.listChanges(0, 10)).extracting(Participant::getSequence).containsExactly(existing.getSequence());
+    }
+
+    @Test
+    void saveIfAbsent_concurrently() throws Exception {
+        var did = "did:web:" + UUID.randomUUID();
+        var executor = Executors.newFixedThreadPool(4);
+        var futures = new ArrayList<Future<Boolean>>();
+        for (var i = 0; i < 4; i++) {
+            futures.add(executor.submit(() -> store.saveIfAbsent(createParticipant().did(did).build())));
+        }
+        var saved = 0;
+        for (var future : futures) {
+            saved += future.get(30, SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertThat(saved).isEqualTo(1);
+        assertThat(store.listChanges(0, 10)).extracting(Participant::getSequence).containsExactly(1L);
+    }
+
+    @Test
+    void saveAllIfAbsent_keepsExisting() {
+        var existing = store.save(createParticipant().status(AUTHORIZING).build());
+        var added = createParticipant().build();
+
+        var saved = store.saveAllIfAbsent(List.of(createParticipant().did(existing.getDid()).build(), added, createParticipant().did(added.getDid()).build()));
+
+        assertThat(saved).extracting(Participant::getDid, Participant::getSequence).containsExactly(tuple(added.getDid(), 2L));
+        assertThat(store.findByDid(existing.getDid()).getStatus()).isEqualTo(AUTHORIZING);
+        assertThat(store.listChanges(0, 10)).extracting(Participant::getSequence).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void saveAllIfAbsent_concurrentlyWithSaveIfAbsent() throws Exception {
+        var dids = IntStream.range(0, 50).mapToObj(i -> "did:web:" + UUID.randomUUID()).collect(Collectors.toList());
+        var executor = Executors.newFixedThreadPool(2);
+        var imported = executor.submit(() -> store.saveAllIfAbsent(dids.stream().map(did -> createParticipant().did(did).build()).collect(Collectors.toList())).size());
+        var registered = executor.submit(() -> (int) dids.stream().filter(did -> store.saveIfAbsent(createParticipant().did(did).build())).count());
+        var saved = imported.get(30, SECONDS) + registered.get(30, SECONDS);
+        executor.shutdown();
+
+        assertThat(saved).isEqualTo(dids.size());
+        assertThat(store.listChanges(0, 1000)).hasSize(dids.size());
+    }
+
+    @Test
+    void save_expectedSequence() {
+        var participant = store.save(createParticipant().status(AUTHORIZING).build(), 0);
+        var readSequence = participant.getSequence();
+        var lastSequence = store.save(participant).getSequence();
+
+        var stale = participant.transitionAuthorized();
+        assertThat(store.save(stale, readSequence)).isNull();
+        assertThat(store.findByDid(participant.getDid()).getStatus()).isEqualTo(AUTHORIZING);
+
+        var saved = store.save(stale, lastSequence);
+        // the sequence number reserved by the rejected save is not used
+        assertThat(saved.getSequence()).isEqualTo(lastSequence + 1);
+        assertThat(store.findByDid(participant.getDid())).usingRecursiveComparison().isEqualTo(saved);
+    }
+
+    @Test
+    void listParticipants_pages() {
+        var participants = IntStream.range(0, 5)
+                .mapToObj(i -> createParticipant().did("did:web:participant-" + i).status(i % 2 == 0 ? AUTHORIZED : AUTHORIZING).build())
+                .collect(Collectors.toList());
+        participants.forEach(store::save);
+
+        assertThat(store.listParticipants(Set.of(), null, 2)).extracting(Participant::getDid).containsExactly("did:web:participant-0", "did:web:participant-1");
+        assertThat(store.listParticipants(Set.of(), "did:web:participant-1", 2)).extracting(Participant::getDid).containsExactly("did:web:participant-2", "did:web:participant-3");
+        assertThat(store.listParticipants(Set.of(), "did:web:participant-3", 2)).extracting(Participant::getDid).containsExactly("did:web:participant-4");
+        assertThat(store.listParticipants(Set.of(AUTHORIZED, ParticipantStatus.DENIED), "did:web:participant-0", 10)).extracting(Participant::getDid)
+                .containsExactly("did:web:participant-2", "did:web:participant-4");
+    }
+
+    @Test
+    void listChanges_returnsLastSaveOfEachParticipant() {
+        var participant1 = store.save(createParticipant().status(AUTHORIZING).build());
+        var participant2 = createParticipant().build();
+        store.save(participant2);
+        var sinceSequence = store.findByDid(participant2.getDid()).getSequence();
+        participant1 = store.save(participant1.transitionAuthorized());
+
+        assertThat(participant1.getSequence()).isGreaterThan(sinceSequence);
+        assertThat(store.listChanges(0, 10)).extracting(Participant::getDid).containsExactly(participant2.getDid(), participant1.getDid());
+        assertThat(store.listChanges(0, 1)).extracting(Participant::getDid).containsExactly(participant2.getDid());
+        assertThat(store.listChanges(sinceSequence, 10)).extracting(Participant::getSequence).containsExactly(participant1.getSequence());
+        assertThat(store.listChanges(participant1.getSequence(), 10)).isEmpty();
+    }
+
+    @Test
+    void saveAllIfAbsent_assignsConsecutiveSequenceNumbers() {
+        var participants = createParticipants(3, AUTHORIZING);
+        var saved = store.saveAllIfAbsent(participants);
+
+        assertThat(saved).extracting(Participant::getSequence).containsExactly(1L, 2L, 3L);
+        var changes = store.listChanges(0, 10);
+        assertThat(changes).extracting(Participant::getDid).containsExactlyElementsOf(participants.stream().map(Participant::getDid).collect(Collectors.toList()));
+        assertThat(changes).extracting(Participant::getSequence).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void nextForState_returnsLeastRecentlyUpdated() {
+        var first = createParticipant().status(AUTHORIZING).build();
+        var second = createParticipant().status(AUTHORIZING).build();
+        var third = createParticipant().status(AUTHORIZING).build();
+        when(clock.millis()).thenReturn(1000L);
+        store.save(second);
+        when(clock.millis()).thenReturn(2000L);
+        store.save(first);
+        when(clock.millis()).thenReturn(3000L);
+        store.save(third);
+        store.save(createParticipant().status(AUTHORIZED).build());
+
+        assertThat(store.nextForState(AUTHORIZING, 2)).extracting(Participant::getDid).containsExactly(second.getDid(), first.getDid());
+    }
+
+    @Test
+    void claimNextForState_leasesParticipants() {
+        createParticipants(5, AUTHORIZING).forEach(store::save);
+
+        var claimed = store.claimNextForState(AUTHORIZING, 3, "holder1", LEASE_DURATION);
+        var remaining = store.claimNextForState(AUTHORIZING, 10, "holder2", LEASE_DURATION);
+
+        assertThat(claimed).hasSize(3);
+        assertThat(remaining).hasSize(2);
+        assertThat(claimed).extracting(Participant::getDid).doesNotContainAnyElementsOf(remaining.stream().map(Participant::getDid).collect(Collectors.toList()));
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder1", LEASE_DURATION)).isEmpty();
+    }
+
+    @Test
+    void claimNextForState_afterLeaseExpired() {
+        var participant = createParticipant().status(AUTHORIZING).build();
+        store.save(participant);
+        assertThat(store.claimNextForState(AUTHORIZING, 1, "holder1", LEASE_DURATION)).hasSize(1);
+
+        when(clock.millis()).thenReturn(1000L + LEASE_DURATION.toMillis());
+
+        assertThat(store.claimNextForState(AUTHORIZING, 1, "holder2", LEASE_DURATION)).extracting(Participant::getDid).containsOnly(participant.getDid());
+        assertThat(store.renewLease(participant.getDid(), "holder1", LEASE_DURATION)).isFalse();
+    }
+
+    @Test
+    void claimNextForState_skipsParticipantsNotDue() {
+        var retrying = createParticipant().status(AUTHORIZING).build().scheduleRetry(2000L);
+        var due = createParticipant().status(AUTHORIZING).build();
+        store.save(retrying);
+        store.save(due);
+
+        assertThat(store.nextForState(AUTHORIZING, 10)).extracting(Participant::getDid).containsExactly(due.getDid());
+        assertThat(store.claimNextForState(AUTHORIZING, 10, "holder1", LEASE_DURATION)).extracting(Participant::getDid).containsExactly(due.getDid());
+
+        when(clock.millis()).thenReturn(2000L);
+
+        var claimed = store.claimNextForState(AUTHORIZING, 10, "holder1", LEASE_DURATION);
+        assertThat(claimed).extracting(Participant::getDid).containsExactly(retrying.getDid());
+        assertThat(claimed.get(0).getRetryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void breakLease() {
+        var participant = createParticipant().status(AUTHORIZING).build();
+        store.save(participant);
+        store.claimNextForState(AUTHORIZING, 1, "holder1", LEASE_DURATION);
+
+        store.breakLease(participant.getDid(), "holder2");
+        assertThat(store.claimNextForState(AUTHORIZING, 1, "holder2", LEASE_DURATION)).isEmpty();
+
+        store.breakLease(participant.getDid(), "holder1");
+        assertThat(store.claimNextForState(AUTHORIZING, 1, "holder2", LEASE_DURATION)).hasSize(1);
+    }
+
+    @Test
+    void save_keepsLease() {
+        var participant = createParticipant().status(AUTHORIZING).build();
+        store.save(participant);
+        store.claimNextForState(AUTHORIZING, 1, "holder1", LEASE_DURATION);
+
+        store.save(participant);
+
+        assertThat(store.claimNextForState(AUTHORIZING, 1, "holder2", LEASE_DURATION)).isEmpty();
+    }
+
+    @Test
+    void renewLease() {
+        var participant = createParticipant().status(AUTHORIZING).build();
+        store.save(participant);
+        store.claimNextForState(AUTHORIZING, 1, "holder1", LEASE_DURATION);
+
+        when(clock.millis()).thenReturn(1000L + LEASE_DURATION.toMillis() - 1);
+        assertThat(store.renewLease(participant.getDid(), "holder1", LEASE_DURATION)).isTrue();
+        when(clock.millis()).thenReturn(1000L + LEASE_DURATION.toMillis());
+
+        assertThat(store.claimNextForState(AUTHORIZING, 1, "holder2", LEASE_DURATION)).isEmpty();
+    }
+
+    @Test
+    void claimNextForState_concurrently() throws Exception {
+        var participants = createParticipants(200, AUTHORIZING);
+        participants.forEach(store::save);
+
+        var claims = new ConcurrentHashMap<String, String>();
+        var executor = Executors.newFixedThreadPool(4);
+        var futures = new ArrayList<Future<Integer>>();
+        for (var i = 0; i < 4; i++) {
+            var holder = "holder" + i;
+            futures.add(executor.submit(() -> {
+                var duplicates = 0;
+                // a batch may come back empty while candidates locked by another claim are being leased
+                while (claims.size() < participants.size()) {
+                    for (var participant : store.claimNextForState(AUTHORIZING, 10, holder, LEASE_DURATION)) {
+                        if (claims.putIfAbsent(participant.getDid(), holder) != null) {
+                            duplicates++;
+                        }
+                    }
+                }
+                return duplicates;
+            }));
+        }
+        for (var future : futures) {
+            assertThat(future.get(30, SECONDS)).isZero();
+        }
+        executor.shutdown();
+
+        assertThat(claims).hasSize(participants.size());
+    }
+
+    private List<Participant> createParticipants(int count, ParticipantStatus status) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> createParticipant().did("did:web:" + UUID.randomUUID()).status(status).build())
+                .collect(Collectors.toList());
+    }
+}
@@ -10,12 +10,18 @@ val jupiterVersion: String by project
 val assertj: String by project
 val mockitoVersion: String by project
 val faker: String by project
+val caffeineVersion: String by project
+val micrometerVersion: String by project
+val jacksonVersion: String by project
 
 dependencies {
     api("${identityHubGroup}:identity-hub-spi:${identityHubVersion}")
     api("${edcGroup}:core-spi:${edcVersion}")
     api("${edcGroup}:identity-did-spi:${edcVersion}")
     api(project(":extensions:dataspace-authority-spi"))
+    implementation("com.github.ben-manes.caffeine:caffeine:${caffeineVersion}")
+    implementation("io.micrometer:micrometer-core:${micrometerVersion}")
+    implementation("com.fasterxml.jackson.core:jackson-databind:${jacksonVersion}")
 
     testImplementation("org.assertj:assertj-core:${assertj}")
     testImplementation("org.junit.jupiter:junit-jupiter-api:${jupiterVersion}")
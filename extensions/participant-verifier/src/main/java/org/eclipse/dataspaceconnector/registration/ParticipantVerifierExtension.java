@@ -14,10 +14,13 @@
 
 package org.eclipse.dataspaceconnector.registration;
 
+import io.micrometer.core.instrument.Metrics;
 import org.eclipse.dataspaceconnector.iam.did.spi.credentials.CredentialsVerifier;
 import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidResolverRegistry;
 import org.eclipse.dataspaceconnector.registration.authority.spi.ParticipantVerifier;
 import org.eclipse.dataspaceconnector.registration.verifier.DefaultParticipantVerifier;
+import org.eclipse.dataspaceconnector.registration.verifier.VerificationResultCache;
+import org.eclipse.dataspaceconnector.spi.EdcSetting;
 import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
 import org.eclipse.dataspaceconnector.spi.policy.PolicyEngine;
 import org.eclipse.dataspaceconnector.spi.system.Inject;
@@ -25,11 +28,26 @@ import org.eclipse.dataspaceconnector.spi.system.Provider;
 import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
 import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
 
+import java.time.Clock;
+import java.time.Duration;
+
 /**
  * EDC extension to boot the {@link ParticipantVerifier} used by the Authority Service.
  */
 public class ParticipantVerifierExtension implements ServiceExtension {
 
+    @EdcSetting(type = "integer", value = "Maximum time in seconds during which the outcome of verifying a participant is reused for the same credentials, "
+            + "if they do not expire earlier, 0 to disable the cache")
+    public static final String RESULT_CACHE_MAX_TTL_SETTING = "registration.verifier.result-cache.max-ttl";
+    public static final long DEFAULT_RESULT_CACHE_MAX_TTL = 0;
+    @EdcSetting(type = "integer", value = "Time in seconds after fetching the credentials of a participant during which its cached positive outcome "
+            + "is reused without fetching them again, 0 to always fetch them")
+    public static final String RESULT_CACHE_CREDENTIALS_TTL_SETTING = "registration.verifier.result-cache.credentials-ttl";
+    public static final long DEFAULT_RESULT_CACHE_CREDENTIALS_TTL = 0;
+    @EdcSetting(type = "integer", value = "Maximum number of participants whose verification outcome is cached")
+    public static final String RESULT_CACHE_MAXIMUM_SIZE_SETTING = "registration.verifier.result-cache.maximum-size";
+    public static final long DEFAULT_RESULT_CACHE_MAXIMUM_SIZE = 10_000;
+
     @Inject
     private Monitor monitor;
 
@@ -47,7 +65,16 @@ public class ParticipantVerifierExtension implements ServiceExtension {
 
     @Provider
     public ParticipantVerifier participantVerifier(ServiceExtensionContext context) {
-        return new DefaultParticipantVerifier(monitor, didResolverRegistry, credentialsVerifier, policyEngine, dataspaceRegistrationPolicy);
+        var maxTtl = Duration.ofSeconds(context.getSetting(RESULT_CACHE_MAX_TTL_SETTING, DEFAULT_RESULT_CACHE_MAX_TTL));
+        VerificationResultCache resultCache = null;
+        if (!maxTtl.isZero()) {
+            resultCache = new VerificationResultCache(maxTtl,
+                    Duration.ofSeconds(context.getSetting(RESULT_CACHE_CREDENTIALS_TTL_SETTING, DEFAULT_RESULT_CACHE_CREDENTIALS_TTL)),
+                    context.getSetting(RESULT_CACHE_MAXIMUM_SIZE_SETTING, DEFAULT_RESULT_CACHE_MAXIMUM_SIZE),
+                    Clock.systemUTC(),
+                    Metrics.globalRegistry);
+        }
+        return new DefaultParticipantVerifier(monitor, didResolverRegistry, credentialsVerifier, policyEngine, dataspaceRegistrationPolicy, resultCache);
     }
 }
 
@@ -22,6 +22,7 @@ import org.eclipse.dataspaceconnector.spi.agent.ParticipantAgent;
 import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
 import org.eclipse.dataspaceconnector.spi.policy.PolicyEngine;
 import org.eclipse.dataspaceconnector.spi.response.StatusResult;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 
@@ -35,6 +36,9 @@ import static org.eclipse.dataspaceconnector.spi.response.ResponseStatus.ERROR_R
  * as long as its Identity Hub can be accessed.
  * <p>
  * This is meant as a starting point for implementing custom dataspace onboarding logic.
+ * <p>
+ * If a {@link VerificationResultCache} is given, the outcome of the policy evaluation is reused for participants
+ * verified again with the same credentials, and for a short time without fetching their credentials again.
  */
 public class DefaultParticipantVerifier implements ParticipantVerifier {
 
@@ -43,17 +47,30 @@ public class DefaultParticipantVerifier implements ParticipantVerifier {
     private final CredentialsVerifier credentialsVerifier;
     private final PolicyEngine policyEngine;
     private final DataspaceRegistrationPolicy dataspaceRegistrationPolicy;
+    private final VerificationResultCache resultCache;
 
     public DefaultParticipantVerifier(Monitor monitor, DidResolverRegistry resolverRegistry, CredentialsVerifier credentialsVerifier, PolicyEngine policyEngine, DataspaceRegistrationPolicy dataspaceRegistrationPolicy) {
+        this(monitor, resolverRegistry, credentialsVerifier, policyEngine, dataspaceRegistrationPolicy, null);
+    }
+
+    public DefaultParticipantVerifier(Monitor monitor, DidResolverRegistry resolverRegistry, CredentialsVerifier credentialsVerifier, PolicyEngine policyEngine,
+                                      DataspaceRegistrationPolicy dataspaceRegistrationPolicy, @Nullable VerificationResultCache resultCache) {
         this.monitor = monitor;
         this.resolverRegistry = resolverRegistry;
         this.credentialsVerifier = credentialsVerifier;
         this.policyEngine = policyEngine;
         this.dataspaceRegistrationPolicy = dataspaceRegistrationPolicy;
+        this.resultCache = resultCache;
     }
 
     @Override
     public StatusResult<Boolean> isOnboardingAllowed(String participantDid) {
+        var recentOutcome = resultCache != null ? resultCache.getRecentOutcome(participantDid) : null;
+        if (recentOutcome != null) {
+            monitor.debug(() -> format("Reusing policy evaluation result for %s: %s", participantDid, recentOutcome));
+            return StatusResult.success(recentOutcome);
+        }
+
         monitor.info(() -> "Get credentials VC for " + participantDid);
 
         var didDocument = resolverRegistry.resolve(participantDid);
@@ -69,6 +86,13 @@ public class DefaultParticipantVerifier implements ParticipantVerifier {
 
         monitor.info(() -> format("Retrieved VCs for %s: %s", participantDid, credentials));
 
+        var digest = resultCache != null ? resultCache.digest(credentials) : null;
+        var cachedOutcome = digest != null ? resultCache.getOutcome(participantDid, digest) : null;
+        if (cachedOutcome != null) {
+            monitor.debug(() -> format("Reusing policy evaluation result for %s with unchanged VCs: %s", participantDid, cachedOutcome));
+            return StatusResult.success(cachedOutcome);
+        }
+
         var agent = new ParticipantAgent(credentials, Collections.emptyMap());
 
         var evaluationResult = policyEngine.evaluate(PARTICIPANT_REGISTRATION_SCOPE, dataspaceRegistrationPolicy.get(), agent);
@@ -76,6 +100,10 @@ public class DefaultParticipantVerifier implements ParticipantVerifier {
 
         monitor.debug(() -> "Policy evaluation result: " + policyResult);
 
+        if (digest != null) {
+            resultCache.put(participantDid, digest, credentials, policyResult);
+        }
+
         return StatusResult.success(policyResult);
     }
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.verifier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.jetbrains.annotations.Nullable;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.lang.String.format;
+
+/**
+ * Cache of the outcome of the policy evaluation for participants, so that a participant verified again with the same
+ * credentials, e.g. because it registers again, is not evaluated again.
+ * <p>
+ * Outcomes are keyed by participant DID and by the SHA-256 digest of the verified credentials, so that any change to
+ * the credentials of a participant leads to a new evaluation; only the latest outcome is kept for each DID. An outcome
+ * is cached until the first of the credentials expires (from its {@code exp} claim or its
+ * {@code vc.expirationDate}), and at most for {@code maxTtl}, so that policies depending on the time of the evaluation
+ * are evaluated again from time to time. The number of cached DIDs is bounded.
+ * <p>
+ * In addition, for {@code credentialsTtl} after the credentials were fetched, a cached positive outcome can be reused
+ * without fetching the credentials again, trading freshness for fewer requests to the Identity Hub of the participant.
+ * A negative outcome is only reused for the same credentials, so that a participant whose credentials were missing or
+ * insufficient is allowed as soon as it holds new credentials.
+ * <p>
+ * Cache hits and misses are published as {@code cache.*} meters tagged with
+ * {@code cache=participant.verification-results}.
+ */
+public class VerificationResultCache {
+
+    public static final String CACHE_NAME = "participant.verification-results";
+
+    private final Duration maxTtl;
+    private final Duration credentialsTtl;
+    private final Clock clock;
+    private final ObjectMapper mapper = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    private final Cache<String, CachedOutcome> cache;
+
+    public VerificationResultCache(Duration maxTtl, Duration credentialsTtl, long maximumSize, Clock clock, MeterRegistry meterRegistry) {
+        if (maxTtl.isNegative() || credentialsTtl.isNegative() || maximumSize < 0) {
+            throw new IllegalArgumentException(format("Invalid verification result cache configuration: maximum ttl %s, credentials ttl %s, maximum size %s",
+                    maxTtl, credentialsTtl, maximumSize));
+        }
+        this.maxTtl = maxTtl;
+        this.credentialsTtl = credentialsTtl;
+        this.clock = Objects.requireNonNull(clock);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new OutcomeExpiry())
+                .recordStats()
+                .build();
+        new CaffeineCacheMetrics<>(cache, CACHE_NAME, Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Returns the positive outcome cached for a participant whose credentials were fetched less than
+     * {@code credentialsTtl} ago.
+     *
+     * @param did the DID of the participant.
+     * @return {@code true}, or {@code null} if the credentials of the participant must be fetched.
+     */
+    @Nullable
+    public Boolean getRecentOutcome(String did) {
+        var cached = cache.getIfPresent(did);
+        var now = clock.instant();
+        if (cached == null || !cached.outcome || !now.isBefore(cached.expiresAt) || !now.isBefore(cached.fetchedAt.plus(credentialsTtl))) {
+            return null;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the outcome cached for a participant holding the given credentials.
+     *
+     * @param did    the DID of the participant.
+     * @param digest the {@link #digest} of the verified credentials of the participant.
+     * @return the outcome, or {@code null} if the policy must be evaluated.
+     */
+    @Nullable
+    public Boolean getOutcome(String did, String digest) {
+        var cached = cache.getIfPresent(did);
+        if (cached == null || !cached.digest.equals(digest) || !clock.instant().isBefore(cached.expiresAt)) {
+            return null;
+        }
+        return cached.outcome;
+    }
+
+    /**
+     * Records the outcome of the policy evaluation for a participant.
+     *
+     * @param did         the DID of the participant.
+     * @param digest      the {@link #digest} of the verified credentials of the participant.
+     * @param credentials the verified credentials of the participant, by credential ID.
+     * @param outcome     whether the participant is allowed to onboard.
+     */
+    public void put(String did, String digest, Map<String, Object> credentials, boolean outcome) {
+        var now = clock.instant();
+        var expiresAt = now.plus(maxTtl);
+        for (var credential : credentials.values()) {
+            var expirationTime = expirationTime(credential);
+            if (expirationTime != null && expirationTime.isBefore(expiresAt)) {
+                expiresAt = expirationTime;
+            }
+        }
+        if (now.isBefore(expiresAt)) {
+            cache.put(did, new CachedOutcome(digest, outcome, now, expiresAt));
+        }
+    }
+
+    /**
+     * Computes the digest of verified credentials, independent of the order of their entries.
+     *
+     * @param credentials the verified credentials of a participant, by credential ID.
+     * @return the digest, or {@code null} if the credentials cannot be serialized, in which case they are not cached.
+     */
+    @Nullable
+    public String digest(Map<String, Object> credentials) {
+        byte[] serialized;
+        try {
+            serialized = mapper.writeValueAsBytes(credentials);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(serialized));
+        } catch (NoSuchAlgorithmException e) {
+            throw new EdcException(e);
+        }
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private Duration timeToLive(CachedOutcome cached) {
+        var ttl = Duration.between(clock.instant(), cached.expiresAt);
+        return ttl.isNegative() ? Duration.ZERO : ttl;
+    }
+
+    @Nullable
+    private static Instant expirationTime(Object credential) {
+        if (!(credential instanceof Map)) {
+            return null;
+        }
+        var claims = (Map<?, ?>) credential;
+        var exp = claims.get("exp");
+        if (exp instanceof Date) {
+            return ((Date) exp).toInstant();
+        }
+        if (exp instanceof Number) {
+            return Instant.ofEpochSecond(((Number) exp).longValue());
+        }
+        var vc = claims.get("vc");
+        var expirationDate = vc instanceof Map ? ((Map<?, ?>) vc).get("expirationDate") : null;
+        if (expirationDate instanceof String) {
+            try {
+                return OffsetDateTime.parse((String) expirationDate).toInstant();
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static class CachedOutcome {
+        private final String digest;
+        private final boolean outcome;
+        private final Instant fetchedAt;
+        private final Instant expiresAt;
+
+        CachedOutcome(String digest, boolean outcome, Instant fetchedAt, Instant expiresAt) {
+            this.digest = digest;
+            this.outcome = outcome;
+            this.fetchedAt = fetchedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private class OutcomeExpiry implements Expiry<String, CachedOutcome> {
+        @Override
+        public long expireAfterCreate(String key, CachedOutcome cached, long currentTime) {
+            return timeToLive(cached).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedOutcome cached, long currentTime, long currentDuration) {
+            return timeToLive(cached).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedOutcome cached, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
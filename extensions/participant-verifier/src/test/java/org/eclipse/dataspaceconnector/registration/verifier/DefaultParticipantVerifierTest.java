@@ -15,6 +15,7 @@
 package org.eclipse.dataspaceconnector.registration.verifier;
 
 import com.github.javafaker.Faker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.AbstractStringAssert;
 import org.eclipse.dataspaceconnector.iam.did.spi.credentials.CredentialsVerifier;
 import org.eclipse.dataspaceconnector.iam.did.spi.document.DidDocument;
@@ -30,6 +31,8 @@ import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +44,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class DefaultParticipantVerifierTest {
@@ -114,6 +119,88 @@ class DefaultParticipantVerifierTest {
     }
 
 
+    @Test
+    void isOnboardingAllowed_withResultCache_reusesOutcomeForSameCredentials() {
+        var resultCache = new VerificationResultCache(Duration.ofMinutes(5), Duration.ZERO, 10, Clock.systemUTC(), new SimpleMeterRegistry());
+        var service = new DefaultParticipantVerifier(monitor, resolverRegistry, credentialsVerifier, policyEngine, dataspaceRegistrationPolicy, resultCache);
+        when(policyEngine.evaluate(any(), any(), any()))
+                .thenReturn(Result.success(policyResult));
+
+        assertThat(service.isOnboardingAllowed(participantDid).getContent()).isTrue();
+        assertThat(service.isOnboardingAllowed(participantDid).getContent()).isTrue();
+
+        verify(credentialsVerifier, times(2)).getVerifiedCredentials(any());
+        verify(policyEngine, times(1)).evaluate(any(), any(), any());
+    }
+
+    @Test
+    void isOnboardingAllowed_withResultCache_evaluatesChangedCredentials() {
+        var resultCache = new VerificationResultCache(Duration.ofMinutes(5), Duration.ZERO, 10, Clock.systemUTC(), new SimpleMeterRegistry());
+        var service = new DefaultParticipantVerifier(monitor, resolverRegistry, credentialsVerifier, policyEngine, dataspaceRegistrationPolicy, resultCache);
+        when(credentialsVerifier.getVerifiedCredentials(any()))
+                .thenReturn(Result.success(verifiableCredentials))
+                .thenReturn(Result.success(Map.of(FAKER.lorem().word(), FAKER.lorem().sentence())));
+        when(policyEngine.evaluate(any(), any(), any()))
+                .thenReturn(Result.success(policyResult))
+                .thenReturn(Result.failure(failure));
+
+        assertThat(service.isOnboardingAllowed(participantDid).getContent()).isTrue();
+        assertThat(service.isOnboardingAllowed(participantDid).getContent()).isFalse();
+
+        verify(policyEngine, times(2)).evaluate(any(), any(), any());
+    }
+
+    @Test
+    void isOnboardingAllowed_withResultCache_skipsFetchWithinCredentialsTtl() {
+        var resultCache = new VerificationResultCache(Duration.ofMinutes(5), Duration.ofMinutes(1), 10, Clock.systemUTC(), new SimpleMeterRegistry());
+        var service = new DefaultParticipantVerifier(monitor, resolverRegistry, credentialsVerifier, policyEngine, dataspaceRegistrationPolicy, resultCache);
+        when(policyEngine.evaluate(any(), any(), any()))
+                .thenReturn(Result.success(policyResult));
+
+        assertThat(service.isOnboardingAllowed(participantDid).getContent()).isTrue();
+        assertThat(service.isOnboardingAllowed(participantDid).getContent()).isTrue();
+
+        verify(resolverRegistry, times(1)).resolve(participantDid);
+        verify(credentialsVerifier, times(1)).getVerifiedCredentials(any());
+        verify(policyEngine, times(1)).evaluate(any(), any(), any());
+    }
+
+    @Test
+    void isOnboardingAllowed_withResultCache_fetchesCredentialsAfterDenial() {
+        var resultCache = new VerificationResultCache(Duration.ofMinutes(5), Duration.ofMinutes(1), 10, Clock.systemUTC(), new SimpleMeterRegistry());
+        var service = new DefaultParticipantVerifier(monitor, resolverRegistry, credentialsVerifier, policyEngine, dataspaceRegistrationPolicy, resultCache);
+        when(credentialsVerifier.getVerifiedCredentials(any()))
+                .thenReturn(Result.success(verifiableCredentials))
+                .thenReturn(Result.success(verifiableCredentials))
+                .thenReturn(Result.success(Map.of(FAKER.lorem().word(), FAKER.lorem().sentence())));
+        when(policyEngine.evaluate(any(), any(), any()))
+                .thenReturn(Result.failure(failure))
+                .thenReturn(Result.success(policyResult));
+
+        assertThat(service.isOnboardingAllowed(participantDid).getContent()).isFalse();
+        assertThat(service.isOnboardingAllowed(participantDid).getContent()).isFalse();
+        assertThat(service.isOnboardingAllowed(participantDid).getContent()).isTrue();
+
+        verify(credentialsVerifier, times(3)).getVerifiedCredentials(any());
+        verify(policyEngine, times(2)).evaluate(any(), any(), any());
+    }
+
+    @Test
+    void isOnboardingAllowed_withResultCache_doesNotCacheFailure() {
+        var resultCache = new VerificationResultCache(Duration.ofMinutes(5), Duration.ofMinutes(1), 10, Clock.systemUTC(), new SimpleMeterRegistry());
+        var service = new DefaultParticipantVerifier(monitor, resolverRegistry, credentialsVerifier, policyEngine, dataspaceRegistrationPolicy, resultCache);
+        when(credentialsVerifier.getVerifiedCredentials(any()))
+                .thenReturn(Result.failure(failure))
+                .thenReturn(Result.success(verifiableCredentials));
+        when(policyEngine.evaluate(any(), any(), any()))
+                .thenReturn(Result.success(policyResult));
+
+        assertThat(service.isOnboardingAllowed(participantDid).failed()).isTrue();
+        assertThat(service.isOnboardingAllowed(participantDid).getContent()).isTrue();
+
+        verify(credentialsVerifier, times(2)).getVerifiedCredentials(any());
+    }
+
     @NotNull
     private AbstractStringAssert<?> assertThatCallFailsWith(ResponseStatus status) {
         var result = service.isOnboardingAllowed(participantDid);
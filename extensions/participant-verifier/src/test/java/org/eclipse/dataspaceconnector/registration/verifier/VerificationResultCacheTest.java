@@ -0,0 +1,139 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.verifier;
+
+import com.github.javafaker.Faker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VerificationResultCacheTest {
+    static final Faker FAKER = new Faker();
+    static final Duration MAX_TTL = Duration.ofMinutes(30);
+    static final Duration CREDENTIALS_TTL = Duration.ofMinutes(1);
+
+    Instant now = Instant.now();
+    Clock clock = mock(Clock.class);
+    VerificationResultCache cache = new VerificationResultCache(MAX_TTL, CREDENTIALS_TTL, 10, clock, new SimpleMeterRegistry());
+    String did = FAKER.internet().url();
+    Map<String, Object> credentials = Map.of(FAKER.internet().uuid(), Map.of("vc", Map.of("credentialSubject", Map.of("gaiaXMember", "true"))));
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(now);
+    }
+
+    @Test
+    void getOutcome_forSameCredentials() {
+        var digest = cache.digest(credentials);
+        cache.put(did, digest, credentials, true);
+
+        assertThat(cache.getOutcome(did, digest)).isTrue();
+        assertThat(cache.getOutcome(did, cache.digest(Map.of()))).isNull();
+        assertThat(cache.getOutcome(did + "x", digest)).isNull();
+    }
+
+    @Test
+    void getOutcome_atMostForMaxTtl() {
+        var digest = cache.digest(credentials);
+        cache.put(did, digest, credentials, false);
+
+        when(clock.instant()).thenReturn(now.plus(MAX_TTL).minusSeconds(1));
+        assertThat(cache.getOutcome(did, digest)).isFalse();
+
+        when(clock.instant()).thenReturn(now.plus(MAX_TTL));
+        assertThat(cache.getOutcome(did, digest)).isNull();
+    }
+
+    @Test
+    void getOutcome_untilCredentialExpires() {
+        var expiring = Map.<String, Object>of(
+                "jwt", Map.of("exp", Date.from(now.plusSeconds(120))),
+                "epoch", Map.of("exp", now.plusSeconds(90).getEpochSecond()),
+                "vc", Map.of("vc", Map.of("expirationDate", now.plusSeconds(60).toString())));
+        var digest = cache.digest(expiring);
+        cache.put(did, digest, expiring, true);
+
+        when(clock.instant()).thenReturn(now.plusSeconds(59));
+        assertThat(cache.getOutcome(did, digest)).isTrue();
+
+        when(clock.instant()).thenReturn(now.plusSeconds(60));
+        assertThat(cache.getOutcome(did, digest)).isNull();
+    }
+
+    @Test
+    void put_expiredCredential_notCached() {
+        var expired = Map.<String, Object>of("jwt", Map.of("exp", Date.from(now.minusSeconds(1))));
+        var digest = cache.digest(expired);
+        cache.put(did, digest, expired, true);
+
+        assertThat(cache.getOutcome(did, digest)).isNull();
+    }
+
+    @Test
+    void getRecentOutcome_forCredentialsTtl() {
+        cache.put(did, cache.digest(credentials), credentials, true);
+
+        when(clock.instant()).thenReturn(now.plus(CREDENTIALS_TTL).minusSeconds(1));
+        assertThat(cache.getRecentOutcome(did)).isTrue();
+
+        when(clock.instant()).thenReturn(now.plus(CREDENTIALS_TTL));
+        assertThat(cache.getRecentOutcome(did)).isNull();
+        assertThat(cache.getOutcome(did, cache.digest(credentials))).isTrue();
+    }
+
+    @Test
+    void getRecentOutcome_negativeOutcome_notReused() {
+        cache.put(did, cache.digest(credentials), credentials, false);
+
+        assertThat(cache.getRecentOutcome(did)).isNull();
+        assertThat(cache.getOutcome(did, cache.digest(credentials))).isFalse();
+    }
+
+    @Test
+    void digest_independentOfEntryOrder() {
+        var first = new LinkedHashMap<String, Object>();
+        first.put("a", Map.of("x", 1, "y", 2));
+        first.put("b", "c");
+        var second = new LinkedHashMap<String, Object>();
+        second.put("b", "c");
+        second.put("a", new LinkedHashMap<>(Map.of("y", 2, "x", 1)));
+
+        assertThat(cache.digest(first)).isEqualTo(cache.digest(second));
+        assertThat(cache.digest(first)).isNotEqualTo(cache.digest(Map.of("b", "c")));
+    }
+
+    @Test
+    void put_boundedSize() {
+        var digest = cache.digest(credentials);
+        for (var i = 0; i < 100; i++) {
+            cache.put(did + i, digest, credentials, true);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.policy.claims;
+
+import org.eclipse.dataspaceconnector.registration.authority.policy.ClaimPath;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Constraint on the verifiable credentials of a participant: one of the credentials of a given type, or of any type,
+ * must have a value at a given path that matches a predicate.
+ */
+public class ClaimConstraint {
+    private final String name;
+    private final String credentialType;
+    private final ClaimPath path;
+    private final Predicate<Object> predicate;
+
+    /**
+     * Creates a constraint.
+     *
+     * @param name           the name of the constraint, for diagnostics.
+     * @param credentialType the type of the credentials to check, {@code null} to check all credentials.
+     * @param path           the path of the value within a credential.
+     * @param predicate      the predicate that the value must match.
+     */
+    public ClaimConstraint(String name, @Nullable String credentialType, ClaimPath path, Predicate<Object> predicate) {
+        this.name = Objects.requireNonNull(name);
+        this.credentialType = credentialType;
+        this.path = Objects.requireNonNull(path);
+        this.predicate = Objects.requireNonNull(predicate);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Nullable
+    public String getCredentialType() {
+        return credentialType;
+    }
+
+    /**
+     * Tests a credential, regardless of its type.
+     *
+     * @param claim the credential, as deserialized from JSON into maps and lists.
+     * @return {@code true} if the credential satisfies the constraint.
+     */
+    public boolean test(Object claim) {
+        return path.anyMatch(claim, predicate);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
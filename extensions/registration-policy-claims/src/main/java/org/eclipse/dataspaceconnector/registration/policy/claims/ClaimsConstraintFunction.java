@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.policy.claims;
+
+import org.eclipse.dataspaceconnector.policy.model.Operator;
+import org.eclipse.dataspaceconnector.policy.model.Permission;
+import org.eclipse.dataspaceconnector.spi.policy.AtomicConstraintFunction;
+import org.eclipse.dataspaceconnector.spi.policy.PolicyContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluation function for the "credentialClaims" constraint, checking that the verifiable credentials held by a
+ * participant satisfy all of a set of {@link ClaimConstraint}s.
+ * <p>
+ * Constraints are indexed by credential type, so that a credential is only tested against the constraints on one of its
+ * types (read from {@code vc.type}) and the constraints on any type. Credentials are inspected in a single pass, which
+ * stops as soon as all constraints are satisfied.
+ */
+public class ClaimsConstraintFunction implements AtomicConstraintFunction<Permission> {
+    private final ClaimConstraint[] constraints;
+    private final int[] anyType;
+    private final Map<String, int[]> byType;
+
+    public ClaimsConstraintFunction(List<ClaimConstraint> constraints) {
+        this.constraints = constraints.toArray(new ClaimConstraint[0]);
+        var anyType = new ArrayList<Integer>();
+        var byType = new HashMap<String, List<Integer>>();
+        for (var i = 0; i < this.constraints.length; i++) {
+            var type = this.constraints[i].getCredentialType();
+            if (type == null) {
+                anyType.add(i);
+            } else {
+                byType.computeIfAbsent(type, t -> new ArrayList<>()).add(i);
+            }
+        }
+        this.anyType = toArray(anyType);
+        this.byType = new HashMap<>();
+        byType.forEach((type, indexes) -> this.byType.put(type, toArray(indexes)));
+    }
+
+    /**
+     * Evaluates the constraints against the claims of the participant. The operator and right operand of the policy
+     * constraint are not used, as the constraints to satisfy are given on construction.
+     */
+    @Override
+    public boolean evaluate(Operator operator, Object rightOperand, Permission rule, PolicyContext context) {
+        return evaluate(context.getParticipantAgent().getClaims());
+    }
+
+    /**
+     * Evaluates the constraints against the claims of a participant.
+     *
+     * @param claims the verifiable credentials of the participant, by credential ID.
+     * @return {@code true} if every constraint is satisfied by a credential.
+     */
+    public boolean evaluate(Map<String, Object> claims) {
+        var satisfied = new boolean[constraints.length];
+        var remaining = constraints.length;
+        for (var claim : claims.values()) {
+            if (remaining == 0) {
+                break;
+            }
+            remaining -= test(claim, anyType, satisfied);
+            if (byType.isEmpty()) {
+                continue;
+            }
+            var types = credentialTypes(claim);
+            if (types instanceof List) {
+                for (var type : (List<?>) types) {
+                    remaining -= test(claim, byType.get(type), satisfied);
+                }
+            } else if (types != null) {
+                remaining -= test(claim, byType.get(types), satisfied);
+            }
+        }
+        return remaining == 0;
+    }
+
+    /**
+     * Tests a credential against the constraints that are not satisfied yet, among the given ones.
+     *
+     * @return the number of constraints newly satisfied.
+     */
+    private int test(Object claim, int[] indexes, boolean[] satisfied) {
+        if (indexes == null) {
+            return 0;
+        }
+        var count = 0;
+        for (var i : indexes) {
+            if (!satisfied[i] && constraints[i].test(claim)) {
+                satisfied[i] = true;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Object credentialTypes(Object claim) {
+        if (!(claim instanceof Map)) {
+            return null;
+        }
+        var vc = ((Map<?, ?>) claim).get("vc");
+        return vc instanceof Map ? ((Map<?, ?>) vc).get("type") : null;
+    }
+
+    private static int[] toArray(List<Integer> indexes) {
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.policy.claims;
+
+import org.eclipse.dataspaceconnector.policy.model.AtomicConstraint;
+import org.eclipse.dataspaceconnector.policy.model.LiteralExpression;
+import org.eclipse.dataspaceconnector.policy.model.Operator;
+import org.eclipse.dataspaceconnector.policy.model.Permission;
+import org.eclipse.dataspaceconnector.policy.model.Policy;
+import org.eclipse.dataspaceconnector.registration.DataspaceRegistrationPolicy;
+import org.eclipse.dataspaceconnector.registration.authority.policy.ClaimPath;
+import org.eclipse.dataspaceconnector.registration.authority.policy.ClaimPredicates;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.EdcSetting;
+import org.eclipse.dataspaceconnector.spi.policy.PolicyEngine;
+import org.eclipse.dataspaceconnector.spi.policy.RuleBindingRegistry;
+import org.eclipse.dataspaceconnector.spi.system.Inject;
+import org.eclipse.dataspaceconnector.spi.system.Provider;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.EQ;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.IN;
+import static org.eclipse.dataspaceconnector.policy.model.Operator.NEQ;
+import static org.eclipse.dataspaceconnector.registration.DataspaceRegistrationPolicy.PARTICIPANT_REGISTRATION_SCOPE;
+
+/**
+ * EDC extension to create a policy that accepts participants whose verifiable credentials satisfy the claim
+ * constraints given in settings. For instance, the following settings accept participants holding a
+ * {@code GaiaXMembership} credential that is not expired, and that is of the gold or silver level:
+ * <pre>
+ * registration.policy.claims.constraints=member,level
+ * registration.policy.claims.constraint.member.credential-type=GaiaXMembership
+ * registration.policy.claims.constraint.member.path=vc.expirationDate
+ * registration.policy.claims.constraint.member.operator=GT
+ * registration.policy.claims.constraint.member.value=now
+ * registration.policy.claims.constraint.level.credential-type=GaiaXMembership
+ * registration.policy.claims.constraint.level.path=vc.credentialSubject.level
+ * registration.policy.claims.constraint.level.operator=IN
+ * registration.policy.claims.constraint.level.value=gold,silver
+ * </pre>
+ * Each constraint must be satisfied by one of the credentials, but not necessarily by the same one. Claim values that
+ * are numbers or booleans are compared by their string form for {@code EQ}, {@code NEQ} and {@code IN}. See
+ * {@link ClaimPath} for the syntax of paths, and {@link ClaimPredicates} for the comparison of numbers and dates.
+ */
+public class ClaimsDataspaceRegistrationPolicyExtension implements ServiceExtension {
+    public static final String RULE_TYPE = "credentialClaims";
+
+    @EdcSetting(value = "Comma-separated names of the claim constraints that participants must satisfy, "
+            + "each configured with the 'registration.policy.claims.constraint.<name>.*' settings")
+    public static final String CONSTRAINTS_SETTING = "registration.policy.claims.constraints";
+    @EdcSetting(value = "Settings of a claim constraint, after the constraint name: 'path' of the value in a verifiable credential, "
+            + "e.g. 'vc.credentialSubject.gaiaXMember', 'operator' among EQ, NEQ, IN, GT, GEQ, LT and LEQ, 'value' to compare with, "
+            + "comma-separated for IN, and optionally 'credential-type' of the verifiable credentials to check")
+    public static final String CONSTRAINT_SETTING_PREFIX = "registration.policy.claims.constraint.";
+
+    @Inject
+    private RuleBindingRegistry ruleBindingRegistry;
+
+    @Inject
+    private PolicyEngine policyEngine;
+
+    /**
+     * Registers a {@link Policy} with a single "credentialClaims" constraint, and an evaluation function that checks the
+     * configured claim constraints. The rule type {@link #RULE_TYPE} is bound to the scope
+     * {@link DataspaceRegistrationPolicy#PARTICIPANT_REGISTRATION_SCOPE}.
+     */
+    @Provider
+    public DataspaceRegistrationPolicy createDataspaceRegistrationPolicy(ServiceExtensionContext context) {
+        var function = new ClaimsConstraintFunction(constraints(context, Clock.systemUTC()));
+
+        var constraint = AtomicConstraint.Builder.newInstance().leftExpression(new LiteralExpression(RULE_TYPE))
+                .operator(EQ)
+                .rightExpression(new LiteralExpression("true")).build();
+        var permission = Permission.Builder.newInstance().constraint(constraint).build();
+        var policy = Policy.Builder.newInstance()
+                .permission(permission).build();
+        ruleBindingRegistry.bind(RULE_TYPE, PARTICIPANT_REGISTRATION_SCOPE);
+        policyEngine.registerFunction(PARTICIPANT_REGISTRATION_SCOPE, Permission.class, RULE_TYPE, function);
+        return new DataspaceRegistrationPolicy(policy);
+    }
+
+    /**
+     * Reads and compiles the claim constraints from settings.
+     *
+     * @throws EdcException if no constraint is configured, or a constraint is not valid.
+     */
+    static List<ClaimConstraint> constraints(ServiceExtensionContext context, Clock clock) {
+        var names = Arrays.stream(context.getSetting(CONSTRAINTS_SETTING, "").split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        if (names.isEmpty()) {
+            throw new EdcException(format("Missing setting %s", CONSTRAINTS_SETTING));
+        }
+        return names.stream()
+                .map(name -> constraint(context, name, clock))
+                .collect(Collectors.toList());
+    }
+
+    private static ClaimConstraint constraint(ServiceExtensionContext context, String name, Clock clock) {
+        var path = requiredSetting(context, name, "path");
+        var operatorName = requiredSetting(context, name, "operator");
+        var value = requiredSetting(context, name, "value");
+        var credentialType = context.getSetting(CONSTRAINT_SETTING_PREFIX + name + ".credential-type", null);
+        try {
+            var operator = Operator.valueOf(operatorName.trim().toUpperCase(Locale.ROOT));
+            Object rightOperand = operator == IN ? Arrays.stream(value.split(",")).map(String::trim).collect(Collectors.toList()) : value;
+            var predicate = ClaimPredicates.of(operator, rightOperand, clock);
+            if (operator == EQ || operator == NEQ || operator == IN) {
+                predicate = comparedAsString(predicate);
+            }
+            return new ClaimConstraint(name, credentialType, ClaimPath.parse(path.trim()), predicate);
+        } catch (IllegalArgumentException e) {
+            throw new EdcException(format("Invalid claim constraint %s: %s", name, e.getMessage()), e);
+        }
+    }
+
+    private static Predicate<Object> comparedAsString(Predicate<Object> predicate) {
+        return value -> predicate.test(value instanceof Number || value instanceof Boolean ? value.toString() : value);
+    }
+
+    private static String requiredSetting(ServiceExtensionContext context, String name, String property) {
+        var key = CONSTRAINT_SETTING_PREFIX + name + "." + property;
+        var value = context.getSetting(key, null);
+        if (value == null) {
+            throw new EdcException(format("Missing setting %s", key));
+        }
+        return value;
+    }
+}
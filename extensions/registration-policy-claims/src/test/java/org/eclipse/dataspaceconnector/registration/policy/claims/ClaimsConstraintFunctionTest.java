@@ -0,0 +1,105 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.policy.claims;
+
+import com.github.javafaker.Faker;
+import org.eclipse.dataspaceconnector.registration.authority.policy.ClaimPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClaimsConstraintFunctionTest {
+    static final Faker FAKER = new Faker();
+
+    ClaimConstraint member = constraint("member", "GaiaXMembership", "vc.credentialSubject.gaiaXMember", "true"::equals);
+    ClaimConstraint country = constraint("country", null, "vc.credentialSubject.country", "FR"::equals);
+    ClaimsConstraintFunction function = new ClaimsConstraintFunction(List.of(member, country));
+
+    @Test
+    void evaluate_allConstraintsSatisfied() {
+        var claims = Map.<String, Object>of(
+                id(), credential(List.of("VerifiableCredential", "GaiaXMembership"), Map.of("gaiaXMember", "true")),
+                id(), credential("AddressCredential", Map.of("country", "FR")));
+
+        assertThat(function.evaluate(claims)).isTrue();
+    }
+
+    @Test
+    void evaluate_allConstraintsSatisfiedBySameCredential() {
+        var claims = Map.<String, Object>of(
+                id(), credential("GaiaXMembership", Map.of("gaiaXMember", "true", "country", "FR")));
+
+        assertThat(function.evaluate(claims)).isTrue();
+    }
+
+    @Test
+    void evaluate_constraintNotSatisfied() {
+        var claims = Map.<String, Object>of(
+                id(), credential("GaiaXMembership", Map.of("gaiaXMember", "false")),
+                id(), credential("AddressCredential", Map.of("country", "FR")));
+
+        assertThat(function.evaluate(claims)).isFalse();
+    }
+
+    @Test
+    void evaluate_onlyChecksCredentialsOfConstraintType() {
+        var claims = Map.<String, Object>of(
+                id(), credential("OtherCredential", Map.of("gaiaXMember", "true", "country", "FR")));
+
+        assertThat(function.evaluate(claims)).isFalse();
+    }
+
+    @Test
+    void evaluate_ignoresMalformedClaims() {
+        var claims = Map.<String, Object>of(
+                id(), new Object(),
+                id(), Map.of("vc", "GaiaXMembership"),
+                id(), Map.of("vc", Map.of("type", Map.of())),
+                id(), credential("GaiaXMembership", Map.of("gaiaXMember", "true", "country", "FR")));
+
+        assertThat(function.evaluate(claims)).isTrue();
+        assertThat(function.evaluate(Map.of())).isFalse();
+    }
+
+    @Test
+    void evaluate_stopsWhenAllConstraintsSatisfied() {
+        var tested = new ArrayList<>();
+        var function = new ClaimsConstraintFunction(List.of(constraint("any", null, "vc.id", tested::add)));
+        var claims = Map.<String, Object>of(
+                id(), Map.of("vc", Map.of("id", id())),
+                id(), Map.of("vc", Map.of("id", id())));
+
+        assertThat(function.evaluate(claims)).isTrue();
+        assertThat(tested).hasSize(1);
+    }
+
+    private static ClaimConstraint constraint(String name, String credentialType, String path, Predicate<Object> predicate) {
+        return new ClaimConstraint(name, credentialType, ClaimPath.parse(path), predicate);
+    }
+
+    private static Map<String, Object> credential(Object type, Map<String, Object> subject) {
+        return Map.of("vc", Map.of("type", type, "credentialSubject", subject));
+    }
+
+    private static String id() {
+        return FAKER.internet().uuid();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.policy.claims;
+
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.eclipse.dataspaceconnector.registration.policy.claims.ClaimsDataspaceRegistrationPolicyExtension.CONSTRAINTS_SETTING;
+import static org.eclipse.dataspaceconnector.registration.policy.claims.ClaimsDataspaceRegistrationPolicyExtension.CONSTRAINT_SETTING_PREFIX;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClaimsDataspaceRegistrationPolicyExtensionTest {
+    static final Instant NOW = Instant.parse("2023-01-31T12:00:00Z");
+
+    Map<String, String> settings = new HashMap<>();
+    ServiceExtensionContext context = mock(ServiceExtensionContext.class);
+    Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @BeforeEach
+    void setUp() {
+        when(context.getSetting(anyString(), nullable(String.class))).thenAnswer(i -> settings.getOrDefault(i.getArgument(0), i.getArgument(1)));
+    }
+
+    @Test
+    void constraints() {
+        settings.put(CONSTRAINTS_SETTING, "member, level");
+        constraint("member", "vc.expirationDate", "GT", "now");
+        settings.put(CONSTRAINT_SETTING_PREFIX + "member.credential-type", "GaiaXMembership");
+        constraint("level", "vc.credentialSubject.level", "in", "gold, silver");
+
+        var constraints = ClaimsDataspaceRegistrationPolicyExtension.constraints(context, clock);
+
+        assertThat(constraints).extracting(ClaimConstraint::getName).containsExactly("member", "level");
+        assertThat(constraints).extracting(ClaimConstraint::getCredentialType).containsExactly("GaiaXMembership", null);
+        var member = constraints.get(0);
+        assertThat(member.test(Map.of("vc", Map.of("expirationDate", "2023-02-01T00:00:00Z")))).isTrue();
+        assertThat(member.test(Map.of("vc", Map.of("expirationDate", "2023-01-01T00:00:00Z")))).isFalse();
+        var level = constraints.get(1);
+        assertThat(level.test(Map.of("vc", Map.of("credentialSubject", Map.of("level", "silver"))))).isTrue();
+        assertThat(level.test(Map.of("vc", Map.of("credentialSubject", Map.of("level", "bronze"))))).isFalse();
+    }
+
+    @Test
+    void constraints_comparesScalarsAsStrings() {
+        settings.put(CONSTRAINTS_SETTING, "member");
+        constraint("member", "vc.credentialSubject.gaiaXMember", "EQ", "true");
+
+        var member = ClaimsDataspaceRegistrationPolicyExtension.constraints(context, clock).get(0);
+
+        assertThat(member.test(Map.of("vc", Map.of("credentialSubject", Map.of("gaiaXMember", true))))).isTrue();
+        assertThat(member.test(Map.of("vc", Map.of("credentialSubject", Map.of("gaiaXMember", "true"))))).isTrue();
+        assertThat(member.test(Map.of("vc", Map.of("credentialSubject", Map.of("gaiaXMember", List.of(true)))))).isFalse();
+    }
+
+    @Test
+    void constraints_missing() {
+        assertThatExceptionOfType(EdcException.class)
+                .isThrownBy(() -> ClaimsDataspaceRegistrationPolicyExtension.constraints(context, clock))
+                .withMessageContaining(CONSTRAINTS_SETTING);
+    }
+
+    @Test
+    void constraints_missingProperty() {
+        settings.put(CONSTRAINTS_SETTING, "member");
+        settings.put(CONSTRAINT_SETTING_PREFIX + "member.path", "vc.credentialSubject.gaiaXMember");
+        settings.put(CONSTRAINT_SETTING_PREFIX + "member.operator", "EQ");
+
+        assertThatExceptionOfType(EdcException.class)
+                .isThrownBy(() -> ClaimsDataspaceRegistrationPolicyExtension.constraints(context, clock))
+                .withMessageContaining(CONSTRAINT_SETTING_PREFIX + "member.value");
+    }
+
+    @Test
+    void constraints_invalid() {
+        settings.put(CONSTRAINTS_SETTING, "path,operator,value");
+        constraint("path", "vc..credentialSubject", "EQ", "true");
+        constraint("operator", "vc.credentialSubject.gaiaXMember", "LIKE", "true");
+        constraint("value", "vc.expirationDate", "LT", "tomorrow");
+
+        for (var name : List.of("path", "operator", "value")) {
+            settings.put(CONSTRAINTS_SETTING, name);
+            assertThatExceptionOfType(EdcException.class)
+                    .isThrownBy(() -> ClaimsDataspaceRegistrationPolicyExtension.constraints(context, clock))
+                    .withMessageContaining("Invalid claim constraint " + name);
+        }
+    }
+
+    private void constraint(String name, String path, String operator, String value) {
+        settings.put(CONSTRAINT_SETTING_PREFIX + name + ".path", path);
+        settings.put(CONSTRAINT_SETTING_PREFIX + name + ".operator", operator);
+        settings.put(CONSTRAINT_SETTING_PREFIX + name + ".value", value);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.policy;
+
+import org.eclipse.dataspaceconnector.policy.model.Operator;
+import org.eclipse.dataspaceconnector.policy.model.Permission;
+import org.eclipse.dataspaceconnector.registration.authority.policy.ClaimPath;
+import org.eclipse.dataspaceconnector.registration.authority.policy.ClaimPredicates;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.eclipse.dataspaceconnector.spi.policy.AtomicConstraintFunction;
+import org.eclipse.dataspaceconnector.spi.policy.PolicyContext;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static java.lang.String.format;
+
+/**
+ * Evaluation function for the "gaiaXMember" constraint, checking the {@code credentialSubject} of the verifiable
+ * credentials held by a participant.
+ * <p>
+ * Credentials are inspected in no particular order, until one satisfies the constraint. Credentials that do not have
+ * the expected structure are ignored.
+ */
+public class GaiaxMemberConstraintFunction implements AtomicConstraintFunction<Permission> {
+    static final String CREDENTIAL_NAME = "gaiaXMember";
+
+    private static final ClaimPath CREDENTIAL_PATH = ClaimPath.parse("vc.credentialSubject." + CREDENTIAL_NAME);
+
+    private final Monitor monitor;
+
+    public GaiaxMemberConstraintFunction(Monitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public boolean evaluate(Operator operator, Object rightOperand, Permission rule, PolicyContext context) {
+        return evaluate(operator, rightOperand, context.getParticipantAgent().getClaims());
+    }
+
+    /**
+     * Evaluates the constraint against the claims of a participant.
+     *
+     * @param operator     the constraint operator.
+     * @param rightOperand the expected value of the credential.
+     * @param claims       the verifiable credentials of the participant, by credential ID.
+     * @return {@code true} if a credential satisfies the constraint.
+     */
+    public boolean evaluate(Operator operator, Object rightOperand, Map<String, Object> claims) {
+        Predicate<Object> predicate;
+        try {
+            predicate = ClaimPredicates.of(operator, rightOperand);
+        } catch (IllegalArgumentException e) {
+            monitor.warning(format("Invalid %s constraint: %s", CREDENTIAL_NAME, e.getMessage()));
+            return false;
+        }
+        for (var claim : claims.values()) {
+            if (CREDENTIAL_PATH.anyMatch(claim, predicate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -13,6 +13,9 @@ val assertj: String by project
 val mockitoVersion: String by project
 val faker: String by project
 val openTelemetryVersion: String by project
+val awaitility: String by project
+val caffeineVersion: String by project
+val micrometerVersion: String by project
 
 dependencies {
     implementation("${edcGroup}:http:${edcVersion}")
@@ -23,7 +26,10 @@ dependencies {
     implementation("io.opentelemetry:opentelemetry-extension-annotations:${openTelemetryVersion}")
 
     implementation(project(":extensions:participant-store-spi"))
+    implementation(project(":extensions:participant-store-memory"))
     implementation("com.squareup.okhttp3:okhttp:${okHttpVersion}")
+    implementation("com.github.ben-manes.caffeine:caffeine:${caffeineVersion}")
+    implementation("io.micrometer:micrometer-core:${micrometerVersion}")
 
     testImplementation("org.assertj:assertj-core:${assertj}")
     testImplementation("org.junit.jupiter:junit-jupiter-api:${jupiterVersion}")
@@ -31,6 +37,7 @@ dependencies {
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:${jupiterVersion}")
     testImplementation("org.mockito:mockito-core:${mockitoVersion}")
     testImplementation("com.github.javafaker:javafaker:${faker}")
+    testImplementation("org.awaitility:awaitility:${awaitility}")
     testImplementation(testFixtures(project(":extensions:dataspace-authority-spi")))
     testImplementation(testFixtures(project(":rest-client")))
 }
@@ -14,6 +14,7 @@
 
 package org.eclipse.dataspaceconnector.registration;
 
+import io.micrometer.core.instrument.Metrics;
 import okhttp3.OkHttpClient;
 import org.eclipse.dataspaceconnector.api.transformer.DtoTransformerRegistry;
 import org.eclipse.dataspaceconnector.extension.jersey.mapper.EdcApiExceptionMapper;
@@ -23,9 +24,14 @@ import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidPublicKeyResolve
 import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidResolverRegistry;
 import org.eclipse.dataspaceconnector.identityhub.client.IdentityHubClientImpl;
 import org.eclipse.dataspaceconnector.identityhub.credentials.VerifiableCredentialsJwtServiceImpl;
+import org.eclipse.dataspaceconnector.registration.api.ParticipantStatusWatcher;
 import org.eclipse.dataspaceconnector.registration.api.RegistrationApiController;
 import org.eclipse.dataspaceconnector.registration.api.RegistrationService;
+import org.eclipse.dataspaceconnector.registration.auth.CachingDidPublicKeyResolver;
 import org.eclipse.dataspaceconnector.registration.auth.DidJwtAuthenticationFilter;
+import org.eclipse.dataspaceconnector.registration.auth.VerifiedTokenCache;
+import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
+import org.eclipse.dataspaceconnector.registration.authority.spi.ParticipantListener;
 import org.eclipse.dataspaceconnector.registration.authority.spi.ParticipantVerifier;
 import org.eclipse.dataspaceconnector.registration.credential.VerifiableCredentialService;
 import org.eclipse.dataspaceconnector.registration.credential.VerifiableCredentialServiceImpl;
@@ -46,10 +52,19 @@ import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
 import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
 import org.eclipse.dataspaceconnector.spi.telemetry.Telemetry;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 import static org.eclipse.dataspaceconnector.iam.did.spi.document.DidConstants.DID_URL_SETTING;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZED;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZING;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDING_INITIATED;
 
 /**
  * EDC extension to boot the services used by the Authority Service.
@@ -63,6 +78,41 @@ public class AuthorityExtension implements ServiceExtension {
     private static final String JWT_AUDIENCE_SETTING = "jwt.audience";
     @EdcSetting
     public static final String ERROR_RESPONSE_VERBOSE_SETTING = "edc.error.response.verbose";
+    @EdcSetting(type = "integer", value = "Maximum number of participants processed per state in one state machine iteration. "
+            + "Can be overridden for a single state by appending the state name, e.g. 'registration.service.state-machine.batch-size.authorizing'")
+    public static final String STATE_MACHINE_BATCH_SIZE_SETTING = "registration.service.state-machine.batch-size";
+    @EdcSetting(type = "integer", value = "Time in seconds after which a participant claimed by a state machine can be claimed by another one, if its lease was not released")
+    public static final String STATE_MACHINE_LEASE_DURATION_SETTING = "registration.service.state-machine.lease-duration";
+    @EdcSetting(type = "integer", value = "Number of workers processing participants of a state concurrently, 0 to process them on the state machine thread. "
+            + "Can be overridden for a single state by appending the state name, e.g. 'registration.service.state-machine.workers.authorizing'")
+    public static final String STATE_MACHINE_WORKERS_SETTING = "registration.service.state-machine.workers";
+    @EdcSetting(type = "boolean", value = "Whether workers run on virtual threads, in which case the number of workers only caps concurrency. Requires a runtime supporting virtual threads")
+    public static final String STATE_MACHINE_VIRTUAL_THREADS_SETTING = "registration.service.state-machine.virtual-threads";
+    @EdcSetting(type = "integer", value = "Number of times processing a participant is retried after a transient failure, before it transitions to FAILED")
+    public static final String STATE_MACHINE_MAX_RETRIES_SETTING = "registration.service.state-machine.max-retries";
+    @EdcSetting(type = "integer", value = "Delay in milliseconds before the first retry of a participant, doubled with each retry")
+    public static final String STATE_MACHINE_RETRY_BASE_DELAY_SETTING = "registration.service.state-machine.retry-base-delay";
+    @EdcSetting(type = "integer", value = "Maximum delay in milliseconds before retrying a participant")
+    public static final String STATE_MACHINE_RETRY_MAX_DELAY_SETTING = "registration.service.state-machine.retry-max-delay";
+    @EdcSetting(type = "integer", value = "Maximum time in milliseconds the state machine waits when idle, unless woken up by a new participant")
+    public static final String STATE_MACHINE_MAX_IDLE_WAIT_SETTING = "registration.service.state-machine.max-idle-wait";
+    @EdcSetting(type = "integer", value = "Time in seconds during which the public key of a caller DID is cached")
+    public static final String PUBLIC_KEY_CACHE_TTL_SETTING = "registration.service.auth.public-key-cache.ttl";
+    public static final long DEFAULT_PUBLIC_KEY_CACHE_TTL = 300;
+    @EdcSetting(type = "integer", value = "Maximum number of caller DIDs whose public key is cached")
+    public static final String PUBLIC_KEY_CACHE_MAXIMUM_SIZE_SETTING = "registration.service.auth.public-key-cache.maximum-size";
+    public static final long DEFAULT_PUBLIC_KEY_CACHE_MAXIMUM_SIZE = 10_000;
+    @EdcSetting(type = "integer", value = "Minimum time in seconds between two refreshes of the public key of a caller DID, when a token signature cannot be verified")
+    public static final String PUBLIC_KEY_CACHE_MIN_REFRESH_INTERVAL_SETTING = "registration.service.auth.public-key-cache.min-refresh-interval";
+    public static final long DEFAULT_PUBLIC_KEY_CACHE_MIN_REFRESH_INTERVAL = 10;
+    @EdcSetting(type = "integer", value = "Maximum time in seconds during which a verified token is cached, if it does not expire earlier")
+    public static final String TOKEN_CACHE_MAX_TTL_SETTING = "registration.service.auth.token-cache.max-ttl";
+    public static final long DEFAULT_TOKEN_CACHE_MAX_TTL = 300;
+    @EdcSetting(type = "integer", value = "Maximum number of cached verified tokens, 0 to disable the cache")
+    public static final String TOKEN_CACHE_MAXIMUM_SIZE_SETTING = "registration.service.auth.token-cache.maximum-size";
+    public static final long DEFAULT_TOKEN_CACHE_MAXIMUM_SIZE = 10_000;
+    @EdcSetting(value = "Comma-separated DIDs of the dataspace operators, which are allowed to import participants in bulk")
+    public static final String OPERATOR_DIDS_SETTING = "registration.service.operator-dids";
 
     @Inject
     private DidPublicKeyResolver didPublicKeyResolver;
@@ -104,14 +154,31 @@ public class AuthorityExtension implements ServiceExtension {
         var audience = Objects.requireNonNull(context.getSetting(JWT_AUDIENCE_SETTING, null),
                 () -> format("Missing setting %s", JWT_AUDIENCE_SETTING));
         var errorResponseVerbose = context.getSetting(ERROR_RESPONSE_VERBOSE_SETTING, false);
-        var authenticationService = new DidJwtAuthenticationFilter(monitor, didPublicKeyResolver, audience);
+        var publicKeyResolver = new CachingDidPublicKeyResolver(didPublicKeyResolver,
+                Duration.ofSeconds(context.getSetting(PUBLIC_KEY_CACHE_TTL_SETTING, DEFAULT_PUBLIC_KEY_CACHE_TTL)),
+                context.getSetting(PUBLIC_KEY_CACHE_MAXIMUM_SIZE_SETTING, DEFAULT_PUBLIC_KEY_CACHE_MAXIMUM_SIZE),
+                Duration.ofSeconds(context.getSetting(PUBLIC_KEY_CACHE_MIN_REFRESH_INTERVAL_SETTING, DEFAULT_PUBLIC_KEY_CACHE_MIN_REFRESH_INTERVAL)),
+                Metrics.globalRegistry);
+        var verifiedTokens = new VerifiedTokenCache(
+                Duration.ofSeconds(context.getSetting(TOKEN_CACHE_MAX_TTL_SETTING, DEFAULT_TOKEN_CACHE_MAX_TTL)),
+                context.getSetting(TOKEN_CACHE_MAXIMUM_SIZE_SETTING, DEFAULT_TOKEN_CACHE_MAXIMUM_SIZE),
+                Clock.systemUTC(),
+                Metrics.globalRegistry);
+        var authenticationService = new DidJwtAuthenticationFilter(monitor, publicKeyResolver, verifiedTokens, audience);
         var verifiableCredentialService = verifiableCredentialService(context);
 
-        participantManager = new ParticipantManager(monitor, participantStore, participantVerifier, executorInstrumentation, verifiableCredentialService, telemetry);
+        var statusWatcher = new ParticipantStatusWatcher();
+
+        participantManager = participantManager(context, verifiableCredentialService, statusWatcher);
         transformerRegistry.register(new ParticipantToParticipantDtoTransformer());
 
-        var registrationService = new RegistrationService(monitor, participantStore, transformerRegistry, telemetry);
-        webService.registerResource(CONTEXT_ALIAS, new RegistrationApiController(registrationService));
+        var operatorDids = Arrays.stream(context.getSetting(OPERATOR_DIDS_SETTING, "").split(","))
+                .map(String::trim)
+                .filter(did -> !did.isEmpty())
+                .collect(Collectors.toSet());
+        var registrationService = new RegistrationService(monitor, participantStore, transformerRegistry, telemetry, statusWatcher, operatorDids);
+        registrationService.registerListener(participantManager);
+        webService.registerResource(CONTEXT_ALIAS, new RegistrationApiController(registrationService, context.getTypeManager().getMapper()));
 
         webService.registerResource(CONTEXT_ALIAS, authenticationService);
         webService.registerResource(CONTEXT_ALIAS, new EdcApiExceptionMapper(errorResponseVerbose));
@@ -132,6 +199,40 @@ public class AuthorityExtension implements ServiceExtension {
         return new InMemoryParticipantStore();
     }
 
+    private ParticipantManager participantManager(ServiceExtensionContext context, VerifiableCredentialService verifiableCredentialService,
+                                                  ParticipantListener statusListener) {
+        var builder = ParticipantManager.Builder.newInstance()
+                .monitor(monitor)
+                .participantStore(participantStore)
+                .participantVerifier(participantVerifier)
+                .executorInstrumentation(executorInstrumentation)
+                .verifiableCredentialService(verifiableCredentialService)
+                .telemetry(telemetry)
+                .listener(statusListener)
+                .leaseDuration(Duration.ofSeconds(context.getSetting(STATE_MACHINE_LEASE_DURATION_SETTING, ParticipantManager.DEFAULT_LEASE_DURATION.toSeconds())))
+                .maxRetries(context.getSetting(STATE_MACHINE_MAX_RETRIES_SETTING, ParticipantManager.DEFAULT_MAX_RETRIES))
+                .retryDelay(Duration.ofMillis(context.getSetting(STATE_MACHINE_RETRY_BASE_DELAY_SETTING, ParticipantManager.DEFAULT_RETRY_BASE_DELAY.toMillis())),
+                        Duration.ofMillis(context.getSetting(STATE_MACHINE_RETRY_MAX_DELAY_SETTING, ParticipantManager.DEFAULT_RETRY_MAX_DELAY.toMillis())))
+                .virtualThreads(context.getSetting(STATE_MACHINE_VIRTUAL_THREADS_SETTING, false))
+                .maxIdleWait(Duration.ofMillis(context.getSetting(STATE_MACHINE_MAX_IDLE_WAIT_SETTING, ParticipantManager.DEFAULT_MAX_IDLE_WAIT.toMillis())));
+
+        var defaultBatchSize = context.getSetting(STATE_MACHINE_BATCH_SIZE_SETTING, ParticipantManager.DEFAULT_BATCH_SIZE);
+        var defaultWorkers = context.getSetting(STATE_MACHINE_WORKERS_SETTING, null);
+        for (var status : List.of(ONBOARDING_INITIATED, AUTHORIZING, AUTHORIZED)) {
+            builder.batchSize(status, context.getSetting(stateSettingKey(STATE_MACHINE_BATCH_SIZE_SETTING, status), defaultBatchSize));
+
+            var workers = context.getSetting(stateSettingKey(STATE_MACHINE_WORKERS_SETTING, status), defaultWorkers);
+            if (workers != null) {
+                builder.workers(status, Integer.parseInt(workers));
+            }
+        }
+        return builder.build();
+    }
+
+    private static String stateSettingKey(String setting, ParticipantStatus status) {
+        return setting + "." + status.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
     private VerifiableCredentialService verifiableCredentialService(ServiceExtensionContext context) {
         var didUrl = context.getSetting(DID_URL_SETTING, null);
         if (didUrl == null) {
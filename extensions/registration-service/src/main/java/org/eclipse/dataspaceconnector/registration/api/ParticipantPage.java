@@ -0,0 +1,59 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.api;
+
+import org.eclipse.dataspaceconnector.registration.model.ParticipantDto;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Page of dataspace participants, with the token to request the next page.
+ */
+public class ParticipantPage {
+    private final List<ParticipantDto> participants;
+    private final String continuationToken;
+    private final String version;
+
+    public ParticipantPage(List<ParticipantDto> participants, @Nullable String continuationToken, String version) {
+        this.participants = participants;
+        this.continuationToken = continuationToken;
+        this.version = version;
+    }
+
+    public List<ParticipantDto> getParticipants() {
+        return participants;
+    }
+
+    /**
+     * Returns the opaque token to pass to request the next page.
+     *
+     * @return the continuation token, or {@code null} if this is the last page.
+     */
+    @Nullable
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    /**
+     * Returns an opaque version of the page, which changes whenever a participant on the page is saved, or the page
+     * contains other participants.
+     *
+     * @return the version of the page.
+     */
+    public String getVersion() {
+        return version;
+    }
+}
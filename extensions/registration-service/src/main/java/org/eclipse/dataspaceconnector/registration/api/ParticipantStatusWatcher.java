@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.api;
+
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.authority.spi.ParticipantListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Lets callers wait for the status of a participant to change, without polling the store.
+ * <p>
+ * Only status changes this watcher is {@link #statusChanged notified} of are observed, i.e. changes made by the local
+ * participant manager. Callers should therefore wait with a timeout, and read the participant from the store again
+ * once it expires.
+ */
+public class ParticipantStatusWatcher implements ParticipantListener {
+
+    private final Map<String, Set<Watch>> watches = new ConcurrentHashMap<>();
+
+    /**
+     * Waits for the next status change of a participant that matches a condition.
+     * <p>
+     * The returned future must be completed or cancelled by the caller if it is no longer needed, e.g. on timeout, so
+     * that the watch is removed.
+     *
+     * @param did       the DID of the participant.
+     * @param condition the condition the participant must match after the status change.
+     * @return future completed with the participant once its status changed and matches {@code condition}.
+     */
+    public CompletableFuture<Participant> watch(String did, Predicate<Participant> condition) {
+        var watch = new Watch(condition);
+        watches.compute(did, (key, set) -> {
+            var result = set == null ? ConcurrentHashMap.<Watch>newKeySet() : set;
+            result.add(watch);
+            return result;
+        });
+        watch.future.whenComplete((participant, throwable) -> watches.computeIfPresent(did, (key, set) -> {
+            set.remove(watch);
+            return set.isEmpty() ? null : set;
+        }));
+        return watch.future;
+    }
+
+    @Override
+    public void statusChanged(Participant participant) {
+        var set = watches.get(participant.getDid());
+        if (set == null) {
+            return;
+        }
+        for (var watch : set) {
+            if (watch.condition.test(participant)) {
+                watch.future.complete(participant);
+            }
+        }
+    }
+
+    int watchCount() {
+        return watches.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private static final class Watch {
+        private final Predicate<Participant> condition;
+        private final CompletableFuture<Participant> future = new CompletableFuture<>();
+
+        private Watch(Predicate<Participant> condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -14,25 +14,52 @@
 
 package org.eclipse.dataspaceconnector.registration.api;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.CacheControl;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.dataspaceconnector.registration.model.ParticipantDto;
+import org.eclipse.dataspaceconnector.registration.model.ParticipantImportResultDto;
+import org.eclipse.dataspaceconnector.registration.model.ParticipantStatusDto;
+import org.eclipse.dataspaceconnector.spi.exception.InvalidRequestException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletionException;
 
+import static java.lang.String.format;
+import static org.eclipse.dataspaceconnector.registration.api.RegistrationService.DEFAULT_PAGE_SIZE;
+import static org.eclipse.dataspaceconnector.registration.api.RegistrationService.DEFAULT_STATUS_CHANGE_TIMEOUT_SECONDS;
+import static org.eclipse.dataspaceconnector.registration.api.RegistrationService.MAX_PAGE_SIZE;
+import static org.eclipse.dataspaceconnector.registration.api.RegistrationService.MAX_STATUS_CHANGE_TIMEOUT_SECONDS;
 import static org.eclipse.dataspaceconnector.registration.auth.DidJwtAuthenticationFilter.CALLER_DID_HEADER;
 
 
@@ -45,15 +72,22 @@ import static org.eclipse.dataspaceconnector.registration.auth.DidJwtAuthenticat
 @Path("/registry")
 public class RegistrationApiController {
 
+    public static final String CONTINUATION_TOKEN_HEADER = "Continuation-Token";
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     private final RegistrationService service;
+    private final ObjectMapper mapper;
 
     /**
      * Constructs an instance of {@link RegistrationApiController}
      *
      * @param service service handling the registration service logic.
+     * @param mapper  mapper used to serialize streamed participants.
      */
-    public RegistrationApiController(RegistrationService service) {
+    public RegistrationApiController(RegistrationService service, ObjectMapper mapper) {
         this.service = service;
+        this.mapper = mapper;
     }
 
     @GET
@@ -63,6 +97,43 @@ public class RegistrationApiController {
             @ApiResponse(
                     responseCode = "200",
                     description = "Dataspace participant.",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ParticipantDto.class)
+                            )
+                    },
+                    headers = {
+                            @Header(
+                                    name = HttpHeaders.ETAG,
+                                    description = "Version of the participant, to pass in If-None-Match to only get the participant if it changed.",
+                                    schema = @Schema(type = "string")
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Dataspace participant not modified since the version in If-None-Match."
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Dataspace participant not found."
+            )
+    })
+    public Response getParticipant(@Context HttpHeaders headers, @Context Request request) {
+        var issuer = Objects.requireNonNull(headers.getHeaderString(CALLER_DID_HEADER));
+
+        var participant = service.findByDid(issuer);
+        return conditionalResponse(request, new EntityTag(service.participantVersion(participant)), participant).build();
+    }
+
+    @GET
+    @Path("/participant/status-change")
+    @Operation(description = "Waits for the status of the participant with the caller DID to change, and gets the participant.")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Dataspace participant, in a status other than currentStatus, or in currentStatus if the timeout expired.",
                     content = {
                             @Content(
                                     mediaType = "application/json",
@@ -70,38 +141,150 @@ public class RegistrationApiController {
                             )
                     }
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid timeout."
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Dataspace participant not found."
             )
     })
-    public ParticipantDto getParticipant(@Context HttpHeaders headers) {
+    public void awaitParticipantStatusChange(
+            @Context HttpHeaders headers,
+            @Parameter(description = "Status known to the caller. If absent, waits for the next status change.")
+            @QueryParam("currentStatus") ParticipantStatusDto currentStatus,
+            @Parameter(description = "Maximum time to wait, in seconds.", schema = @Schema(minimum = "0", maximum = "" + MAX_STATUS_CHANGE_TIMEOUT_SECONDS, defaultValue = "" + DEFAULT_STATUS_CHANGE_TIMEOUT_SECONDS))
+            @QueryParam("timeout") @DefaultValue("" + DEFAULT_STATUS_CHANGE_TIMEOUT_SECONDS) int timeout,
+            @Suspended AsyncResponse response) {
         var issuer = Objects.requireNonNull(headers.getHeaderString(CALLER_DID_HEADER));
 
-        return service.findByDid(issuer);
+        service.awaitStatusChange(issuer, currentStatus, Duration.ofSeconds(timeout))
+                .whenComplete((participant, throwable) -> {
+                    if (throwable != null) {
+                        response.resume(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+                    } else {
+                        response.resume(participant);
+                    }
+                });
     }
 
     @Path("/participants")
     @GET
-    @Operation(description = "Gets all dataspace participants.")
+    @Operation(description = "Gets a page of dataspace participants, ordered by DID.")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Dataspace participants.",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = ParticipantDto.class))
+                            )
+                    },
+                    headers = {
+                            @Header(
+                                    name = CONTINUATION_TOKEN_HEADER,
+                                    description = "Token to pass as continuationToken to get the next page. Absent on the last page.",
+                                    schema = @Schema(type = "string")
+                            ),
+                            @Header(
+                                    name = HttpHeaders.ETAG,
+                                    description = "Version of the page, to pass in If-None-Match to only get the page if it changed.",
+                                    schema = @Schema(type = "string")
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Page not modified since the version in If-None-Match."
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid limit or continuation token."
+            )
+    })
+    public Response listParticipants(
+            @Context Request request,
+            @Parameter(description = "Only list participants with this status.")
+            @QueryParam("status") ParticipantStatusDto status,
+            @Parameter(description = "Continuation token returned with the previous page.")
+            @QueryParam("continuationToken") String continuationToken,
+            @Parameter(description = "Maximum number of participants to return.", schema = @Schema(minimum = "1", maximum = "" + MAX_PAGE_SIZE, defaultValue = "" + DEFAULT_PAGE_SIZE))
+            @QueryParam("limit") @DefaultValue("" + DEFAULT_PAGE_SIZE) int limit) {
+        var page = service.listParticipants(status, continuationToken, limit);
+
+        var response = conditionalResponse(request, new EntityTag(page.getVersion()), page.getParticipants());
+        if (page.getContinuationToken() != null) {
+            response.header(CONTINUATION_TOKEN_HEADER, page.getContinuationToken());
+        }
+        return response.build();
+    }
+
+    @Path("/participants/changes")
+    @GET
+    @Operation(description = "Gets the dataspace participants that changed since a given change, ordered by sequence number.")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Changed dataspace participants. Pass the sequence number of the last one as 'since' to get later changes.",
                     content = {
                             @Content(
                                     mediaType = "application/json",
                                     array = @ArraySchema(schema = @Schema(implementation = ParticipantDto.class))
                             )
                     }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid sequence number or limit."
+            )
+    })
+    public List<ParticipantDto> listParticipantChanges(
+            @Parameter(description = "Sequence number of the last change known to the caller, 0 to get all participants.")
+            @QueryParam("since") @DefaultValue("0") long since,
+            @Parameter(description = "Maximum number of participants to return.", schema = @Schema(minimum = "1", maximum = "" + MAX_PAGE_SIZE, defaultValue = "" + DEFAULT_PAGE_SIZE))
+            @QueryParam("limit") @DefaultValue("" + DEFAULT_PAGE_SIZE) int limit) {
+        return service.listChanges(since, limit);
+    }
+
+    @Path("/participants/export")
+    @GET
+    @Produces({ NDJSON_MEDIA_TYPE })
+    @Operation(description = "Streams all dataspace participants, ordered by DID, as newline-delimited JSON.")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Dataspace participants, one JSON object per line.",
+                    content = {
+                            @Content(
+                                    mediaType = NDJSON_MEDIA_TYPE,
+                                    schema = @Schema(implementation = ParticipantDto.class)
+                            )
+                    }
             )
     })
-    public List<ParticipantDto> listParticipants() {
-        return service.listParticipants();
+    public StreamingOutput exportParticipants(
+            @Parameter(description = "Only export participants with this status.")
+            @QueryParam("status") ParticipantStatusDto status) {
+        return output -> {
+            try (var generator = mapper.getFactory().createGenerator(output)) {
+                var first = true;
+                for (var iterator = service.exportParticipants(status).iterator(); iterator.hasNext(); ) {
+                    generator.writeObject(iterator.next());
+                    generator.writeRaw('\n');
+                    if (first) {
+                        // send the first participant right away, later ones are flushed as the buffer fills up
+                        generator.flush();
+                        first = false;
+                    }
+                }
+            }
+        };
     }
 
     @Path("/participant")
-    @Operation(description = "Asynchronously request to add a dataspace participant.")
+    @Operation(description = "Asynchronously request to add a dataspace participant. Has no effect if the participant was already added.")
     @ApiResponse(responseCode = "204", description = "No content")
     @POST
     public void addParticipant(@Context HttpHeaders headers) {
@@ -109,4 +292,87 @@ public class RegistrationApiController {
 
         service.addParticipant(issuer);
     }
+
+    @Path("/participants/import")
+    @POST
+    @Operation(description = "Adds dataspace participants in bulk. Only allowed for dataspace operators. DIDs can be sent as a JSON array, "
+            + "or as a stream of newline-delimited JSON strings. DIDs already registered, including by a concurrent request, "
+            + "are reported as such and left unchanged.",
+            requestBody = @RequestBody(content = {
+                    @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(type = "string"))),
+                    @Content(mediaType = NDJSON_MEDIA_TYPE, schema = @Schema(type = "string"))
+            }))
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Result of importing each DID, in request order.",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = ParticipantImportResultDto.class))
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed request body. DIDs before the malformed line may have been imported."
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Caller is not a dataspace operator."
+            )
+    })
+    public List<ParticipantImportResultDto> importParticipants(@Context HttpHeaders headers, List<String> dids) {
+        var issuer = Objects.requireNonNull(headers.getHeaderString(CALLER_DID_HEADER));
+        if (dids == null) {
+            throw new InvalidRequestException("Missing DIDs");
+        }
+
+        return service.importParticipants(issuer, dids.iterator());
+    }
+
+    @Path("/participants/import")
+    @POST
+    @Consumes({ NDJSON_MEDIA_TYPE })
+    @Operation(hidden = true)
+    public List<ParticipantImportResultDto> importParticipantsStream(@Context HttpHeaders headers, InputStream body) throws IOException {
+        var issuer = Objects.requireNonNull(headers.getHeaderString(CALLER_DID_HEADER));
+
+        try (MappingIterator<String> dids = mapper.readerFor(String.class).readValues(body)) {
+            return service.importParticipants(issuer, new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    try {
+                        return dids.hasNextValue();
+                    } catch (IOException e) {
+                        throw new InvalidRequestException(format("Malformed DID at line %s", dids.getCurrentLocation().getLineNr()));
+                    }
+                }
+
+                @Override
+                public String next() {
+                    try {
+                        return dids.nextValue();
+                    } catch (IOException e) {
+                        throw new InvalidRequestException(format("Malformed DID at line %s", dids.getCurrentLocation().getLineNr()));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns a 304 (Not Modified) response if the request has an If-None-Match header matching {@code etag}, without
+     * serializing {@code entity}, or a 200 response with {@code entity} otherwise. Responses are only cached privately,
+     * and must be revalidated before being reused.
+     */
+    private static Response.ResponseBuilder conditionalResponse(Request request, EntityTag etag, Object entity) {
+        var cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+
+        var notModified = request.evaluatePreconditions(etag);
+        var response = notModified != null ? notModified : Response.ok(entity);
+        return response.tag(etag).cacheControl(cacheControl);
+    }
 }
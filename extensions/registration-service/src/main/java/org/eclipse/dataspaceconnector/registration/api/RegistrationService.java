@@ -16,35 +16,92 @@ package org.eclipse.dataspaceconnector.registration.api;
 
 import org.eclipse.dataspaceconnector.api.transformer.DtoTransformerRegistry;
 import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
+import org.eclipse.dataspaceconnector.registration.authority.spi.ParticipantListener;
 import org.eclipse.dataspaceconnector.registration.model.ParticipantDto;
+import org.eclipse.dataspaceconnector.registration.model.ParticipantImportResultDto;
+import org.eclipse.dataspaceconnector.registration.model.ParticipantStatusDto;
 import org.eclipse.dataspaceconnector.registration.store.spi.ParticipantStore;
 import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.exception.InvalidRequestException;
+import org.eclipse.dataspaceconnector.spi.exception.NotAuthorizedException;
 import org.eclipse.dataspaceconnector.spi.exception.ObjectNotFoundException;
 import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
-import org.eclipse.dataspaceconnector.spi.result.Result;
 import org.eclipse.dataspaceconnector.spi.telemetry.Telemetry;
+import org.jetbrains.annotations.Nullable;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDING_INITIATED;
+import static org.eclipse.dataspaceconnector.registration.model.ParticipantImportResultDto.Outcome.ALREADY_REGISTERED;
+import static org.eclipse.dataspaceconnector.registration.model.ParticipantImportResultDto.Outcome.INVALID;
+import static org.eclipse.dataspaceconnector.registration.model.ParticipantImportResultDto.Outcome.REGISTERED;
+import static org.eclipse.dataspaceconnector.registration.transform.ParticipantToParticipantDtoTransformer.mapToDtoStatus;
 
 /**
  * Registration service for dataspace participants.
  */
 public class RegistrationService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_STATUS_CHANGE_TIMEOUT_SECONDS = 30;
+    public static final int MAX_STATUS_CHANGE_TIMEOUT_SECONDS = 60;
+    public static final int IMPORT_BATCH_SIZE = MAX_PAGE_SIZE;
+
+    // did:<method>:<method-specific-id>, see https://www.w3.org/TR/did-core/#did-syntax
+    private static final Pattern DID_PATTERN = Pattern.compile("did:[a-z0-9]+:(?:[A-Za-z0-9._:-]|%[0-9A-Fa-f]{2})*(?:[A-Za-z0-9._-]|%[0-9A-Fa-f]{2})");
+
     private final Monitor monitor;
     private final ParticipantStore participantStore;
     private final DtoTransformerRegistry transformerRegistry;
     private final Telemetry telemetry;
+    private final ParticipantStatusWatcher statusWatcher;
+    private final Set<String> operatorDids;
+    private final List<ParticipantListener> listeners = new CopyOnWriteArrayList<>();
 
-    public RegistrationService(Monitor monitor, ParticipantStore participantStore, DtoTransformerRegistry transformerRegistry, Telemetry telemetry) {
+    /**
+     * Constructs an instance of {@link RegistrationService}.
+     *
+     * @param operatorDids the DIDs of the dataspace operators, which are allowed to import participants in bulk.
+     */
+    public RegistrationService(Monitor monitor, ParticipantStore participantStore, DtoTransformerRegistry transformerRegistry, Telemetry telemetry,
+                               ParticipantStatusWatcher statusWatcher, Set<String> operatorDids) {
         this.monitor = monitor;
         this.participantStore = participantStore;
         this.transformerRegistry = transformerRegistry;
         this.telemetry = telemetry;
+        this.statusWatcher = statusWatcher;
+        this.operatorDids = Set.copyOf(operatorDids);
+    }
+
+    /**
+     * Registers a listener to be notified when participants are added.
+     *
+     * @param listener the listener.
+     */
+    public void registerListener(ParticipantListener listener) {
+        listeners.add(listener);
     }
 
     /**
@@ -60,6 +117,128 @@ public class RegistrationService {
         if (participant == null) {
             throw new ObjectNotFoundException(Participant.class, did);
         }
+        return transform(participant);
+    }
+
+    /**
+     * Returns the version of a participant, which changes whenever the participant is saved, e.g. to use as entity tag.
+     * The version includes the epoch of the store's sequence numbers, so that it does not match the version of another
+     * save after the sequence numbers start over.
+     *
+     * @param participant Participant DTO.
+     * @return version of the participant.
+     */
+    public String participantVersion(ParticipantDto participant) {
+        var epoch = participantStore.getSequenceEpoch();
+        return epoch.isEmpty() ? Long.toString(participant.getSequence()) : epoch + "-" + participant.getSequence();
+    }
+
+    /**
+     * Waits for the status of a participant to change.
+     * <p>
+     * The returned future is completed as soon as the participant is in another status than {@code currentStatus}, or
+     * once the timeout expires, with the participant in its status at that time. Only status changes saved by the
+     * participant manager of this service instance complete the future early. A change saved by another instance
+     * sharing the store is only returned once the timeout expires, as the participant is read again from the store then.
+     *
+     * @param did           DID of participant.
+     * @param currentStatus the status known to the caller, or {@code null} to wait for the next status change.
+     * @param timeout       the maximum time to wait, at most {@link #MAX_STATUS_CHANGE_TIMEOUT_SECONDS} seconds.
+     * @return future completed with the participant DTO.
+     */
+    public CompletableFuture<ParticipantDto> awaitStatusChange(String did, @Nullable ParticipantStatusDto currentStatus, Duration timeout) {
+        monitor.info(format("Await status change of participant %s", did));
+
+        if (timeout.isNegative() || timeout.compareTo(Duration.ofSeconds(MAX_STATUS_CHANGE_TIMEOUT_SECONDS)) > 0) {
+            throw new InvalidRequestException(format("Timeout must be between 0 and %s seconds", MAX_STATUS_CHANGE_TIMEOUT_SECONDS));
+        }
+        // the watch is registered before reading the participant, so that a change in between is not missed
+        var fromStatus = new AtomicReference<>(currentStatus);
+        var change = statusWatcher.watch(did, participant -> mapToDtoStatus(participant.getStatus()) != fromStatus.get());
+        var participant = participantStore.findByDid(did);
+        if (participant == null) {
+            change.cancel(false);
+            throw new ObjectNotFoundException(Participant.class, did);
+        }
+        fromStatus.compareAndSet(null, mapToDtoStatus(participant.getStatus()));
+        if (mapToDtoStatus(participant.getStatus()) != fromStatus.get()) {
+            change.cancel(false);
+            return CompletableFuture.completedFuture(transform(participant));
+        }
+        return change.completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(changed -> transform(changed != null ? changed : Objects.requireNonNullElse(participantStore.findByDid(did), participant)));
+    }
+
+    /**
+     * Lists a page of dataspace participants, ordered by DID.
+     *
+     * @param status            the status of the participants to list, or {@code null} to list participants in any status.
+     * @param continuationToken the token returned with the previous page, or {@code null} for the first page.
+     * @param limit             the maximum number of participants to list, between 1 and {@link #MAX_PAGE_SIZE}.
+     * @return page of dataspace participants as DTOs.
+     */
+    public ParticipantPage listParticipants(@Nullable ParticipantStatusDto status, @Nullable String continuationToken, int limit) {
+        monitor.info("List participants of the dataspace.");
+
+        validateLimit(limit);
+        var statuses = toStatuses(status);
+        var afterDid = continuationToken == null ? null : decodeContinuationToken(continuationToken);
+
+        // reads one more participant than requested, to know whether there is a next page
+        var participants = participantStore.listParticipants(statuses, afterDid, limit + 1);
+        var page = participants.size() > limit ? participants.subList(0, limit) : participants;
+        var nextToken = participants.size() > limit ? encodeContinuationToken(page.get(page.size() - 1).getDid()) : null;
+        var version = pageVersion(page);
+
+        var dtos = page.stream()
+                .map(this::toDto)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+        return new ParticipantPage(dtos, nextToken, version);
+    }
+
+    /**
+     * Lists all dataspace participants, ordered by DID. Participants are read from the store in batches of
+     * {@link #MAX_PAGE_SIZE}: the first batch when this method is called, the next ones as the returned stream is
+     * consumed, so that the whole registry is never held in memory.
+     *
+     * @param status the status of the participants to list, or {@code null} to list participants in any status.
+     * @return stream of dataspace participants as DTOs.
+     */
+    public Stream<ParticipantDto> exportParticipants(@Nullable ParticipantStatusDto status) {
+        monitor.info("Export participants of the dataspace.");
+
+        var statuses = toStatuses(status);
+        return Stream.iterate(
+                        participantStore.listParticipants(statuses, null, MAX_PAGE_SIZE),
+                        batch -> !batch.isEmpty(),
+                        batch -> batch.size() < MAX_PAGE_SIZE ? List.of() : participantStore.listParticipants(statuses, batch.get(batch.size() - 1).getDid(), MAX_PAGE_SIZE))
+                .flatMap(List::stream)
+                .map(this::toDto)
+                .flatMap(Optional::stream);
+    }
+
+    /**
+     * Lists the dataspace participants that changed since a given change, ordered by sequence number.
+     *
+     * @param sinceSequence the sequence number of the last change known to the caller, {@code 0} to list all participants.
+     * @param limit         the maximum number of participants to list, between 1 and {@link #MAX_PAGE_SIZE}.
+     * @return changed dataspace participants as DTOs.
+     */
+    public List<ParticipantDto> listChanges(long sinceSequence, int limit) {
+        monitor.info(format("List participants changed since %s.", sinceSequence));
+
+        if (sinceSequence < 0) {
+            throw new InvalidRequestException("Sequence number must not be negative");
+        }
+        validateLimit(limit);
+        return participantStore.listChanges(sinceSequence, limit).stream()
+                .map(this::toDto)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    private ParticipantDto transform(Participant participant) {
         var result = transformerRegistry.transform(participant, ParticipantDto.class);
         if (result.failed()) {
             throw new EdcException(result.getFailureDetail());
@@ -67,23 +246,60 @@ public class RegistrationService {
         return result.getContent();
     }
 
+    private Optional<ParticipantDto> toDto(Participant participant) {
+        var result = transformerRegistry.transform(participant, ParticipantDto.class);
+        return result.succeeded() ? Optional.of(result.getContent()) : Optional.empty();
+    }
+
+    private static void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException(format("Limit must be between 1 and %s", MAX_PAGE_SIZE));
+        }
+    }
+
+    private static Set<ParticipantStatus> toStatuses(@Nullable ParticipantStatusDto status) {
+        if (status == null) {
+            return Set.of();
+        }
+        return Arrays.stream(ParticipantStatus.values())
+                .filter(s -> mapToDtoStatus(s) == status)
+                .collect(Collectors.toSet());
+    }
+
     /**
-     * Lists all dataspace participants.
-     *
-     * @return list of dataspace participants as DTOs.
+     * Hashes the DID and sequence number of each participant on a page: a participant is assigned a new sequence number
+     * whenever it is saved, so the hash changes with any participant on the page. The sequence epoch of the store is
+     * hashed as well, as sequence numbers may start over.
      */
-    public List<ParticipantDto> listParticipants() {
-        monitor.info("List all participants of the dataspace.");
+    private String pageVersion(List<Participant> page) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update((participantStore.getSequenceEpoch() + "\n").getBytes(StandardCharsets.UTF_8));
+            for (var participant : page) {
+                digest.update(participant.getDid().getBytes(StandardCharsets.UTF_8));
+                digest.update((" " + participant.getSequence() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new EdcException(e);
+        }
+    }
 
-        return participantStore.listParticipants().stream()
-                .map(participant -> transformerRegistry.transform(participant, ParticipantDto.class))
-                .filter(Result::succeeded)
-                .map(Result::getContent)
-                .collect(Collectors.toList());
+    private static String encodeContinuationToken(String did) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(did.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeContinuationToken(String continuationToken) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid continuation token");
+        }
     }
 
     /**
-     * Add a participant to a dataspace.
+     * Add a participant to a dataspace. Adding a participant that is already in the dataspace has no effect, so that
+     * retried requests do not restart its onboarding.
      *
      * @param did the DID of the dataspace participant to add.
      */
@@ -96,6 +312,94 @@ public class RegistrationService {
                 .traceContext(telemetry.getCurrentTraceContext())
                 .build();
 
-        participantStore.save(participant);
+        if (!participantStore.saveIfAbsent(participant)) {
+            monitor.info(format("Participant %s is already in the dataspace.", did));
+            return;
+        }
+        listeners.forEach(listener -> listener.added(participant));
+    }
+
+    /**
+     * Adds participants to a dataspace in bulk, on behalf of a dataspace operator, e.g. to migrate an existing member
+     * list. Participants are saved in batches of {@link #IMPORT_BATCH_SIZE}, as the DIDs are read.
+     * <p>
+     * Importing is idempotent: DIDs that are already registered, including by a concurrent registration, are reported
+     * as such and left unchanged, as participants are only saved if absent. If reading the DIDs fails, the participants
+     * read before are imported, so the same DIDs can be imported again.
+     *
+     * @param callerDid the DID of the caller, which must be one of the operator DIDs.
+     * @param dids      the DIDs of the participants to add.
+     * @return the result of importing each DID, in the order of {@code dids}.
+     */
+    public List<ParticipantImportResultDto> importParticipants(String callerDid, Iterator<String> dids) {
+        if (!operatorDids.contains(callerDid)) {
+            throw new NotAuthorizedException();
+        }
+        monitor.info(format("Importing participants in the dataspace, on behalf of %s.", callerDid));
+
+        var traceContext = telemetry.getCurrentTraceContext();
+        var results = new ArrayList<ParticipantImportResultDto>();
+        var requested = new HashSet<String>();
+        var batch = new ArrayList<Participant>(IMPORT_BATCH_SIZE);
+        // the outcome of a participant in the batch is only known once the batch is saved
+        var batchResultIndexes = new ArrayList<Integer>(IMPORT_BATCH_SIZE);
+        var registered = 0;
+        try {
+            while (dids.hasNext()) {
+                var did = dids.next();
+                if (did == null || !DID_PATTERN.matcher(did).matches()) {
+                    results.add(ParticipantImportResultDto.Builder.newInstance().did(did).outcome(INVALID).error("Not a DID").build());
+                } else if (!requested.add(did)) {
+                    results.add(ParticipantImportResultDto.Builder.newInstance().did(did).outcome(ALREADY_REGISTERED).build());
+                } else {
+                    batch.add(Participant.Builder.newInstance()
+                            .did(did)
+                            .status(ONBOARDING_INITIATED)
+                            .traceContext(traceContext)
+                            .build());
+                    batchResultIndexes.add(results.size());
+                    results.add(null);
+                    if (batch.size() == IMPORT_BATCH_SIZE) {
+                        registered += saveImported(batch, batchResultIndexes, results);
+                        batch.clear();
+                        batchResultIndexes.clear();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // the participants read before the failure are imported, as documented
+            registered += saveImported(batch, batchResultIndexes, results);
+            monitor.info(format("Imported %s participants before reading DIDs failed.", registered));
+            throw e;
+        }
+        registered += saveImported(batch, batchResultIndexes, results);
+
+        monitor.info(format("Imported %s participants.", registered));
+        return results;
+    }
+
+    /**
+     * Saves the participants of the batch that are not registered yet, and sets their outcome in {@code results}, at
+     * the index of each participant in {@code resultIndexes}.
+     *
+     * @return the number of saved participants.
+     */
+    private int saveImported(List<Participant> batch, List<Integer> resultIndexes, List<ParticipantImportResultDto> results) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        var saved = participantStore.saveAllIfAbsent(List.copyOf(batch));
+        var savedDids = saved.stream()
+                .map(Participant::getDid)
+                .collect(Collectors.toSet());
+        for (var i = 0; i < batch.size(); i++) {
+            var did = batch.get(i).getDid();
+            results.set(resultIndexes.get(i), ParticipantImportResultDto.Builder.newInstance()
+                    .did(did)
+                    .outcome(savedDids.contains(did) ? REGISTERED : ALREADY_REGISTERED)
+                    .build());
+        }
+        saved.forEach(participant -> listeners.forEach(listener -> listener.added(participant)));
+        return saved.size();
     }
 }
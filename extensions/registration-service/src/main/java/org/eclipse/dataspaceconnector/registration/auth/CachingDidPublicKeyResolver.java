@@ -0,0 +1,128 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.eclipse.dataspaceconnector.iam.did.spi.key.PublicKeyWrapper;
+import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidPublicKeyResolver;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static java.lang.String.format;
+
+/**
+ * {@link DidPublicKeyResolver} caching the public keys resolved by another resolver, per DID.
+ * <p>
+ * Keys are cached for a fixed time, and the number of cached DIDs is bounded. Resolution failures are not cached.
+ * When a signature cannot be verified with a cached key, e.g. because the issuer rotated its key, the caller can
+ * {@link #refreshPublicKey refresh} it. To prevent forged tokens from triggering a resolution on every request, a key
+ * is refreshed at most once per {@code minRefreshInterval}.
+ * <p>
+ * Cache hits and misses are published as {@code cache.*} meters tagged with {@code cache=did.public-keys}, and the
+ * time spent resolving keys as the {@value #RESOLUTION_TIMER} timer.
+ */
+public class CachingDidPublicKeyResolver implements DidPublicKeyResolver {
+
+    public static final String CACHE_NAME = "did.public-keys";
+    public static final String RESOLUTION_TIMER = "did.public-key.resolution";
+
+    private final DidPublicKeyResolver delegate;
+    private final long minRefreshIntervalNanos;
+    private final Ticker ticker;
+    private final Cache<String, CachedKey> cache;
+    private final Timer resolutionTimer;
+
+    public CachingDidPublicKeyResolver(DidPublicKeyResolver delegate, Duration ttl, long maximumSize, Duration minRefreshInterval, MeterRegistry meterRegistry) {
+        this(delegate, ttl, maximumSize, minRefreshInterval, meterRegistry, Ticker.systemTicker());
+    }
+
+    CachingDidPublicKeyResolver(DidPublicKeyResolver delegate, Duration ttl, long maximumSize, Duration minRefreshInterval, MeterRegistry meterRegistry, Ticker ticker) {
+        if (ttl.isNegative() || minRefreshInterval.isNegative() || maximumSize < 0) {
+            throw new IllegalArgumentException(format("Invalid public key cache configuration: ttl %s, maximum size %s, minimum refresh interval %s",
+                    ttl, maximumSize, minRefreshInterval));
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.resolutionTimer = Timer.builder(RESOLUTION_TIMER)
+                .description("Time spent resolving DID public keys on cache misses")
+                .register(meterRegistry);
+        new CaffeineCacheMetrics<>(cache, CACHE_NAME, Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @Override
+    public Result<PublicKeyWrapper> resolvePublicKey(String did) {
+        var cached = cache.get(did, this::resolve);
+        if (cached.result.failed()) {
+            cache.asMap().remove(did, cached);
+        }
+        return cached.result;
+    }
+
+    /**
+     * Resolves the public key of a DID again, unless the cached key was resolved less than
+     * {@code minRefreshInterval} ago.
+     *
+     * @param did the DID.
+     * @return the refreshed public key, or the cached one if it is recent.
+     */
+    public Result<PublicKeyWrapper> refreshPublicKey(String did) {
+        var cached = cache.asMap().get(did);
+        if (cached != null) {
+            if (ticker.read() - cached.resolvedAt < minRefreshIntervalNanos) {
+                return cached.result;
+            }
+            cache.asMap().remove(did, cached);
+        }
+        return resolvePublicKey(did);
+    }
+
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    private CachedKey resolve(String did) {
+        var start = ticker.read();
+        var result = delegate.resolvePublicKey(did);
+        var end = ticker.read();
+        resolutionTimer.record(Duration.ofNanos(end - start));
+        return new CachedKey(result, end);
+    }
+
+    private static class CachedKey {
+        private final Result<PublicKeyWrapper> result;
+        private final long resolvedAt;
+
+        CachedKey(Result<PublicKeyWrapper> result, long resolvedAt) {
+            this.result = result;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+}
@@ -15,17 +15,20 @@
 package org.eclipse.dataspaceconnector.registration.auth;
 
 
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jwt.SignedJWT;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
 import jakarta.ws.rs.core.MultivaluedMap;
 import org.eclipse.dataspaceconnector.iam.did.crypto.credentials.VerifiableCredentialFactory;
-import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidPublicKeyResolver;
+import org.eclipse.dataspaceconnector.iam.did.spi.key.PublicKeyWrapper;
 import org.eclipse.dataspaceconnector.spi.exception.AuthenticationFailedException;
 import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.text.ParseException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 
@@ -33,17 +36,22 @@ import java.util.Objects;
  * Intercepts all requests sent to this resource and authenticates them using DID Web.
  *
  * The resolved DID URL is injected as HTTP Header for use by the controller. The name of the header is defined by {@link #CALLER_DID_HEADER}.
+ *
+ * Public keys are cached per issuer. If the signature of a token cannot be verified with the cached key, the key is refreshed once, in case the issuer rotated it.
+ * Verified tokens are cached until they expire, so that a token reused for several requests is only verified once.
  */
 public class DidJwtAuthenticationFilter implements ContainerRequestFilter {
     public static final String CALLER_DID_HEADER = "CallerDid";
 
     private final Monitor monitor;
-    private final DidPublicKeyResolver didPublicKeyResolver;
+    private final CachingDidPublicKeyResolver didPublicKeyResolver;
+    private final VerifiedTokenCache verifiedTokens;
     private final String audience;
 
-    public DidJwtAuthenticationFilter(Monitor monitor, DidPublicKeyResolver didPublicKeyResolver, String audience) {
+    public DidJwtAuthenticationFilter(Monitor monitor, CachingDidPublicKeyResolver didPublicKeyResolver, VerifiedTokenCache verifiedTokens, String audience) {
         this.monitor = monitor;
         this.didPublicKeyResolver = didPublicKeyResolver;
+        this.verifiedTokens = verifiedTokens;
         this.audience = audience;
     }
 
@@ -53,11 +61,15 @@ public class DidJwtAuthenticationFilter implements ContainerRequestFilter {
         Objects.requireNonNull(headers, "headers");
 
         String credential = getCredential(headers);
-        SignedJWT jwt = parseJsonWebToken(credential);
-        String issuer = getIssuerClaim(jwt);
-        verifyTokenSignature(jwt, issuer);
-
-        monitor.debug("Valid JWT");
+        String issuer = verifiedTokens.getIssuer(credential);
+        if (issuer == null) {
+            SignedJWT jwt = parseJsonWebToken(credential);
+            issuer = getIssuerClaim(jwt);
+            verifyTokenSignature(jwt, issuer);
+            verifiedTokens.put(credential, issuer, getExpirationTime(jwt));
+
+            monitor.debug("Valid JWT");
+        }
 
         headers.putSingle(CALLER_DID_HEADER, issuer);
     }
@@ -80,6 +92,15 @@ public class DidJwtAuthenticationFilter implements ContainerRequestFilter {
         }
     }
 
+    @Nullable
+    private Instant getExpirationTime(SignedJWT jwt) {
+        try {
+            var expirationTime = jwt.getJWTClaimsSet().getExpirationTime();
+            return expirationTime == null ? null : expirationTime.toInstant();
+        } catch (ParseException e) {
+            throw authenticationFailure("Invalid JWT (parse error)", List.of(e.getMessage()));
+        }
+    }
 
     private String getCredential(MultivaluedMap<String, String> headers) {
         var authHeader = headers.getFirst("Authorization");
@@ -103,11 +124,26 @@ public class DidJwtAuthenticationFilter implements ContainerRequestFilter {
         }
 
         var verificationResult = VerifiableCredentialFactory.verify(jwt, publicKey.getContent(), audience);
+        if (verificationResult.failed() && !hasValidSignature(jwt, publicKey.getContent())) {
+            var refreshedKey = didPublicKeyResolver.refreshPublicKey(issuer);
+            if (refreshedKey.succeeded() && refreshedKey.getContent() != publicKey.getContent()) {
+                monitor.debug(() -> "Retrying JWT verification with refreshed public key for DID: " + issuer);
+                verificationResult = VerifiableCredentialFactory.verify(jwt, refreshedKey.getContent(), audience);
+            }
+        }
         if (verificationResult.failed()) {
             throw authenticationFailure("Invalid JWT (verification error)", verificationResult.getFailureMessages());
         }
     }
 
+    private boolean hasValidSignature(SignedJWT jwt, PublicKeyWrapper publicKey) {
+        try {
+            return jwt.verify(publicKey.verifier());
+        } catch (JOSEException e) {
+            return false;
+        }
+    }
+
     @NotNull
     private AuthenticationFailedException authenticationFailure(String message, List<String> failureMessages) {
         failureMessages.forEach(m -> monitor.debug(() -> message + ". " + m));
@@ -0,0 +1,153 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+
+import static java.lang.String.format;
+
+/**
+ * Cache of the bearer tokens that were successfully verified, and of their issuer, so that a token reused for several
+ * requests is only parsed and verified once.
+ * <p>
+ * Tokens are keyed by their SHA-256 hash, so that the cache does not hold usable credentials. A token is cached until
+ * it expires, and at most for {@code maxTtl}, so that a cached token is verified again (e.g. against a rotated key)
+ * from time to time. Tokens without expiration time are not cached. The number of cached tokens is bounded, and a
+ * maximum size of 0 disables the cache: as Caffeine evicts asynchronously, tokens are then not put in the cache at all.
+ * <p>
+ * Cache hits and misses are published as {@code cache.*} meters tagged with {@code cache=jwt.verified-tokens}.
+ */
+public class VerifiedTokenCache {
+
+    public static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final Duration maxTtl;
+    private final boolean enabled;
+    private final Clock clock;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(Duration maxTtl, long maximumSize, Clock clock, MeterRegistry meterRegistry) {
+        if (maxTtl.isNegative() || maximumSize < 0) {
+            throw new IllegalArgumentException(format("Invalid verified token cache configuration: maximum ttl %s, maximum size %s", maxTtl, maximumSize));
+        }
+        this.maxTtl = maxTtl;
+        this.enabled = maximumSize > 0;
+        this.clock = Objects.requireNonNull(clock);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        new CaffeineCacheMetrics<>(cache, CACHE_NAME, Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Returns the issuer of a token, if the token was verified and has not expired.
+     *
+     * @param token the serialized token.
+     * @return the issuer of the token, or {@code null} if the token must be verified.
+     */
+    @Nullable
+    public String getIssuer(String token) {
+        var verified = cache.getIfPresent(hash(token));
+        if (verified == null || !clock.instant().isBefore(verified.expiresAt)) {
+            return null;
+        }
+        return verified.issuer;
+    }
+
+    /**
+     * Records a successfully verified token.
+     *
+     * @param token          the serialized token.
+     * @param issuer         the verified issuer of the token.
+     * @param expirationTime the expiration time of the token, {@code null} if it has none.
+     */
+    public void put(String token, String issuer, @Nullable Instant expirationTime) {
+        if (!enabled || expirationTime == null) {
+            return;
+        }
+        var expiresAt = min(expirationTime, clock.instant().plus(maxTtl));
+        if (clock.instant().isBefore(expiresAt)) {
+            cache.put(hash(token), new VerifiedToken(issuer, expiresAt));
+        }
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private Duration timeToLive(VerifiedToken verified) {
+        var ttl = Duration.between(clock.instant(), verified.expiresAt);
+        return ttl.isNegative() ? Duration.ZERO : ttl;
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new EdcException(e);
+        }
+    }
+
+    private static class VerifiedToken {
+        private final String issuer;
+        private final Instant expiresAt;
+
+        VerifiedToken(String issuer, Instant expiresAt) {
+            this.issuer = issuer;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken verified, long currentTime) {
+            return timeToLive(verified).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken verified, long currentTime, long currentDuration) {
+            return timeToLive(verified).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -16,50 +16,103 @@ package org.eclipse.dataspaceconnector.registration.manager;
 
 import io.opentelemetry.extension.annotations.WithSpan;
 import org.eclipse.dataspaceconnector.common.statemachine.StateMachineManager;
+import org.eclipse.dataspaceconnector.common.statemachine.StateProcessor;
 import org.eclipse.dataspaceconnector.common.statemachine.StateProcessorImpl;
 import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
 import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
+import org.eclipse.dataspaceconnector.registration.authority.spi.ParticipantListener;
 import org.eclipse.dataspaceconnector.registration.authority.spi.ParticipantVerifier;
 import org.eclipse.dataspaceconnector.registration.credential.VerifiableCredentialService;
 import org.eclipse.dataspaceconnector.registration.store.spi.ParticipantStore;
 import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
-import org.eclipse.dataspaceconnector.spi.retry.WaitStrategy;
+import org.eclipse.dataspaceconnector.spi.response.ResponseStatus;
+import org.eclipse.dataspaceconnector.spi.response.StatusResult;
 import org.eclipse.dataspaceconnector.spi.system.ExecutorInstrumentation;
 import org.eclipse.dataspaceconnector.spi.telemetry.Telemetry;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
+import static java.lang.String.format;
 import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZED;
 import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZING;
 import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDING_INITIATED;
 
 /**
  * Manager for participant registration state machine.
+ * <p>
+ * Participants are claimed from the {@link ParticipantStore} before being processed, so that several managers (e.g. in
+ * different service replicas) can share a store. The lease on a participant is renewed while it is processed, e.g. by a
+ * slow verification, and released once its new state is saved.
+ * The new state is only saved if the participant was not saved by another writer while being processed (e.g. after
+ * its lease expired), otherwise the outcome of processing it is discarded.
+ * <p>
+ * When no participant needs processing, the state machine waits with an exponential backoff, up to the configured
+ * maximum idle wait. As a {@link ParticipantListener}, the manager is woken up as soon as a participant is added.
+ * <p>
+ * Participants in states with a {@link Builder#workers worker pool} are processed concurrently on the pool, the state
+ * machine thread only claims and dispatches them. Participants in other states are processed on the state machine
+ * thread. Optionally, workers run on virtual threads, so that thousands of participants can be processed concurrently
+ * without sizing a platform thread pool.
+ * <p>
+ * Participants whose verification or credential push fails with {@link ResponseStatus#ERROR_RETRY} stay in their state
+ * and are retried with an exponential backoff, up to a maximum number of retries. The idle wait ends when a retry
+ * scheduled by this manager is due. Retries scheduled by other managers, or before a restart, may be delayed by up to
+ * the maximum idle wait.
+ * <p>
+ * Registered {@link Builder#listener listeners} are notified once a participant's new status is saved.
  */
-public class ParticipantManager {
-
-    private final ParticipantStore participantStore;
-    private final ParticipantVerifier participantVerifier;
-    private final StateMachineManager stateMachineManager;
-    private final VerifiableCredentialService verifiableCredentialService;
-    private final Telemetry telemetry;
-
-    public ParticipantManager(Monitor monitor, ParticipantStore participantStore, ParticipantVerifier participantVerifier, ExecutorInstrumentation executorInstrumentation,
-                              VerifiableCredentialService verifiableCredentialService, Telemetry telemetry) {
-        this.participantStore = participantStore;
-        this.participantVerifier = participantVerifier;
-        this.verifiableCredentialService = verifiableCredentialService;
-        this.telemetry = telemetry;
-
-        // default wait five seconds
-        WaitStrategy waitStrategy = () -> 5000L;
-
-        // define state machine
-        stateMachineManager = StateMachineManager.Builder.newInstance("registration-service", monitor, executorInstrumentation, waitStrategy)
-                .processor(processParticipantsInState(ONBOARDING_INITIATED, this::processOnboardingInitiated))
-                .processor(processParticipantsInState(AUTHORIZING, this::processAuthorizing))
-                .processor(processParticipantsInState(AUTHORIZED, this::processAuthorized))
-                .build();
+public class ParticipantManager implements ParticipantListener {
+
+    public static final int DEFAULT_BATCH_SIZE = 20;
+    public static final Duration DEFAULT_LEASE_DURATION = Duration.ofMinutes(1);
+    public static final Duration MIN_IDLE_WAIT = Duration.ofMillis(100);
+    public static final Duration DEFAULT_MAX_IDLE_WAIT = Duration.ofSeconds(30);
+    public static final int DEFAULT_WORKERS = 4;
+    public static final int DEFAULT_VIRTUAL_THREAD_WORKERS = 256;
+    public static final int DEFAULT_MAX_RETRIES = 5;
+    public static final Duration DEFAULT_RETRY_BASE_DELAY = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_RETRY_MAX_DELAY = Duration.ofMinutes(5);
+
+    private final Map<ParticipantStatus, Integer> batchSizes = new EnumMap<>(ParticipantStatus.class);
+    private final Map<ParticipantStatus, Integer> workers = new EnumMap<>(ParticipantStatus.class);
+    private final List<StateWorkerPool> workerPools = new ArrayList<>();
+    private final List<ParticipantListener> listeners = new ArrayList<>();
+    private String leaseHolder = UUID.randomUUID().toString();
+    private Duration leaseDuration = DEFAULT_LEASE_DURATION;
+    private Duration maxIdleWait = DEFAULT_MAX_IDLE_WAIT;
+    private boolean virtualThreads;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private Duration retryBaseDelay = DEFAULT_RETRY_BASE_DELAY;
+    private Duration retryMaxDelay = DEFAULT_RETRY_MAX_DELAY;
+    private Clock clock = Clock.systemUTC();
+    private Monitor monitor;
+    private ParticipantStore participantStore;
+    private ParticipantVerifier participantVerifier;
+    private ExecutorInstrumentation executorInstrumentation;
+    private VerifiableCredentialService verifiableCredentialService;
+    private Telemetry telemetry;
+    private StateMachineManager stateMachineManager;
+    private WakeableWaitStrategy waitStrategy;
+    private ScheduledExecutorService leaseRenewer;
+
+    private ParticipantManager() {
     }
 
     /**
@@ -70,48 +123,357 @@ public class ParticipantManager {
     }
 
     /**
-     * Stop the participant manager state machine processor thread.
+     * Stop the participant manager state machine processor thread, and wait for the participants being processed by
+     * worker pools.
      */
     public void stop() {
+        waitStrategy.close();
         stateMachineManager.stop();
+        workerPools.forEach(StateWorkerPool::shutdown);
+        leaseRenewer.shutdownNow();
+    }
+
+    /**
+     * Wakes up the state machine, so that the added participant is processed without waiting for the idle backoff.
+     */
+    @Override
+    public void added(Participant participant) {
+        waitStrategy.signal();
     }
 
     @WithSpan
-    private Boolean processOnboardingInitiated(Participant participant) {
-        participant.transitionAuthorizing();
-        participantStore.save(participant);
-        return true;
+    private Participant processOnboardingInitiated(Participant participant) {
+        return participant.transitionAuthorizing();
     }
 
     @WithSpan
-    private Boolean processAuthorizing(Participant participant) {
+    private Participant processAuthorizing(Participant participant) {
         var credentialsValid = participantVerifier.isOnboardingAllowed(participant.getDid());
         if (credentialsValid.failed()) {
-            participant.transitionFailed();
+            return retryOrFail(participant, credentialsValid);
         } else if (credentialsValid.getContent()) {
-            participant.transitionAuthorized();
+            return participant.transitionAuthorized();
         } else {
-            participant.transitionDenied();
+            return participant.transitionDenied();
         }
-        participantStore.save(participant);
-        return true;
     }
 
     @WithSpan
-    private Boolean processAuthorized(Participant participant) {
+    private Participant processAuthorized(Participant participant) {
         var result = verifiableCredentialService.pushVerifiableCredential(participant);
         if (result.succeeded()) {
-            participant.transitionOnboarded();
+            return participant.transitionOnboarded();
         } else {
-            participant.transitionFailed();
+            return retryOrFail(participant, result);
         }
+    }
 
-        participantStore.save(participant);
-        return true;
+    /**
+     * Schedules a retry if the failure is transient and the participant has retries left, otherwise transitions the
+     * participant to {@code FAILED}.
+     */
+    private Participant retryOrFail(Participant participant, StatusResult<?> result) {
+        if (result.getFailure().status() != ResponseStatus.ERROR_RETRY || participant.getRetryCount() >= maxRetries) {
+            return participant.transitionFailed();
+        }
+        var delay = retryDelay(participant.getRetryCount());
+        monitor.debug(() -> format("Retrying participant %s in state %s in %d ms: %s", participant.getDid(), participant.getStatus(), delay, result.getFailureDetail()));
+        return participant.scheduleRetry(clock.millis() + delay);
+    }
+
+    /**
+     * Exponential backoff, capped at the maximum retry delay. Half of the delay is random, so that participants failing
+     * together (e.g. because of an unavailable service) are not retried together.
+     */
+    long retryDelay(int retryCount) {
+        var baseMillis = retryBaseDelay.toMillis();
+        var maxMillis = retryMaxDelay.toMillis();
+        // shifting further would overflow
+        var delay = retryCount >= Long.numberOfLeadingZeros(baseMillis) - 1 ? maxMillis : Math.min(baseMillis << retryCount, maxMillis);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
     }
 
-    private StateProcessorImpl<Participant> processParticipantsInState(ParticipantStatus status, Function<Participant, Boolean> function) {
+    /**
+     * Processes claimed participants in the given state.
+     *
+     * @param status   the state of the participants to process.
+     * @param function the processing of a participant, returning its new state.
+     */
+    private StateProcessor processParticipantsInState(ParticipantStatus status, Function<Participant, Participant> function) {
         var functionWithTraceContext = telemetry.contextPropagationMiddleware(function);
-        return new StateProcessorImpl<>(() -> participantStore.listParticipantsWithStatus(status), functionWithTraceContext);
+        var batchSize = batchSizes.getOrDefault(status, DEFAULT_BATCH_SIZE);
+        Function<Participant, Boolean> processAndRelease = participant -> {
+            var leaseRenewal = renewLeaseWhileProcessing(participant);
+            try {
+                var processed = functionWithTraceContext.apply(participant);
+                var saved = participantStore.save(processed, participant.getSequence());
+                if (saved == null) {
+                    monitor.warning(format("Participant %s was modified while being processed in state %s, discarding the outcome", participant.getDid(), status));
+                    return false;
+                }
+                if (saved.getStatus() != status) {
+                    notifyStatusChanged(saved);
+                } else if (saved.getRetryCount() > 0) {
+                    // do not let the idle backoff delay the retry
+                    waitStrategy.wakeUpAfter(saved.getNextAttemptAt() - clock.millis());
+                }
+                return true;
+            } finally {
+                leaseRenewal.cancel(false);
+                participantStore.breakLease(participant.getDid(), leaseHolder);
+            }
+        };
+
+        StateProcessor processor;
+        var concurrency = workers.getOrDefault(status, defaultWorkers(status));
+        if (concurrency == 0) {
+            processor = new StateProcessorImpl<>(() -> participantStore.claimNextForState(status, batchSize, leaseHolder, leaseDuration), processAndRelease);
+        } else {
+            var pool = workerPool(status, concurrency);
+            processor = new StateProcessorImpl<>(
+                    () -> pool.claim(batchSize, max -> participantStore.claimNextForState(status, max, leaseHolder, leaseDuration)),
+                    participant -> pool.dispatch(participant, processAndRelease));
+        }
+        // the state machine calls WaitStrategy.success() on every iteration, so the idle backoff is reset here instead
+        return () -> {
+            var processed = processor.process();
+            if (processed > 0) {
+                waitStrategy.workProcessed();
+            }
+            return processed;
+        };
+    }
+
+    /**
+     * Renews the lease on a participant every third of the lease duration, until the returned future is cancelled, so
+     * that another manager cannot claim the participant while it is processed.
+     */
+    private ScheduledFuture<?> renewLeaseWhileProcessing(Participant participant) {
+        var interval = Math.max(leaseDuration.toMillis() / 3, 1);
+        return leaseRenewer.scheduleAtFixedRate(() -> {
+            try {
+                if (!participantStore.renewLease(participant.getDid(), leaseHolder, leaseDuration)) {
+                    monitor.warning(format("Lease on participant %s was lost while processing it", participant.getDid()));
+                }
+            } catch (Exception e) {
+                // an exception would cancel later renewals
+                monitor.warning(format("Failed to renew lease on participant %s", participant.getDid()), e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void notifyStatusChanged(Participant participant) {
+        for (var listener : listeners) {
+            try {
+                listener.statusChanged(participant);
+            } catch (Exception e) {
+                monitor.warning(format("Listener failed to handle status change of participant %s", participant.getDid()), e);
+            }
+        }
+    }
+
+    private StateWorkerPool workerPool(ParticipantStatus status, int concurrency) {
+        var name = "participant-" + status.name().toLowerCase(Locale.ROOT).replace('_', '-') + "-worker";
+        var threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+        ExecutorService executor;
+        if (virtualThreads) {
+            // the pool bounds the number of running tasks, so the fallback does not create more threads than that either
+            executor = VirtualThreads.newThreadPerTaskExecutor(name).orElseGet(() -> {
+                monitor.warning(format("Virtual threads are not supported by this runtime, %s uses platform threads", name));
+                return Executors.newCachedThreadPool(threadFactory);
+            });
+        } else {
+            executor = Executors.newFixedThreadPool(concurrency, threadFactory);
+        }
+        var pool = new StateWorkerPool(name, executorInstrumentation.instrument(executor, name), concurrency, waitStrategy::signal, monitor);
+        workerPools.add(pool);
+        return pool;
+    }
+
+    private int defaultWorkers(ParticipantStatus status) {
+        if (status != AUTHORIZING && status != AUTHORIZED) {
+            return 0;
+        }
+        return virtualThreads ? DEFAULT_VIRTUAL_THREAD_WORKERS : DEFAULT_WORKERS;
+    }
+
+    public static class Builder {
+        private final ParticipantManager manager;
+
+        private Builder() {
+            manager = new ParticipantManager();
+        }
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        public Builder monitor(Monitor monitor) {
+            manager.monitor = monitor;
+            return this;
+        }
+
+        public Builder participantStore(ParticipantStore participantStore) {
+            manager.participantStore = participantStore;
+            return this;
+        }
+
+        public Builder participantVerifier(ParticipantVerifier participantVerifier) {
+            manager.participantVerifier = participantVerifier;
+            return this;
+        }
+
+        public Builder executorInstrumentation(ExecutorInstrumentation executorInstrumentation) {
+            manager.executorInstrumentation = executorInstrumentation;
+            return this;
+        }
+
+        public Builder verifiableCredentialService(VerifiableCredentialService verifiableCredentialService) {
+            manager.verifiableCredentialService = verifiableCredentialService;
+            return this;
+        }
+
+        public Builder telemetry(Telemetry telemetry) {
+            manager.telemetry = telemetry;
+            return this;
+        }
+
+        /**
+         * Maximum number of participants in the given state that are processed in one state machine iteration.
+         * Defaults to {@link #DEFAULT_BATCH_SIZE}.
+         */
+        public Builder batchSize(ParticipantStatus status, int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException(format("Batch size for state %s must be positive, was %d", status, batchSize));
+            }
+            manager.batchSizes.put(status, batchSize);
+            return this;
+        }
+
+        /**
+         * Number of workers processing participants in the given state concurrently. With {@code 0}, participants are
+         * processed on the state machine thread. Defaults to {@link #DEFAULT_WORKERS} for {@code AUTHORIZING} and
+         * {@code AUTHORIZED}, which involve remote calls, or {@link #DEFAULT_VIRTUAL_THREAD_WORKERS} with
+         * {@link #virtualThreads virtual threads}, and to {@code 0} for other states.
+         */
+        public Builder workers(ParticipantStatus status, int workers) {
+            if (workers < 0) {
+                throw new IllegalArgumentException(format("Number of workers for state %s must not be negative, was %d", status, workers));
+            }
+            manager.workers.put(status, workers);
+            return this;
+        }
+
+        /**
+         * Whether workers run on virtual threads, one per participant being processed, rather than on a pool of platform
+         * threads. The number of {@link #workers workers} then only caps concurrency. Falls back to platform threads if
+         * the runtime does not support virtual threads. Defaults to {@code false}.
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            manager.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Number of times processing a participant is retried after a transient failure, i.e. a failure with status
+         * {@link ResponseStatus#ERROR_RETRY}, before the participant transitions to {@code FAILED}. Other failures are
+         * not retried. Defaults to {@link #DEFAULT_MAX_RETRIES}.
+         */
+        public Builder maxRetries(int maxRetries) {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException(format("Maximum number of retries must not be negative, was %d", maxRetries));
+            }
+            manager.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Delay before retrying a participant after a transient failure. The delay doubles with each retry of the same
+         * participant, up to {@code maxDelay}, and is randomized by up to half. Defaults to
+         * {@link #DEFAULT_RETRY_BASE_DELAY} and {@link #DEFAULT_RETRY_MAX_DELAY}.
+         */
+        public Builder retryDelay(Duration baseDelay, Duration maxDelay) {
+            if (baseDelay.toMillis() <= 0 || maxDelay.compareTo(baseDelay) < 0) {
+                throw new IllegalArgumentException(format("Invalid retry delay from %s to %s", baseDelay, maxDelay));
+            }
+            manager.retryBaseDelay = baseDelay;
+            manager.retryMaxDelay = maxDelay;
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            manager.clock = clock;
+            return this;
+        }
+
+        /**
+         * Listener {@link ParticipantListener#statusChanged notified} when a participant processed by this manager
+         * changes status.
+         */
+        public Builder listener(ParticipantListener listener) {
+            manager.listeners.add(listener);
+            return this;
+        }
+
+        /**
+         * Identifier under which participants are leased from the store. Must be unique among all managers sharing a
+         * store. Defaults to a random UUID.
+         */
+        public Builder leaseHolder(String leaseHolder) {
+            manager.leaseHolder = leaseHolder;
+            return this;
+        }
+
+        /**
+         * Time after which a participant claimed by this manager may be claimed by another manager, if the lease has
+         * been neither renewed nor released, e.g. because this manager stopped. The lease is renewed every third of this
+         * duration while the participant is processed. Defaults to {@link #DEFAULT_LEASE_DURATION}.
+         */
+        public Builder leaseDuration(Duration leaseDuration) {
+            manager.leaseDuration = leaseDuration;
+            return this;
+        }
+
+        /**
+         * Maximum time the state machine waits when no participant needs processing, unless it is woken up by a
+         * participant being added. Bounds the delay to process participants added through another manager sharing the
+         * store, or whose lease expired. Defaults to {@link #DEFAULT_MAX_IDLE_WAIT}.
+         */
+        public Builder maxIdleWait(Duration maxIdleWait) {
+            if (maxIdleWait.compareTo(MIN_IDLE_WAIT) < 0) {
+                throw new IllegalArgumentException(format("Maximum idle wait must be at least %s, was %s", MIN_IDLE_WAIT, maxIdleWait));
+            }
+            manager.maxIdleWait = maxIdleWait;
+            return this;
+        }
+
+        public ParticipantManager build() {
+            Objects.requireNonNull(manager.monitor, "monitor");
+            Objects.requireNonNull(manager.participantStore, "participantStore");
+            Objects.requireNonNull(manager.participantVerifier, "participantVerifier");
+            Objects.requireNonNull(manager.executorInstrumentation, "executorInstrumentation");
+            Objects.requireNonNull(manager.verifiableCredentialService, "verifiableCredentialService");
+            Objects.requireNonNull(manager.telemetry, "telemetry");
+            Objects.requireNonNull(manager.leaseHolder, "leaseHolder");
+            Objects.requireNonNull(manager.leaseDuration, "leaseDuration");
+            Objects.requireNonNull(manager.maxIdleWait, "maxIdleWait");
+            Objects.requireNonNull(manager.clock, "clock");
+
+            manager.waitStrategy = new WakeableWaitStrategy(MIN_IDLE_WAIT, manager.maxIdleWait);
+            manager.leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "participant-lease-renewer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            // define state machine
+            manager.stateMachineManager = StateMachineManager.Builder.newInstance("registration-service", manager.monitor, manager.executorInstrumentation, manager.waitStrategy)
+                    .processor(manager.processParticipantsInState(ONBOARDING_INITIATED, manager::processOnboardingInitiated))
+                    .processor(manager.processParticipantsInState(AUTHORIZING, manager::processAuthorizing))
+                    .processor(manager.processParticipantsInState(AUTHORIZED, manager::processAuthorized))
+                    .build();
+            return manager;
+        }
     }
 }
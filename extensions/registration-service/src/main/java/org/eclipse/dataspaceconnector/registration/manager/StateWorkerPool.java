@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.manager;
+
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import static java.lang.String.format;
+
+/**
+ * Pool of workers processing participants of a single state, with bounded concurrency.
+ * <p>
+ * The state machine thread only claims as many participants as there are idle workers, and dispatches them to the
+ * pool. The pool notifies its completion listener each time a participant is processed, so that the state machine can
+ * claim more participants without waiting for its idle backoff.
+ */
+class StateWorkerPool {
+
+    private final String name;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Runnable completionListener;
+    private final Monitor monitor;
+
+    StateWorkerPool(String name, ExecutorService executor, int concurrency, Runnable completionListener, Monitor monitor) {
+        this.name = name;
+        this.executor = executor;
+        this.permits = new Semaphore(concurrency);
+        this.completionListener = completionListener;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Claims participants for the idle workers of the pool.
+     *
+     * @param batchSize the maximum number of participants to claim.
+     * @param claimer   function claiming at most the given number of participants.
+     * @return the claimed participants, none if all workers are busy.
+     */
+    List<Participant> claim(int batchSize, IntFunction<List<Participant>> claimer) {
+        var idle = permits.availablePermits();
+        if (idle == 0) {
+            return List.of();
+        }
+        return claimer.apply(Math.min(idle, batchSize));
+    }
+
+    /**
+     * Processes a claimed participant on an idle worker. Only called from the state machine thread, after
+     * {@link #claim claiming} the participant, so a worker is always available.
+     *
+     * @param participant the participant.
+     * @param processor   the function processing the participant.
+     * @return {@code true}, as the participant is always dispatched.
+     */
+    Boolean dispatch(Participant participant, Function<Participant, Boolean> processor) {
+        permits.acquireUninterruptibly();
+        try {
+            executor.execute(() -> {
+                try {
+                    processor.apply(participant);
+                } catch (Exception e) {
+                    monitor.severe(format("Failed to process participant %s in %s", participant.getDid(), name), e);
+                } finally {
+                    permits.release();
+                    completionListener.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting participants, and waits for the participants being processed.
+     */
+    void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                monitor.warning(format("Timed out waiting for %s to complete", name));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.manager;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads, which are looked up reflectively, as the service is built for a Java version that
+ * predates them.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Creates an executor that runs each task on a new virtual thread.
+     *
+     * @param name prefix of the names of the created threads.
+     * @return the executor, or an empty optional if the runtime does not support virtual threads.
+     */
+    static Optional<ExecutorService> newThreadPerTaskExecutor(String name) {
+        try {
+            var builderType = Class.forName("java.lang.Thread$Builder");
+            var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            var factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            var executor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+            return Optional.of((ExecutorService) executor);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // also thrown if virtual threads are a preview feature that is not enabled
+            return Optional.empty();
+        }
+    }
+}
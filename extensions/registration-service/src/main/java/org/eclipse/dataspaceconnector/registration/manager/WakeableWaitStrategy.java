@@ -0,0 +1,123 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.manager;
+
+import org.eclipse.dataspaceconnector.spi.retry.WaitStrategy;
+
+import java.time.Duration;
+
+import static java.lang.String.format;
+
+/**
+ * {@link WaitStrategy} for a state machine that is idle, which can be woken up as soon as new work arrives.
+ * <p>
+ * Instead of returning a time for the state machine to sleep, {@link #waitForMillis()} blocks itself until it is
+ * {@link #signal() signalled} or the idle backoff elapses, and then returns {@code 0}. The idle backoff starts at the
+ * minimum and doubles each time the state machine finds no work, up to the maximum. It is reset when the state
+ * machine is signalled or {@link #workProcessed() processes work}, but not on {@link #success()}, which the state
+ * machine calls on every iteration, including idle ones.
+ * <p>
+ * The wait never extends past the earliest time {@link #wakeUpAfter(long) scheduled} for work to become due, e.g. a
+ * retry, after which the idle backoff is reset as well.
+ */
+class WakeableWaitStrategy implements WaitStrategy {
+
+    private final long minMillis;
+    private final long maxMillis;
+    private long backoffMillis;
+    private long dueAtMillis = Long.MAX_VALUE;
+    private boolean signalled;
+    private boolean closed;
+
+    WakeableWaitStrategy(Duration minBackoff, Duration maxBackoff) {
+        minMillis = minBackoff.toMillis();
+        maxMillis = maxBackoff.toMillis();
+        if (minMillis <= 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException(format("Invalid idle backoff from %s to %s", minBackoff, maxBackoff));
+        }
+        backoffMillis = minMillis;
+    }
+
+    /**
+     * Wakes up the state machine if it is waiting, or prevents it from waiting on its next idle iteration.
+     */
+    synchronized void signal() {
+        signalled = true;
+        notifyAll();
+    }
+
+    /**
+     * Ensures that the state machine does not wait longer than the given delay, after which work becomes due.
+     */
+    synchronized void wakeUpAfter(long delayMillis) {
+        var dueAt = System.currentTimeMillis() + Math.max(delayMillis, 0);
+        if (dueAt < dueAtMillis) {
+            dueAtMillis = dueAt;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Resets the idle backoff, after the state machine processed work.
+     */
+    synchronized void workProcessed() {
+        backoffMillis = minMillis;
+    }
+
+    /**
+     * Wakes up the state machine, and stops it from waiting from now on, so that it can be stopped.
+     */
+    synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized long waitForMillis() {
+        var deadline = System.currentTimeMillis() + backoffMillis;
+        var remaining = Math.min(deadline, dueAtMillis) - System.currentTimeMillis();
+        try {
+            while (!signalled && !closed && remaining > 0) {
+                wait(remaining);
+                // a closer due time may have been scheduled meanwhile
+                remaining = Math.min(deadline, dueAtMillis) - System.currentTimeMillis();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+        var due = dueAtMillis <= System.currentTimeMillis();
+        if (due) {
+            dueAtMillis = Long.MAX_VALUE;
+        }
+        if (signalled || due) {
+            backoffMillis = minMillis;
+        } else {
+            backoffMillis = Math.min(backoffMillis * 2, maxMillis);
+        }
+        signalled = false;
+        return 0;
+    }
+
+    @Override
+    public void success() {
+        // called on every iteration, whether work was found or not
+    }
+
+    @Override
+    public synchronized long retryInMillis() {
+        return minMillis;
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Objects;
 public class ParticipantDto {
     private String did;
     private ParticipantStatusDto status;
+    private long sequence;
 
     private ParticipantDto() {
     }
@@ -35,6 +36,11 @@ public class ParticipantDto {
         return status;
     }
 
+    @Schema(description = "Sequence number of the last change of the participant, to pass as 'since' to list later changes")
+    public long getSequence() {
+        return sequence;
+    }
+
     @JsonPOJOBuilder(withPrefix = "")
     public static class Builder {
         private final ParticipantDto participantDto;
@@ -57,6 +63,11 @@ public class ParticipantDto {
             return this;
         }
 
+        public Builder sequence(long sequence) {
+            participantDto.sequence = sequence;
+            return this;
+        }
+
         public ParticipantDto build() {
             Objects.requireNonNull(participantDto.did, "did");
             Objects.requireNonNull(participantDto.status, "status");
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Objects;
+
+@Schema(description = "Result of importing a dataspace participant")
+public class ParticipantImportResultDto {
+    private String did;
+    private Outcome outcome;
+    private String error;
+
+    private ParticipantImportResultDto() {
+    }
+
+    public String getDid() {
+        return did;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    @Schema(description = "Reason why the DID is invalid")
+    public String getError() {
+        return error;
+    }
+
+    @Schema(description = "Outcome of importing a dataspace participant")
+    public enum Outcome {
+        REGISTERED, // participant added, its onboarding is processed asynchronously
+        ALREADY_REGISTERED, // participant already in the dataspace, or listed twice in the request
+        INVALID, // not a valid DID
+    }
+
+    @JsonPOJOBuilder(withPrefix = "")
+    public static class Builder {
+        private final ParticipantImportResultDto result;
+
+        private Builder() {
+            result = new ParticipantImportResultDto();
+        }
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        public Builder did(String did) {
+            result.did = did;
+            return this;
+        }
+
+        public Builder outcome(Outcome outcome) {
+            result.outcome = outcome;
+            return this;
+        }
+
+        public Builder error(String error) {
+            result.error = error;
+            return this;
+        }
+
+        public ParticipantImportResultDto build() {
+            Objects.requireNonNull(result.outcome, "outcome");
+            return result;
+        }
+    }
+}
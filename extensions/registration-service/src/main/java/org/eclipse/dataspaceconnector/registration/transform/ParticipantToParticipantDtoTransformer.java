@@ -43,6 +43,7 @@ public class ParticipantToParticipantDtoTransformer implements DtoTransformer<Pa
         return ParticipantDto.Builder.newInstance()
                 .did(participant.getDid())
                 .status(mapToDtoStatus(participant.getStatus()))
+                .sequence(participant.getSequence())
                 .build();
     }
 
@@ -54,7 +55,7 @@ public class ParticipantToParticipantDtoTransformer implements DtoTransformer<Pa
      * @param status {@link ParticipantStatus}
      * @return {@link ParticipantStatusDto}
      */
-    private ParticipantStatusDto mapToDtoStatus(ParticipantStatus status) {
+    public static ParticipantStatusDto mapToDtoStatus(ParticipantStatus status) {
         switch (status) {
             case ONBOARDING_INITIATED:
             case AUTHORIZING:
@@ -37,6 +37,7 @@ public class TestUtils {
     public static ParticipantDto getParticipantDtoFromParticipant(Participant participant) {
         return ParticipantDto.Builder.newInstance()
                 .did(participant.getDid())
+                .sequence(participant.getSequence())
                 .status(modelToDtoStatusMap().get(participant.getStatus()))
                 .build();
     }
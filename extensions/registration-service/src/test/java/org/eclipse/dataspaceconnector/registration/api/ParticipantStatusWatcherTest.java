@@ -0,0 +1,58 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.api;
+
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.registration.authority.TestUtils.createParticipant;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZED;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDED;
+
+class ParticipantStatusWatcherTest {
+
+    ParticipantStatusWatcher watcher = new ParticipantStatusWatcher();
+    Participant participant = createParticipant().status(AUTHORIZED).build();
+
+    @Test
+    void watch_completesOnMatchingChange() {
+        var change = watcher.watch(participant.getDid(), p -> p.getStatus() == ONBOARDED);
+
+        watcher.statusChanged(participant);
+        watcher.statusChanged(createParticipant().status(ONBOARDED).build());
+        assertThat(change).isNotDone();
+
+        var onboarded = createParticipant().did(participant.getDid()).status(ONBOARDED).build();
+        watcher.statusChanged(onboarded);
+        assertThat(change).isCompletedWithValue(onboarded);
+        assertThat(watcher.watchCount()).isZero();
+    }
+
+    @Test
+    void watch_removedOnCancel() {
+        var change = watcher.watch(participant.getDid(), p -> true);
+        var otherChange = watcher.watch(participant.getDid(), p -> true);
+        assertThat(watcher.watchCount()).isEqualTo(2);
+
+        change.cancel(false);
+
+        assertThat(watcher.watchCount()).isEqualTo(1);
+        watcher.statusChanged(participant);
+        assertThat(otherChange).isCompletedWithValue(participant);
+        assertThat(watcher.watchCount()).isZero();
+    }
+}
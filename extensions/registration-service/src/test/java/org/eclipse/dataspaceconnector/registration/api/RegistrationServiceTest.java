@@ -14,42 +14,78 @@
 
 package org.eclipse.dataspaceconnector.registration.api;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.javafaker.Faker;
 import org.eclipse.dataspaceconnector.api.transformer.DtoTransformerRegistry;
 import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.authority.spi.ParticipantListener;
 import org.eclipse.dataspaceconnector.registration.model.ParticipantDto;
+import org.eclipse.dataspaceconnector.registration.model.ParticipantImportResultDto;
+import org.eclipse.dataspaceconnector.registration.model.ParticipantStatusDto;
+import org.eclipse.dataspaceconnector.registration.store.InMemoryParticipantStore;
 import org.eclipse.dataspaceconnector.registration.store.spi.ParticipantStore;
 import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.exception.InvalidRequestException;
+import org.eclipse.dataspaceconnector.spi.exception.NotAuthorizedException;
 import org.eclipse.dataspaceconnector.spi.exception.ObjectNotFoundException;
 import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
 import org.eclipse.dataspaceconnector.spi.telemetry.Telemetry;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.eclipse.dataspaceconnector.registration.TestUtils.createParticipantDto;
 import static org.eclipse.dataspaceconnector.registration.authority.TestUtils.createParticipant;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZED;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.AUTHORIZING;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDED;
 import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDING_INITIATED;
+import static org.eclipse.dataspaceconnector.registration.model.ParticipantImportResultDto.Outcome.ALREADY_REGISTERED;
+import static org.eclipse.dataspaceconnector.registration.model.ParticipantImportResultDto.Outcome.INVALID;
+import static org.eclipse.dataspaceconnector.registration.model.ParticipantImportResultDto.Outcome.REGISTERED;
 import static org.eclipse.dataspaceconnector.spi.result.Result.failure;
 import static org.eclipse.dataspaceconnector.spi.result.Result.success;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class RegistrationServiceTest {
     static final Faker FAKER = new Faker();
+    static final String OPERATOR_DID = "did:web:operator";
 
     Monitor monitor = mock(Monitor.class);
     ParticipantStore participantStore = mock(ParticipantStore.class);
     DtoTransformerRegistry dtoTransformerRegistry = mock(DtoTransformerRegistry.class);
     Telemetry telemetryMock = mock(Telemetry.class);
-    RegistrationService service = new RegistrationService(monitor, participantStore, dtoTransformerRegistry, telemetryMock);
+    ParticipantStatusWatcher statusWatcher = new ParticipantStatusWatcher();
+    RegistrationService service = new RegistrationService(monitor, participantStore, dtoTransformerRegistry, telemetryMock, statusWatcher, Set.of(OPERATOR_DID));
 
 
     Participant.Builder participantBuilder = createParticipant();
@@ -58,10 +94,12 @@ class RegistrationServiceTest {
 
     @Test
     void listParticipants_empty() {
-        when(participantStore.listParticipants()).thenReturn(List.of());
+        when(participantStore.listParticipants(Set.of(), null, 11)).thenReturn(List.of());
 
-        assertThat(service.listParticipants()).isEmpty();
-        verify(participantStore).listParticipants();
+        var page = service.listParticipants(null, null, 10);
+
+        assertThat(page.getParticipants()).isEmpty();
+        assertThat(page.getContinuationToken()).isNull();
         verifyNoInteractions(dtoTransformerRegistry);
     }
 
@@ -69,25 +107,153 @@ class RegistrationServiceTest {
     void listParticipants() {
         var participant = participantBuilder.build();
         var participantDto = participantDtoBuilder.build();
-        when(participantStore.listParticipants()).thenReturn(List.of(participant));
+        when(participantStore.listParticipants(Set.of(), null, 11)).thenReturn(List.of(participant));
         when(dtoTransformerRegistry.transform(participant, ParticipantDto.class))
                 .thenReturn(success(participantDto));
 
-        var result = service.listParticipants();
+        var page = service.listParticipants(null, null, 10);
 
-        assertThat(result).hasSize(1);
-        assertThat(result).containsExactly(participantDto);
-        verify(participantStore).listParticipants();
+        assertThat(page.getParticipants()).containsExactly(participantDto);
+        assertThat(page.getContinuationToken()).isNull();
         verify(dtoTransformerRegistry).transform(participant, ParticipantDto.class);
     }
 
+    @Test
+    void listParticipants_nextPage() {
+        var participant1 = participantBuilder.build();
+        var participant2 = createParticipant().build();
+        when(participantStore.listParticipants(Set.of(), null, 2)).thenReturn(List.of(participant1, participant2));
+        when(dtoTransformerRegistry.transform(participant1, ParticipantDto.class))
+                .thenReturn(success(participantDtoBuilder.build()));
+
+        var page = service.listParticipants(null, null, 1);
+
+        assertThat(page.getParticipants()).hasSize(1);
+        assertThat(page.getContinuationToken()).isNotNull();
+
+        when(participantStore.listParticipants(Set.of(), participant1.getDid(), 2)).thenReturn(List.of(participant2));
+        when(dtoTransformerRegistry.transform(participant2, ParticipantDto.class))
+                .thenReturn(success(createParticipantDto().build()));
+
+        var nextPage = service.listParticipants(null, page.getContinuationToken(), 1);
+
+        assertThat(nextPage.getParticipants()).hasSize(1);
+        assertThat(nextPage.getContinuationToken()).isNull();
+        verify(participantStore).listParticipants(Set.of(), participant1.getDid(), 2);
+    }
+
+    @Test
+    void listParticipants_versionChangesWhenParticipantSaved() {
+        var participant = participantBuilder.sequence(1).build();
+        var saved = participant.withSequence(2);
+        when(participantStore.listParticipants(Set.of(), null, 11)).thenReturn(List.of(participant), List.of(participant), List.of(saved));
+        when(dtoTransformerRegistry.transform(any(Participant.class), eq(ParticipantDto.class)))
+                .thenReturn(success(participantDtoBuilder.build()));
+
+        var version = service.listParticipants(null, null, 10).getVersion();
+        assertThat(service.listParticipants(null, null, 10).getVersion()).isEqualTo(version);
+
+        assertThat(service.listParticipants(null, null, 10).getVersion()).isNotEqualTo(version);
+    }
+
+    @Test
+    void listParticipants_versionChangesWithSequenceEpoch() {
+        var participant = participantBuilder.sequence(1).build();
+        when(participantStore.listParticipants(Set.of(), null, 11)).thenReturn(List.of(participant));
+        when(dtoTransformerRegistry.transform(any(Participant.class), eq(ParticipantDto.class)))
+                .thenReturn(success(participantDtoBuilder.build()));
+        when(participantStore.getSequenceEpoch()).thenReturn("epoch-1", "epoch-2");
+
+        var version = service.listParticipants(null, null, 10).getVersion();
+
+        assertThat(service.listParticipants(null, null, 10).getVersion()).isNotEqualTo(version);
+    }
+
+    @Test
+    void participantVersion() {
+        var participantDto = participantDtoBuilder.sequence(3).build();
+        when(participantStore.getSequenceEpoch()).thenReturn("", "epoch");
+
+        assertThat(service.participantVersion(participantDto)).isEqualTo("3");
+        assertThat(service.participantVersion(participantDto)).isEqualTo("epoch-3");
+    }
+
+    @Test
+    void listParticipants_filtersByStatus() {
+        when(participantStore.listParticipants(Set.of(ONBOARDING_INITIATED, AUTHORIZING, AUTHORIZED), null, 11)).thenReturn(List.of());
+
+        service.listParticipants(ParticipantStatusDto.ONBOARDING_IN_PROGRESS, null, 10);
+
+        verify(participantStore).listParticipants(Set.of(ONBOARDING_INITIATED, AUTHORIZING, AUTHORIZED), null, 11);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, -1, RegistrationService.MAX_PAGE_SIZE + 1 })
+    void listParticipants_invalidLimit(int limit) {
+        assertThatThrownBy(() -> service.listParticipants(null, null, limit)).isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(participantStore);
+    }
+
+    @Test
+    void listParticipants_invalidContinuationToken() {
+        assertThatThrownBy(() -> service.listParticipants(null, "not/base64url", 10)).isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(participantStore);
+    }
+
+    @Test
+    void exportParticipants_readsBatches() {
+        var participant1 = participantBuilder.build();
+        var participant2 = createParticipant().build();
+        var participantDto1 = participantDtoBuilder.build();
+        var participantDto2 = createParticipantDto().build();
+        when(participantStore.listParticipants(Set.of(), null, RegistrationService.MAX_PAGE_SIZE))
+                .thenReturn(Collections.nCopies(RegistrationService.MAX_PAGE_SIZE, participant1));
+        when(participantStore.listParticipants(Set.of(), participant1.getDid(), RegistrationService.MAX_PAGE_SIZE))
+                .thenReturn(List.of(participant2));
+        when(dtoTransformerRegistry.transform(participant1, ParticipantDto.class))
+                .thenReturn(success(participantDto1));
+        when(dtoTransformerRegistry.transform(participant2, ParticipantDto.class))
+                .thenReturn(success(participantDto2));
+
+        var stream = service.exportParticipants(null);
+
+        verify(participantStore, never()).listParticipants(Set.of(), participant1.getDid(), RegistrationService.MAX_PAGE_SIZE);
+        var result = stream.collect(Collectors.toList());
+        assertThat(result).hasSize(RegistrationService.MAX_PAGE_SIZE + 1).endsWith(participantDto2);
+    }
+
+    @Test
+    void exportParticipants_filtersByStatus() {
+        when(participantStore.listParticipants(Set.of(ONBOARDED), null, RegistrationService.MAX_PAGE_SIZE)).thenReturn(List.of());
+
+        assertThat(service.exportParticipants(ParticipantStatusDto.ONBOARDED)).isEmpty();
+    }
+
+    @Test
+    void listChanges() {
+        var participant = participantBuilder.sequence(42).build();
+        var participantDto = participantDtoBuilder.sequence(42).build();
+        when(participantStore.listChanges(41, 10)).thenReturn(List.of(participant));
+        when(dtoTransformerRegistry.transform(participant, ParticipantDto.class))
+                .thenReturn(success(participantDto));
+
+        assertThat(service.listChanges(41, 10)).containsExactly(participantDto);
+    }
+
+    @Test
+    void listChanges_invalidArguments() {
+        assertThatThrownBy(() -> service.listChanges(-1, 10)).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> service.listChanges(0, 0)).isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(participantStore);
+    }
+
     @Test
     void listParticipants_verifyResultFilter() {
         var participant1 = participantBuilder.build();
         var participant2 = createParticipant().build();
         var participantDto1 = participantDtoBuilder.build();
 
-        when(participantStore.listParticipants()).thenReturn(List.of(participant1, participant2));
+        when(participantStore.listParticipants(Set.of(), null, 11)).thenReturn(List.of(participant1, participant2));
         // Transform for participant1 returns success.
         when(dtoTransformerRegistry.transform(participant1, ParticipantDto.class))
                 .thenReturn(success(participantDto1));
@@ -95,11 +261,10 @@ class RegistrationServiceTest {
         when(dtoTransformerRegistry.transform(participant2, ParticipantDto.class))
                 .thenReturn(failure("dummy-failure-from-test"));
 
-        var result = service.listParticipants();
+        var result = service.listParticipants(null, null, 10).getParticipants();
 
         assertThat(result).hasSize(1);
         assertThat(result).containsExactly(participantDto1);
-        verify(participantStore).listParticipants();
         verify(dtoTransformerRegistry).transform(participant1, ParticipantDto.class);
         verify(dtoTransformerRegistry).transform(participant2, ParticipantDto.class);
     }
@@ -111,7 +276,7 @@ class RegistrationServiceTest {
         service.addParticipant(did);
 
         var captor = ArgumentCaptor.forClass(Participant.class);
-        verify(participantStore).save(captor.capture());
+        verify(participantStore).saveIfAbsent(captor.capture());
         assertThat(captor.getValue())
                 .usingRecursiveComparison()
                 .isEqualTo(Participant.Builder.newInstance()
@@ -121,6 +286,136 @@ class RegistrationServiceTest {
                         .build());
     }
 
+    @Test
+    void addParticipant_notifiesListenersAfterSave() {
+        var listener = mock(ParticipantListener.class);
+        service.registerListener(listener);
+        when(participantStore.saveIfAbsent(any())).thenReturn(true);
+
+        service.addParticipant(did);
+
+        var captor = ArgumentCaptor.forClass(Participant.class);
+        var inOrder = inOrder(participantStore, listener);
+        inOrder.verify(participantStore).saveIfAbsent(captor.capture());
+        inOrder.verify(listener).added(captor.getValue());
+    }
+
+    @Test
+    void addParticipant_alreadyRegistered() {
+        var listener = mock(ParticipantListener.class);
+        service.registerListener(listener);
+        when(participantStore.saveIfAbsent(any())).thenReturn(false);
+
+        service.addParticipant(did);
+
+        verify(participantStore, never()).save(any());
+        verifyNoInteractions(listener);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importParticipants() {
+        var listener = mock(ParticipantListener.class);
+        service.registerListener(listener);
+        var existing = participantBuilder.did("did:web:existing").build();
+        when(participantStore.saveAllIfAbsent(any())).thenAnswer(invocation -> ((Collection<Participant>) invocation.getArgument(0)).stream()
+                .filter(participant -> !participant.getDid().equals(existing.getDid()))
+                .map(participant -> participant.withSequence(7))
+                .collect(Collectors.toList()));
+
+        var results = service.importParticipants(OPERATOR_DID,
+                List.of("did:web:new", "not-a-did", existing.getDid(), "did:web:new").iterator());
+
+        assertThat(results).extracting(ParticipantImportResultDto::getDid, ParticipantImportResultDto::getOutcome).containsExactly(
+                tuple("did:web:new", REGISTERED),
+                tuple("not-a-did", INVALID),
+                tuple(existing.getDid(), ALREADY_REGISTERED),
+                tuple("did:web:new", ALREADY_REGISTERED));
+        ArgumentCaptor<Collection<Participant>> captor = ArgumentCaptor.forClass(Collection.class);
+        var inOrder = inOrder(participantStore, listener);
+        inOrder.verify(participantStore).saveAllIfAbsent(captor.capture());
+        assertThat(captor.getValue()).extracting(Participant::getDid).containsExactly("did:web:new", existing.getDid());
+        assertThat(captor.getValue()).allSatisfy(participant -> assertThat(participant.getStatus()).isEqualTo(ONBOARDING_INITIATED));
+        inOrder.verify(listener).added(argThat(participant -> participant.getDid().equals("did:web:new") && participant.getSequence() == 7));
+        verify(listener, never()).added(argThat(participant -> participant.getDid().equals(existing.getDid())));
+        verify(participantStore, never()).save(any());
+        verify(participantStore, never()).findByDid(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importParticipants_savesInBatches() {
+        when(participantStore.saveAllIfAbsent(any())).thenAnswer(invocation -> List.copyOf((Collection<Participant>) invocation.getArgument(0)));
+        var dids = IntStream.range(0, RegistrationService.IMPORT_BATCH_SIZE + 1).mapToObj(i -> "did:web:participant-" + i).collect(Collectors.toList());
+
+        var results = service.importParticipants(OPERATOR_DID, dids.iterator());
+
+        assertThat(results).hasSize(dids.size()).allSatisfy(result -> assertThat(result.getOutcome()).isEqualTo(REGISTERED));
+        verify(participantStore).saveAllIfAbsent(argThat(batch -> batch.size() == RegistrationService.IMPORT_BATCH_SIZE));
+        verify(participantStore).saveAllIfAbsent(argThat(batch -> batch.size() == 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importParticipants_malformedLine_savesDidsReadBefore() throws Exception {
+        var listener = mock(ParticipantListener.class);
+        service.registerListener(listener);
+        when(participantStore.saveAllIfAbsent(any())).thenAnswer(invocation -> List.copyOf((Collection<Participant>) invocation.getArgument(0)));
+        var ndjson = "\"did:web:participant-1\"\n\"did:web:participant-2\"\nnot json\n\"did:web:participant-3\"\n";
+        MappingIterator<String> dids = new ObjectMapper().readerFor(String.class).readValues(ndjson);
+
+        assertThatThrownBy(() -> service.importParticipants(OPERATOR_DID, dids)).isInstanceOf(RuntimeException.class);
+
+        verify(participantStore).saveAllIfAbsent(argThat(batch -> batch.stream().map(Participant::getDid)
+                .collect(Collectors.toList()).equals(List.of("did:web:participant-1", "did:web:participant-2"))));
+        verify(listener).added(argThat(participant -> participant.getDid().equals("did:web:participant-1")));
+        verify(listener).added(argThat(participant -> participant.getDid().equals("did:web:participant-2")));
+    }
+
+    @Test
+    void importParticipants_concurrentlyWithRegistrations() throws Exception {
+        var store = new InMemoryParticipantStore();
+        var service = new RegistrationService(monitor, store, dtoTransformerRegistry, telemetryMock, statusWatcher, Set.of(OPERATOR_DID));
+        var added = new ConcurrentHashMap<String, Integer>();
+        service.registerListener(new ParticipantListener() {
+            @Override
+            public void added(Participant participant) {
+                added.merge(participant.getDid(), 1, Integer::sum);
+            }
+        });
+        var dids = IntStream.range(0, 2 * RegistrationService.IMPORT_BATCH_SIZE + 1).mapToObj(i -> "did:web:participant-" + i).collect(Collectors.toList());
+        var executor = Executors.newFixedThreadPool(2);
+        var start = new CountDownLatch(1);
+
+        var imported = executor.submit(() -> {
+            start.await();
+            return service.importParticipants(OPERATOR_DID, dids.iterator());
+        });
+        var registered = executor.submit(() -> {
+            start.await();
+            dids.forEach(service::addParticipant);
+            return null;
+        });
+        start.countDown();
+        var results = imported.get(60, SECONDS);
+        registered.get(60, SECONDS);
+        executor.shutdown();
+
+        // a DID registered concurrently is reported as already registered, and saved once
+        assertThat(results).extracting(ParticipantImportResultDto::getDid).containsExactlyElementsOf(dids);
+        assertThat(results).extracting(ParticipantImportResultDto::getOutcome).containsOnly(REGISTERED, ALREADY_REGISTERED);
+        assertThat(added).hasSize(dids.size()).allSatisfy((did, count) -> assertThat(count).isEqualTo(1));
+        assertThat(store.listChanges(0, dids.size() + 1)).extracting(Participant::getSequence)
+                .containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, dids.size()).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void importParticipants_notOperator() {
+        assertThatThrownBy(() -> service.importParticipants(did, List.of("did:web:new").iterator()))
+                .isInstanceOf(NotAuthorizedException.class);
+        verifyNoInteractions(participantStore);
+    }
+
     @Test
     void findByDid() {
         var participant = participantBuilder.build();
@@ -166,6 +461,81 @@ class RegistrationServiceTest {
         verifyNoInteractions(dtoTransformerRegistry);
     }
 
+    @Test
+    void awaitStatusChange_alreadyChanged() {
+        var participant = participantBuilder.status(ONBOARDED).build();
+        var participantDto = participantDtoBuilder.build();
+        when(participantStore.findByDid(participant.getDid())).thenReturn(participant);
+        when(dtoTransformerRegistry.transform(participant, ParticipantDto.class)).thenReturn(success(participantDto));
+
+        var change = service.awaitStatusChange(participant.getDid(), ParticipantStatusDto.ONBOARDING_IN_PROGRESS, Duration.ofSeconds(10));
+
+        assertThat(change).isCompletedWithValue(participantDto);
+        assertThat(statusWatcher.watchCount()).isZero();
+    }
+
+    @Test
+    void awaitStatusChange_completesOnStatusChange() {
+        var participant = participantBuilder.status(AUTHORIZING).build();
+        var onboarded = createParticipant().did(participant.getDid()).status(ONBOARDED).build();
+        var participantDto = participantDtoBuilder.build();
+        when(participantStore.findByDid(participant.getDid())).thenReturn(participant);
+        when(dtoTransformerRegistry.transform(onboarded, ParticipantDto.class)).thenReturn(success(participantDto));
+
+        var change = service.awaitStatusChange(participant.getDid(), null, Duration.ofSeconds(10));
+
+        assertThat(change).isNotDone();
+        statusWatcher.statusChanged(createParticipant().did(participant.getDid()).status(AUTHORIZED).build());
+        assertThat(change).isNotDone();
+        statusWatcher.statusChanged(onboarded);
+        assertThat(change).isCompletedWithValue(participantDto);
+        assertThat(statusWatcher.watchCount()).isZero();
+    }
+
+    @Test
+    void awaitStatusChange_timeout() {
+        var participant = participantBuilder.status(AUTHORIZING).build();
+        var participantDto = participantDtoBuilder.build();
+        when(participantStore.findByDid(participant.getDid())).thenReturn(participant);
+        when(dtoTransformerRegistry.transform(participant, ParticipantDto.class)).thenReturn(success(participantDto));
+
+        var change = service.awaitStatusChange(participant.getDid(), ParticipantStatusDto.ONBOARDING_IN_PROGRESS, Duration.ofMillis(10));
+
+        assertThat(change).succeedsWithin(Duration.ofSeconds(5)).isEqualTo(participantDto);
+    }
+
+    @Test
+    void awaitStatusChange_timeout_returnsStoredParticipant() {
+        var participant = participantBuilder.status(AUTHORIZING).build();
+        // saved by another service instance while waiting
+        var onboarded = createParticipant().did(participant.getDid()).status(ONBOARDED).build();
+        var participantDto = participantDtoBuilder.build();
+        when(participantStore.findByDid(participant.getDid())).thenReturn(participant, onboarded);
+        when(dtoTransformerRegistry.transform(onboarded, ParticipantDto.class)).thenReturn(success(participantDto));
+
+        var change = service.awaitStatusChange(participant.getDid(), ParticipantStatusDto.ONBOARDING_IN_PROGRESS, Duration.ofMillis(10));
+
+        assertThat(change).succeedsWithin(Duration.ofSeconds(5)).isEqualTo(participantDto);
+        verify(participantStore, times(2)).findByDid(participant.getDid());
+    }
+
+    @Test
+    void awaitStatusChange_notFound() {
+        when(participantStore.findByDid(did)).thenReturn(null);
+
+        assertThatThrownBy(() -> service.awaitStatusChange(did, null, Duration.ofSeconds(10)))
+                .isInstanceOf(ObjectNotFoundException.class);
+        assertThat(statusWatcher.watchCount()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { -1, RegistrationService.MAX_STATUS_CHANGE_TIMEOUT_SECONDS + 1 })
+    void awaitStatusChange_invalidTimeout(int timeout) {
+        assertThatThrownBy(() -> service.awaitStatusChange(did, null, Duration.ofSeconds(timeout)))
+                .isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(participantStore);
+    }
+
     @NotNull
     private Map<String, String> getTraceContext() {
         return Map.of(FAKER.lorem().word(), FAKER.lorem().word(), FAKER.lorem().word(), FAKER.lorem().word());
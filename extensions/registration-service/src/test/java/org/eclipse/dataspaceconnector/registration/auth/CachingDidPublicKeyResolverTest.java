@@ -0,0 +1,105 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.auth;
+
+import com.github.javafaker.Faker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.dataspaceconnector.iam.did.spi.key.PublicKeyWrapper;
+import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidPublicKeyResolver;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.registration.auth.CachingDidPublicKeyResolver.RESOLUTION_TIMER;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingDidPublicKeyResolverTest {
+    static final Faker FAKER = new Faker();
+    static final Duration TTL = Duration.ofMinutes(5);
+    static final Duration MIN_REFRESH_INTERVAL = Duration.ofSeconds(10);
+
+    String did = FAKER.internet().url();
+    DidPublicKeyResolver delegate = mock(DidPublicKeyResolver.class);
+    Result<PublicKeyWrapper> publicKey = Result.success(mock(PublicKeyWrapper.class));
+    AtomicLong nanos = new AtomicLong();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    CachingDidPublicKeyResolver resolver = new CachingDidPublicKeyResolver(delegate, TTL, 100, MIN_REFRESH_INTERVAL, meterRegistry, nanos::get);
+
+    @Test
+    void resolvePublicKey_cachesKeyUntilTtl() {
+        when(delegate.resolvePublicKey(did)).thenReturn(publicKey);
+
+        assertThat(resolver.resolvePublicKey(did)).isSameAs(publicKey);
+        advance(TTL.minusSeconds(1));
+        assertThat(resolver.resolvePublicKey(did)).isSameAs(publicKey);
+        verify(delegate, times(1)).resolvePublicKey(did);
+
+        advance(Duration.ofSeconds(1));
+        resolver.resolvePublicKey(did);
+        verify(delegate, times(2)).resolvePublicKey(did);
+    }
+
+    @Test
+    void resolvePublicKey_doesNotCacheFailure() {
+        when(delegate.resolvePublicKey(did))
+                .thenReturn(Result.failure(FAKER.lorem().sentence()))
+                .thenReturn(publicKey);
+
+        assertThat(resolver.resolvePublicKey(did).failed()).isTrue();
+        assertThat(resolver.resolvePublicKey(did)).isSameAs(publicKey);
+    }
+
+    @Test
+    void refreshPublicKey_atMostOncePerInterval() {
+        Result<PublicKeyWrapper> rotatedKey = Result.success(mock(PublicKeyWrapper.class));
+        when(delegate.resolvePublicKey(did)).thenReturn(publicKey).thenReturn(rotatedKey);
+        resolver.resolvePublicKey(did);
+
+        assertThat(resolver.refreshPublicKey(did)).isSameAs(publicKey);
+        advance(MIN_REFRESH_INTERVAL);
+        assertThat(resolver.refreshPublicKey(did)).isSameAs(rotatedKey);
+        assertThat(resolver.resolvePublicKey(did)).isSameAs(rotatedKey);
+
+        verify(delegate, times(2)).resolvePublicKey(did);
+    }
+
+    @Test
+    void recordsMetrics() {
+        when(delegate.resolvePublicKey(did)).thenAnswer(i -> {
+            advance(Duration.ofMillis(50));
+            return publicKey;
+        });
+
+        resolver.resolvePublicKey(did);
+        resolver.resolvePublicKey(did);
+        resolver.resolvePublicKey(did);
+
+        assertThat(resolver.stats().hitRate()).isEqualTo(2.0 / 3);
+        var timer = meterRegistry.get(RESOLUTION_TIMER).timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(MILLISECONDS)).isEqualTo(50);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
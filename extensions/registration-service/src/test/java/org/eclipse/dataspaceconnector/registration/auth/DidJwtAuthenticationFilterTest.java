@@ -15,7 +15,10 @@
 package org.eclipse.dataspaceconnector.registration.auth;
 
 import com.github.javafaker.Faker;
+import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.MultivaluedHashMap;
 import org.assertj.core.api.ThrowableAssertAlternative;
@@ -33,11 +36,15 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.eclipse.dataspaceconnector.registration.auth.DidJwtAuthenticationFilter.CALLER_DID_HEADER;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class DidJwtAuthenticationFilterTest {
@@ -48,11 +55,16 @@ class DidJwtAuthenticationFilterTest {
     DidPublicKeyResolver didPublicKeyResolver = mock(DidPublicKeyResolver.class);
     String audience = FAKER.lorem().sentence();
     String issuer = FAKER.internet().url();
-    DidJwtAuthenticationFilter filter = new DidJwtAuthenticationFilter(monitor, didPublicKeyResolver, audience);
+    AtomicLong nanos = new AtomicLong();
+    CachingDidPublicKeyResolver cachingResolver = new CachingDidPublicKeyResolver(didPublicKeyResolver,
+            Duration.ofMinutes(5), 100, Duration.ofSeconds(10), new SimpleMeterRegistry(), nanos::get);
+    VerifiedTokenCache verifiedTokens = new VerifiedTokenCache(Duration.ofMinutes(5), 100, Clock.systemUTC(), new SimpleMeterRegistry());
+    DidJwtAuthenticationFilter filter = new DidJwtAuthenticationFilter(monitor, cachingResolver, verifiedTokens, audience);
 
     ContainerRequestContext request = mock(ContainerRequestContext.class);
     MultivaluedHashMap<String, String> headers = new MultivaluedHashMap<>();
     EcPrivateKeyWrapper privateKey;
+    EcPublicKeyWrapper publicKey;
 
     private String authHeader;
 
@@ -60,7 +72,7 @@ class DidJwtAuthenticationFilterTest {
     void setUp() throws Exception {
         when(request.getHeaders()).thenReturn(headers);
         privateKey = new EcPrivateKeyWrapper(JWK.parseFromPEMEncodedObjects(TestKeyData.PRIVATE_KEY_P256).toECKey());
-        var publicKey = new EcPublicKeyWrapper(JWK.parseFromPEMEncodedObjects(TestKeyData.PUBLIC_KEY_P256).toECKey());
+        publicKey = new EcPublicKeyWrapper(JWK.parseFromPEMEncodedObjects(TestKeyData.PUBLIC_KEY_P256).toECKey());
         when(didPublicKeyResolver.resolvePublicKey(issuer))
                 .thenReturn(Result.success(publicKey));
 
@@ -86,6 +98,78 @@ class DidJwtAuthenticationFilterTest {
         assertThat(headers.get(CALLER_DID_HEADER)).containsExactly(issuer);
     }
 
+    @Test
+    void filter_cachesVerifiedToken() {
+        headers.putSingle(AUTHORIZATION, authHeader);
+        filter.filter(request);
+
+        assertThat(verifiedTokens.getIssuer(authHeader.substring("Bearer ".length()))).isEqualTo(issuer);
+
+        headers.remove(CALLER_DID_HEADER);
+        filter.filter(request);
+        assertThat(headers.get(CALLER_DID_HEADER)).containsExactly(issuer);
+    }
+
+    @Test
+    void filter_doesNotCacheInvalidToken() {
+        var token = getTokenFor("other audience " + FAKER.lorem().word());
+        headers.putSingle(AUTHORIZATION, "Bearer " + token);
+
+        assertNotAuthenticated("Invalid JWT (verification error)");
+
+        assertThat(verifiedTokens.getIssuer(token)).isNull();
+    }
+
+    @Test
+    void filter_cachesPublicKey() {
+        headers.putSingle(AUTHORIZATION, authHeader);
+        filter.filter(request);
+        filter.filter(request);
+        headers.putSingle(AUTHORIZATION, "Bearer " + getTokenFor(audience));
+        filter.filter(request);
+
+        verify(didPublicKeyResolver, times(1)).resolvePublicKey(issuer);
+    }
+
+    @Test
+    void filter_onRotatedKey_refreshesKey() throws Exception {
+        when(didPublicKeyResolver.resolvePublicKey(issuer))
+                .thenReturn(Result.success(otherPublicKey()))
+                .thenReturn(Result.success(publicKey));
+        cachingResolver.resolvePublicKey(issuer);
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        headers.putSingle(AUTHORIZATION, authHeader);
+        filter.filter(request);
+
+        assertThat(headers.get(CALLER_DID_HEADER)).containsExactly(issuer);
+        verify(didPublicKeyResolver, times(2)).resolvePublicKey(issuer);
+    }
+
+    @Test
+    void filter_onInvalidSignature_refreshesKeyAtMostOncePerInterval() throws Exception {
+        when(didPublicKeyResolver.resolvePublicKey(issuer))
+                .thenReturn(Result.success(otherPublicKey()));
+        cachingResolver.resolvePublicKey(issuer);
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        headers.putSingle(AUTHORIZATION, authHeader);
+        assertNotAuthenticated("Invalid JWT (verification error)");
+        assertNotAuthenticated("Invalid JWT (verification error)");
+
+        verify(didPublicKeyResolver, times(2)).resolvePublicKey(issuer);
+    }
+
+    @Test
+    void filter_onClaimVerificationFailure_doesNotRefreshKey() {
+        headers.putSingle(AUTHORIZATION, "Bearer " + getTokenFor("other audience " + FAKER.lorem().word()));
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertNotAuthenticated("Invalid JWT (verification error)");
+
+        verify(didPublicKeyResolver, times(1)).resolvePublicKey(issuer);
+    }
+
     @Test
     void filter_onMissingAuthHeader_fails() {
         assertNotAuthenticated("Cannot authenticate request. Missing Authorization header");
@@ -124,6 +208,10 @@ class DidJwtAuthenticationFilterTest {
         assertNotAuthenticated("Invalid JWT (verification error). Claim verification failed.");
     }
 
+    private static EcPublicKeyWrapper otherPublicKey() throws Exception {
+        return new EcPublicKeyWrapper(new ECKeyGenerator(Curve.P_256).generate().toPublicJWK());
+    }
+
     private ThrowableAssertAlternative<AuthenticationFailedException> assertNotAuthenticated(String message) {
         return assertThatExceptionOfType(AuthenticationFailedException.class)
                 .isThrownBy(() -> filter.filter(request))
@@ -0,0 +1,99 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.auth;
+
+import com.github.javafaker.Faker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VerifiedTokenCacheTest {
+    static final Faker FAKER = new Faker();
+    static final Duration MAX_TTL = Duration.ofMinutes(5);
+
+    Instant now = Instant.now();
+    Clock clock = mock(Clock.class);
+    VerifiedTokenCache cache = new VerifiedTokenCache(MAX_TTL, 10, clock, new SimpleMeterRegistry());
+    String token = FAKER.lorem().characters(200);
+    String issuer = FAKER.internet().url();
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(now);
+    }
+
+    @Test
+    void getIssuer_untilTokenExpires() {
+        cache.put(token, issuer, now.plusSeconds(60));
+
+        assertThat(cache.getIssuer(token)).isEqualTo(issuer);
+        assertThat(cache.getIssuer(token + "x")).isNull();
+
+        when(clock.instant()).thenReturn(now.plusSeconds(60));
+        assertThat(cache.getIssuer(token)).isNull();
+    }
+
+    @Test
+    void getIssuer_atMostForMaxTtl() {
+        cache.put(token, issuer, now.plus(MAX_TTL).plusSeconds(60));
+
+        when(clock.instant()).thenReturn(now.plus(MAX_TTL).minusSeconds(1));
+        assertThat(cache.getIssuer(token)).isEqualTo(issuer);
+
+        when(clock.instant()).thenReturn(now.plus(MAX_TTL));
+        assertThat(cache.getIssuer(token)).isNull();
+    }
+
+    @Test
+    void put_withoutExpirationTime_notCached() {
+        cache.put(token, issuer, null);
+
+        assertThat(cache.getIssuer(token)).isNull();
+    }
+
+    @Test
+    void put_expiredToken_notCached() {
+        cache.put(token, issuer, now.minusSeconds(1));
+
+        assertThat(cache.getIssuer(token)).isNull();
+    }
+
+    @Test
+    void put_zeroMaximumSize_notCached() {
+        var disabled = new VerifiedTokenCache(MAX_TTL, 0, clock, new SimpleMeterRegistry());
+
+        disabled.put(token, issuer, now.plusSeconds(60));
+
+        assertThat(disabled.getIssuer(token)).isNull();
+        assertThat(disabled.size()).isZero();
+    }
+
+    @Test
+    void put_boundedSize() {
+        for (var i = 0; i < 100; i++) {
+            cache.put(token + i, issuer, now.plusSeconds(60));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+}
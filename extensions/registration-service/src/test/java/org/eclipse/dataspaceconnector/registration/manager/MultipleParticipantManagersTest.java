@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.manager;
+
+import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
+import org.eclipse.dataspaceconnector.registration.authority.spi.ParticipantVerifier;
+import org.eclipse.dataspaceconnector.registration.credential.VerifiableCredentialService;
+import org.eclipse.dataspaceconnector.registration.store.InMemoryParticipantStore;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.eclipse.dataspaceconnector.spi.response.StatusResult;
+import org.eclipse.dataspaceconnector.spi.system.ExecutorInstrumentation;
+import org.eclipse.dataspaceconnector.spi.telemetry.Telemetry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.dataspaceconnector.registration.authority.TestUtils.createParticipant;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDED;
+import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDING_INITIATED;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs several {@link ParticipantManager}s against a single store, as several service replicas would.
+ */
+class MultipleParticipantManagersTest {
+
+    static final int PARTICIPANTS = 300;
+    static final int MANAGERS = 4;
+
+    InMemoryParticipantStore store = new InMemoryParticipantStore();
+    Map<String, AtomicInteger> verifications = new ConcurrentHashMap<>();
+    Map<String, AtomicInteger> credentialPushes = new ConcurrentHashMap<>();
+    List<ParticipantManager> managers;
+
+    @AfterEach
+    void tearDown() {
+        managers.forEach(ParticipantManager::stop);
+    }
+
+    @Test
+    void processesEachParticipantOnce() {
+        var participants = IntStream.range(0, PARTICIPANTS)
+                .mapToObj(i -> createParticipant().status(ONBOARDING_INITIATED).build())
+                .collect(Collectors.toList());
+        participants.forEach(store::save);
+
+        ParticipantVerifier verifier = did -> {
+            verifications.computeIfAbsent(did, k -> new AtomicInteger()).incrementAndGet();
+            return StatusResult.success(true);
+        };
+        VerifiableCredentialService credentialService = participant -> {
+            credentialPushes.computeIfAbsent(participant.getDid(), k -> new AtomicInteger()).incrementAndGet();
+            return StatusResult.success();
+        };
+        managers = IntStream.range(0, MANAGERS)
+                .mapToObj(i -> ParticipantManager.Builder.newInstance()
+                        .monitor(mock(Monitor.class))
+                        .participantStore(store)
+                        .participantVerifier(verifier)
+                        .executorInstrumentation(ExecutorInstrumentation.noop())
+                        .verifiableCredentialService(credentialService)
+                        .telemetry(new Telemetry())
+                        .batchSize(ONBOARDING_INITIATED, 5)
+                        .build())
+                .collect(Collectors.toList());
+
+        managers.forEach(ParticipantManager::start);
+
+        await().atMost(1, MINUTES).untilAsserted(() ->
+                assertThat(store.listParticipantsWithStatus(ONBOARDED)).hasSize(PARTICIPANTS));
+        var dids = participants.stream().map(Participant::getDid).collect(Collectors.toList());
+        assertThat(verifications).containsOnlyKeys(dids);
+        assertThat(verifications.values()).allSatisfy(count -> assertThat(count).hasValue(1));
+        assertThat(credentialPushes).containsOnlyKeys(dids);
+        assertThat(credentialPushes.values()).allSatisfy(count -> assertThat(count).hasValue(1));
+    }
+}
@@ -16,6 +16,7 @@ package org.eclipse.dataspaceconnector.registration.manager;
 
 import org.eclipse.dataspaceconnector.registration.authority.model.Participant;
 import org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus;
+import org.eclipse.dataspaceconnector.registration.authority.spi.ParticipantListener;
 import org.eclipse.dataspaceconnector.registration.authority.spi.ParticipantVerifier;
 import org.eclipse.dataspaceconnector.registration.credential.VerifiableCredentialService;
 import org.eclipse.dataspaceconnector.registration.store.spi.ParticipantStore;
@@ -27,10 +28,17 @@ import org.eclipse.dataspaceconnector.spi.telemetry.Telemetry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -41,10 +49,21 @@ import static org.eclipse.dataspaceconnector.registration.authority.model.Partic
 import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.FAILED;
 import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDED;
 import static org.eclipse.dataspaceconnector.registration.authority.model.ParticipantStatus.ONBOARDING_INITIATED;
+import static org.eclipse.dataspaceconnector.spi.response.ResponseStatus.ERROR_RETRY;
+import static org.junit.jupiter.params.provider.EnumSource.Mode.EXCLUDE;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.intThat;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -54,7 +73,16 @@ class ParticipantManagerTest {
     ParticipantStore participantStore = mock(ParticipantStore.class);
     ParticipantVerifier participantVerifier = mock(ParticipantVerifier.class);
     VerifiableCredentialService verifiableCredentialService = mock(VerifiableCredentialService.class);
-    ParticipantManager service = new ParticipantManager(monitor, participantStore, participantVerifier, ExecutorInstrumentation.noop(), verifiableCredentialService, new Telemetry());
+    ParticipantListener listener = mock(ParticipantListener.class);
+    ParticipantManager service = ParticipantManager.Builder.newInstance()
+            .monitor(monitor)
+            .participantStore(participantStore)
+            .participantVerifier(participantVerifier)
+            .executorInstrumentation(ExecutorInstrumentation.noop())
+            .verifiableCredentialService(verifiableCredentialService)
+            .telemetry(new Telemetry())
+            .listener(listener)
+            .build();
     Participant.Builder participantBuilder = createParticipant();
     ArgumentCaptor<Participant> captor = ArgumentCaptor.forClass(Participant.class);
 
@@ -76,20 +104,96 @@ class ParticipantManagerTest {
     }
 
     @ParameterizedTest
-    @EnumSource(ResponseStatus.class)
+    @EnumSource(value = ResponseStatus.class, names = "ERROR_RETRY", mode = EXCLUDE)
     void advancesStateFromAuthorizingToFailed(ResponseStatus errorStatus) throws Exception {
         when(participantVerifier.isOnboardingAllowed(any())).thenReturn(StatusResult.failure(errorStatus));
         advancesState(AUTHORIZING, FAILED);
     }
 
     @ParameterizedTest
-    @EnumSource(ResponseStatus.class)
+    @EnumSource(value = ResponseStatus.class, names = "ERROR_RETRY", mode = EXCLUDE)
     void advancesStateFromAuthorizedToFailed(ResponseStatus errorStatus) throws Exception {
         when(verifiableCredentialService.pushVerifiableCredential(any()))
                 .thenReturn(StatusResult.failure(errorStatus));
         advancesState(AUTHORIZED, FAILED);
     }
 
+    @Test
+    void notifiesListenersOfStatusChange() throws Exception {
+        when(participantVerifier.isOnboardingAllowed(any())).thenReturn(StatusResult.success(true));
+        var participant = advancesState(AUTHORIZING, AUTHORIZED);
+
+        verify(listener, timeout(1000)).statusChanged(participant);
+    }
+
+    @Test
+    void discardsOutcomeWhenParticipantSavedConcurrently() throws Exception {
+        when(participantVerifier.isOnboardingAllowed(any())).thenReturn(StatusResult.success(true));
+        var participant = participantBuilder.status(AUTHORIZING).sequence(42).build();
+        when(participantStore.claimNextForState(eq(AUTHORIZING), anyInt(), any(), any()))
+                .thenReturn(List.of(participant), List.of());
+        var latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(participantStore).breakLease(any(), any());
+        when(participantStore.save(any(), anyLong())).thenReturn(null);
+
+        service.start();
+        assertThat(latch.await(10, SECONDS)).isTrue();
+        service.stop();
+
+        verify(participantStore).save(argThat(saved -> saved.getStatus() == AUTHORIZED), eq(42L));
+        verify(listener, never()).statusChanged(any());
+    }
+
+    @Test
+    void retriesAuthorizingOnTransientFailure() throws Exception {
+        when(participantVerifier.isOnboardingAllowed(any())).thenReturn(StatusResult.failure(ERROR_RETRY));
+        var participant = advancesState(AUTHORIZING, AUTHORIZING);
+
+        assertThat(participant.getRetryCount()).isEqualTo(1);
+        assertThat(participant.getNextAttemptAt()).isGreaterThan(0);
+        verify(listener, never()).statusChanged(any());
+    }
+
+    @Test
+    void retriesAuthorizedOnTransientFailure() throws Exception {
+        when(verifiableCredentialService.pushVerifiableCredential(any())).thenReturn(StatusResult.failure(ERROR_RETRY));
+        var participant = advancesState(AUTHORIZED, AUTHORIZED);
+
+        assertThat(participant.getRetryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failsAfterMaxRetries() throws Exception {
+        when(participantVerifier.isOnboardingAllowed(any())).thenReturn(StatusResult.failure(ERROR_RETRY));
+        participantBuilder.retryCount(ParticipantManager.DEFAULT_MAX_RETRIES);
+
+        var participant = advancesState(AUTHORIZING, FAILED);
+
+        assertThat(participant.getRetryCount()).isZero();
+    }
+
+    @Test
+    void retryDelay_backsOffExponentiallyWithJitter() {
+        var manager = ParticipantManager.Builder.newInstance()
+                .monitor(monitor)
+                .participantStore(participantStore)
+                .participantVerifier(participantVerifier)
+                .executorInstrumentation(ExecutorInstrumentation.noop())
+                .verifiableCredentialService(verifiableCredentialService)
+                .telemetry(new Telemetry())
+                .retryDelay(Duration.ofSeconds(1), Duration.ofSeconds(10))
+                .build();
+
+        assertThat(manager.retryDelay(0)).isBetween(500L, 1000L);
+        assertThat(manager.retryDelay(1)).isBetween(1000L, 2000L);
+        assertThat(manager.retryDelay(3)).isBetween(4000L, 8000L);
+        assertThat(manager.retryDelay(4)).isBetween(5000L, 10000L);
+        assertThat(manager.retryDelay(100)).isBetween(5000L, 10000L);
+    }
+
     @Test
     void advancesStateFromAuthorizedToOnboarded() throws Exception {
         when(verifiableCredentialService.pushVerifiableCredential(any()))
@@ -97,28 +201,240 @@ class ParticipantManagerTest {
         advancesState(AUTHORIZED, ONBOARDED);
     }
 
+    @Test
+    void usesConfiguredBatchSizePerState() throws Exception {
+        var manager = ParticipantManager.Builder.newInstance()
+                .monitor(monitor)
+                .participantStore(participantStore)
+                .participantVerifier(participantVerifier)
+                .executorInstrumentation(ExecutorInstrumentation.noop())
+                .verifiableCredentialService(verifiableCredentialService)
+                .telemetry(new Telemetry())
+                .batchSize(AUTHORIZING, 3)
+                .build();
+        var latch = new CountDownLatch(1);
+        when(participantStore.claimNextForState(any(), anyInt(), any(), any())).thenReturn(List.of());
+        when(participantStore.claimNextForState(eq(AUTHORIZED), eq(ParticipantManager.DEFAULT_BATCH_SIZE), any(), any())).thenAnswer(invocation -> {
+            latch.countDown();
+            return List.of();
+        });
+
+        manager.start();
+        assertThat(latch.await(10, SECONDS)).isTrue();
+        manager.stop();
+
+        verify(participantStore, atLeastOnce()).claimNextForState(eq(ONBOARDING_INITIATED), eq(ParticipantManager.DEFAULT_BATCH_SIZE), any(), any());
+        verify(participantStore, atLeastOnce()).claimNextForState(eq(AUTHORIZING), eq(3), any(), any());
+    }
+
+    @Test
+    void claimsParticipantsAndReleasesLeaseAfterSave() throws Exception {
+        var leaseDuration = Duration.ofSeconds(42);
+        var manager = ParticipantManager.Builder.newInstance()
+                .monitor(monitor)
+                .participantStore(participantStore)
+                .participantVerifier(participantVerifier)
+                .executorInstrumentation(ExecutorInstrumentation.noop())
+                .verifiableCredentialService(verifiableCredentialService)
+                .telemetry(new Telemetry())
+                .leaseHolder("test-holder")
+                .leaseDuration(leaseDuration)
+                .build();
+        var participant = participantBuilder.status(ONBOARDING_INITIATED).build();
+        when(participantStore.claimNextForState(any(), anyInt(), any(), any())).thenReturn(List.of());
+        when(participantStore.claimNextForState(eq(ONBOARDING_INITIATED), anyInt(), eq("test-holder"), eq(leaseDuration)))
+                .thenReturn(List.of(participant), List.of());
+        when(participantStore.save(any(), anyLong())).thenAnswer(invocation -> invocation.getArgument(0));
+        var latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(participantStore).breakLease(any(), any());
+
+        manager.start();
+        assertThat(latch.await(10, SECONDS)).isTrue();
+        manager.stop();
+
+        var inOrder = inOrder(participantStore);
+        inOrder.verify(participantStore).save(argThat(saved -> saved.getDid().equals(participant.getDid())), eq(0L));
+        inOrder.verify(participantStore).breakLease(participant.getDid(), "test-holder");
+    }
+
+    @Test
+    void renewsLeaseWhileProcessing() throws Exception {
+        var leaseDuration = Duration.ofMillis(150);
+        var manager = ParticipantManager.Builder.newInstance()
+                .monitor(monitor)
+                .participantStore(participantStore)
+                .participantVerifier(participantVerifier)
+                .executorInstrumentation(ExecutorInstrumentation.noop())
+                .verifiableCredentialService(verifiableCredentialService)
+                .telemetry(new Telemetry())
+                .leaseHolder("test-holder")
+                .leaseDuration(leaseDuration)
+                .build();
+        var participant = participantBuilder.status(AUTHORIZING).build();
+        when(participantStore.claimNextForState(any(), anyInt(), any(), any())).thenReturn(List.of());
+        when(participantStore.claimNextForState(eq(AUTHORIZING), anyInt(), eq("test-holder"), eq(leaseDuration)))
+                .thenReturn(List.of(participant), List.of());
+        when(participantStore.renewLease(any(), any(), any())).thenReturn(true);
+        // verification takes several lease durations
+        when(participantVerifier.isOnboardingAllowed(any())).thenAnswer(invocation -> {
+            Thread.sleep(leaseDuration.toMillis() * 4);
+            return StatusResult.success(true);
+        });
+        when(participantStore.save(any(), anyLong())).thenAnswer(invocation -> invocation.getArgument(0));
+        var latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(participantStore).breakLease(any(), any());
+
+        manager.start();
+        assertThat(latch.await(10, SECONDS)).isTrue();
+        manager.stop();
+
+        verify(participantStore, atLeast(3)).renewLease(participant.getDid(), "test-holder", leaseDuration);
+        var inOrder = inOrder(participantStore);
+        inOrder.verify(participantStore).save(argThat(saved -> saved.getDid().equals(participant.getDid())), eq(0L));
+        inOrder.verify(participantStore).breakLease(participant.getDid(), "test-holder");
+    }
+
+    @Test
+    void wakesUpWhenParticipantAdded() throws Exception {
+        var manager = ParticipantManager.Builder.newInstance()
+                .monitor(monitor)
+                .participantStore(participantStore)
+                .participantVerifier(participantVerifier)
+                .executorInstrumentation(ExecutorInstrumentation.noop())
+                .verifiableCredentialService(verifiableCredentialService)
+                .telemetry(new Telemetry())
+                .maxIdleWait(Duration.ofMinutes(1))
+                .build();
+        var participant = participantBuilder.status(ONBOARDING_INITIATED).build();
+        var idleIterations = new CountDownLatch(5);
+        var added = new AtomicBoolean();
+        when(participantStore.claimNextForState(any(), anyInt(), any(), any())).thenReturn(List.of());
+        when(participantStore.claimNextForState(eq(ONBOARDING_INITIATED), anyInt(), any(), any())).thenAnswer(invocation -> {
+            idleIterations.countDown();
+            return added.getAndSet(false) ? List.of(participant) : List.of();
+        });
+        var saved = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            saved.countDown();
+            return invocation.getArgument(0);
+        }).when(participantStore).save(any(), anyLong());
+
+        manager.start();
+        // the state machine is now idle, waiting for more than a second
+        assertThat(idleIterations.await(10, SECONDS)).isTrue();
+        added.set(true);
+        manager.added(participant);
+
+        assertThat(saved.await(1, SECONDS)).isTrue();
+        manager.stop();
+    }
+
+    @Test
+    void backsOffUpToMaxIdleWaitWhenIdle() throws Exception {
+        var manager = ParticipantManager.Builder.newInstance()
+                .monitor(monitor)
+                .participantStore(participantStore)
+                .participantVerifier(participantVerifier)
+                .executorInstrumentation(ExecutorInstrumentation.noop())
+                .verifiableCredentialService(verifiableCredentialService)
+                .telemetry(new Telemetry())
+                .maxIdleWait(Duration.ofMillis(400))
+                .build();
+        var iterations = new ConcurrentLinkedQueue<Long>();
+        var idleIterations = new CountDownLatch(7);
+        when(participantStore.claimNextForState(any(), anyInt(), any(), any())).thenReturn(List.of());
+        when(participantStore.claimNextForState(eq(ONBOARDING_INITIATED), anyInt(), any(), any())).thenAnswer(invocation -> {
+            iterations.add(System.nanoTime());
+            idleIterations.countDown();
+            return List.of();
+        });
+
+        manager.start();
+        assertThat(idleIterations.await(10, SECONDS)).isTrue();
+        manager.stop();
+
+        // waits 100 ms, 200 ms, then 400 ms from the fourth idle iteration on
+        var times = new ArrayList<>(iterations);
+        for (var i = 3; i < 6; i++) {
+            assertThat(Duration.ofNanos(times.get(i + 1) - times.get(i)).toMillis()).isBetween(350L, 2000L);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void processesParticipantsConcurrentlyUpToWorkerCount(boolean virtualThreads) throws Exception {
+        var manager = ParticipantManager.Builder.newInstance()
+                .monitor(monitor)
+                .participantStore(participantStore)
+                .participantVerifier(participantVerifier)
+                .executorInstrumentation(ExecutorInstrumentation.noop())
+                .verifiableCredentialService(verifiableCredentialService)
+                .telemetry(new Telemetry())
+                .workers(AUTHORIZING, 2)
+                .virtualThreads(virtualThreads)
+                .build();
+        var pending = new ConcurrentLinkedQueue<Participant>();
+        IntStream.range(0, 6).forEach(i -> pending.add(createParticipant().status(AUTHORIZING).build()));
+        when(participantStore.claimNextForState(any(), anyInt(), any(), any())).thenReturn(List.of());
+        when(participantStore.claimNextForState(eq(AUTHORIZING), anyInt(), any(), any())).thenAnswer(invocation -> {
+            int max = invocation.getArgument(1);
+            var claimed = new ArrayList<Participant>();
+            Participant participant;
+            while (claimed.size() < max && (participant = pending.poll()) != null) {
+                claimed.add(participant);
+            }
+            return claimed;
+        });
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        when(participantVerifier.isOnboardingAllowed(any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(100);
+            running.decrementAndGet();
+            return StatusResult.success(true);
+        });
+        var saved = new CountDownLatch(6);
+        doAnswer(invocation -> {
+            saved.countDown();
+            return invocation.getArgument(0);
+        }).when(participantStore).save(any(), anyLong());
+
+        manager.start();
+        assertThat(saved.await(10, SECONDS)).isTrue();
+        manager.stop();
+
+        assertThat(maxRunning.get()).isEqualTo(2);
+        verify(participantStore, never()).claimNextForState(eq(AUTHORIZING), intThat(max -> max > 2), any(), any());
+    }
+
     @SuppressWarnings("unchecked")
     private Participant advancesState(ParticipantStatus startState, ParticipantStatus endState) throws Exception {
         var participant = participantBuilder.status(startState).build();
-        when(participantStore.listParticipantsWithStatus(eq(startState)))
+        when(participantStore.claimNextForState(eq(startState), anyInt(), any(), any()))
                 .thenReturn(List.of(participant), List.of());
         var latch = new CountDownLatch(1);
         doAnswer(invocation -> {
             latch.countDown();
-            return null;
-        }).when(participantStore).save(any());
+            return invocation.getArgument(0);
+        }).when(participantStore).save(any(), anyLong());
 
         service.start();
         assertThat(latch.await(10, SECONDS)).isTrue();
 
-        verify(participantStore).save(captor.capture());
+        verify(participantStore).save(captor.capture(), eq(0L));
         assertThat(captor.getValue().getStatus()).isEqualTo(endState);
         assertThat(captor.getValue())
                 .usingRecursiveComparison()
-                .ignoringFieldsOfTypes(ParticipantStatus.class)
+                .ignoringFields("status", "retryCount", "nextAttemptAt")
                 .isEqualTo(participant);
 
         service.stop();
-        return participant;
+        return captor.getValue();
     }
 }
\ No newline at end of file
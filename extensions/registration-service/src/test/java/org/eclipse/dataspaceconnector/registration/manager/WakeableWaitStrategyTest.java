@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.registration.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WakeableWaitStrategyTest {
+
+    @Test
+    void waitForMillis_backsOffExponentiallyUpToMax() {
+        var strategy = new WakeableWaitStrategy(Duration.ofMillis(20), Duration.ofMillis(80));
+
+        assertThat(timeWaiting(strategy)).isGreaterThanOrEqualTo(20);
+        assertThat(timeWaiting(strategy)).isGreaterThanOrEqualTo(40);
+        assertThat(timeWaiting(strategy)).isGreaterThanOrEqualTo(80);
+        assertThat(timeWaiting(strategy)).isBetween(80L, 1000L);
+    }
+
+    @Test
+    void workProcessed_resetsBackoff() {
+        var strategy = new WakeableWaitStrategy(Duration.ofMillis(20), Duration.ofSeconds(10));
+        timeWaiting(strategy);
+        timeWaiting(strategy);
+
+        strategy.workProcessed();
+
+        assertThat(timeWaiting(strategy)).isBetween(20L, 1000L);
+    }
+
+    @Test
+    void success_keepsBackoff() {
+        var strategy = new WakeableWaitStrategy(Duration.ofMillis(20), Duration.ofMillis(80));
+        timeWaiting(strategy);
+        timeWaiting(strategy);
+
+        strategy.success();
+
+        assertThat(timeWaiting(strategy)).isGreaterThanOrEqualTo(80);
+    }
+
+    @Test
+    void signal_wakesUpWaitingThread() throws Exception {
+        var strategy = new WakeableWaitStrategy(Duration.ofMinutes(1), Duration.ofMinutes(1));
+        var waiting = CompletableFuture.supplyAsync(strategy::waitForMillis);
+
+        Thread.sleep(100);
+        strategy.signal();
+
+        assertThat(waiting.get(10, SECONDS)).isZero();
+    }
+
+    @Test
+    void signal_beforeWaiting() {
+        var strategy = new WakeableWaitStrategy(Duration.ofMinutes(1), Duration.ofMinutes(1));
+        strategy.signal();
+
+        assertThat(timeWaiting(strategy)).isLessThan(1000L);
+    }
+
+    @Test
+    void wakeUpAfter_capsWaitAndResetsBackoff() {
+        var strategy = new WakeableWaitStrategy(Duration.ofMillis(20), Duration.ofMinutes(1));
+        timeWaiting(strategy);
+        timeWaiting(strategy);
+
+        strategy.wakeUpAfter(50);
+        strategy.wakeUpAfter(10_000);
+
+        assertThat(timeWaiting(strategy)).isBetween(40L, 1000L);
+        assertThat(timeWaiting(strategy)).isBetween(20L, 1000L);
+    }
+
+    @Test
+    void wakeUpAfter_shortensOngoingWait() throws Exception {
+        var strategy = new WakeableWaitStrategy(Duration.ofMinutes(1), Duration.ofMinutes(1));
+        var waiting = CompletableFuture.supplyAsync(strategy::waitForMillis);
+
+        Thread.sleep(100);
+        strategy.wakeUpAfter(100);
+
+        assertThat(waiting.get(10, SECONDS)).isZero();
+    }
+
+    @Test
+    void close_stopsWaiting() throws Exception {
+        var strategy = new WakeableWaitStrategy(Duration.ofMinutes(1), Duration.ofMinutes(1));
+        var waiting = CompletableFuture.supplyAsync(strategy::waitForMillis);
+
+        Thread.sleep(100);
+        strategy.close();
+
+        assertThat(waiting.get(10, SECONDS)).isZero();
+        assertThat(timeWaiting(strategy)).isLessThan(1000L);
+    }
+
+    @Test
+    void invalidBackoff() {
+        assertThatThrownBy(() -> new WakeableWaitStrategy(Duration.ZERO, Duration.ofSeconds(1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new WakeableWaitStrategy(Duration.ofSeconds(2), Duration.ofSeconds(1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long timeWaiting(WakeableWaitStrategy strategy) {
+        var start = System.nanoTime();
+        assertThat(strategy.waitForMillis()).isZero();
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+}
@@ -41,7 +41,7 @@ public class ParticipantToParticipantDtoTransformerTest {
     @EnumSource(value = ParticipantStatus.class)
     void transform(ParticipantStatus status) {
         var context = mock(TransformerContext.class);
-        var participant = createParticipant().status(status).build();
+        var participant = createParticipant().status(status).sequence(42).build();
         var expectedParticipantDto = getParticipantDtoFromParticipant(participant);
 
         var participantDto = transformer.transform(participant, context);
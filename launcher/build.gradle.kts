@@ -27,6 +27,7 @@ dependencies {
     implementation(project(":extensions:registration-service"))
     implementation(project(":extensions:participant-verifier"))
     implementation(project(":extensions:registration-policy-gaiax-member"))
+    implementation(project(":extensions:did-document-cache"))
     implementation("${edcGroup}:identity-did-web:${edcVersion}")
     implementation("${edcGroup}:identity-did-core:${edcVersion}")
     implementation("${edcGroup}:core:${edcVersion}")
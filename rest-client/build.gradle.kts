@@ -64,6 +64,7 @@ val jacksonVersion: String by project
 val jupiterVersion: String by project
 val assertj: String by project
 val faker: String by project
+val mockitoVersion: String by project
 
 
 dependencies {
@@ -74,6 +75,7 @@ dependencies {
     testImplementation("com.github.javafaker:javafaker:${faker}")
     testImplementation("org.junit.jupiter:junit-jupiter-api:${jupiterVersion}")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:${jupiterVersion}")
+    testImplementation("org.mockito:mockito-core:${mockitoVersion}")
 
     // Dependencies copied from build/generate-resources/main/build.gradle
     implementation("io.swagger:swagger-annotations:1.5.22")
@@ -34,6 +34,8 @@ public class ApiClientFactory {
     private static final String API_CLIENT_CONNECT_TIMEOUT = "api.client.connect.timeout";
     @EdcSetting(type = "integer", value = "Rest api client read timeout")
     private static final String API_CLIENT_READ_TIMEOUT = "api.client.read.timeout";
+    @EdcSetting(type = "integer", value = "Maximum number of responses cached by the rest api client, 0 to disable caching")
+    private static final String API_CLIENT_CACHE_SIZE = "api.client.cache.size";
 
     private ApiClientFactory() {
     }
@@ -41,7 +43,9 @@ public class ApiClientFactory {
     /**
      * Create a new instance of {@link ApiClient} configured to access the given URL.
      * <p>
-     * Configured with connectTimeout (default is 30 seconds) and readTimeout (default is 60 seconds).
+     * Configured with connectTimeout (default is 30 seconds) and readTimeout (default is 60 seconds). Responses with an
+     * ETag are cached (at most 100 by default) per caller identity, and revalidated on later requests, see
+     * {@link EtagCachingHttpClient}.
      * Note that the type of {@code credentialsProvider} is modeled on the EDC {@code IdentityService} interface, for easier integration.
      *
      * @param baseUri             API base URL.
@@ -53,11 +57,11 @@ public class ApiClientFactory {
         var apiClient = new ApiClient();
         var connectTimeout = Integer.parseInt(propOrEnv(API_CLIENT_CONNECT_TIMEOUT, "30"));
         var readTimeout = Integer.parseInt(propOrEnv(API_CLIENT_READ_TIMEOUT, "60"));
+        var cacheSize = Integer.parseInt(propOrEnv(API_CLIENT_CACHE_SIZE, "100"));
 
-        apiClient.setHttpClientBuilder(
-                apiClient.createDefaultHttpClientBuilder()
-                        .connectTimeout(Duration.ofSeconds(connectTimeout))
-        );
+        var httpClientBuilder = apiClient.createDefaultHttpClientBuilder()
+                .connectTimeout(Duration.ofSeconds(connectTimeout));
+        apiClient.setHttpClientBuilder(cacheSize > 0 ? EtagCachingHttpClient.newBuilder(httpClientBuilder, cacheSize) : httpClientBuilder);
         apiClient.setReadTimeout(Duration.ofSeconds(readTimeout));
         apiClient.updateBaseUri(baseUri);
         apiClient.setRequestInterceptor(new JsonWebSignatureHeaderInterceptor(credentialsProvider, baseUri));
@@ -0,0 +1,422 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.client;
+
+import com.nimbusds.jwt.JWTParser;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+
+/**
+ * {@link HttpClient} caching the responses to GET requests that have an ETag, and revalidating them with
+ * {@code If-None-Match} on later requests to the same URI. When the server answers 304 (Not Modified), the cached
+ * response is returned as if the server had sent it again, so that callers, such as the generated API classes, are
+ * unaware of the cache.
+ * <p>
+ * Responses are cached per URI and per caller identity, so that a response fetched with the credentials of a caller is
+ * never returned to another caller sharing the cache. As bearer tokens are usually created for each request, the
+ * identity of a caller sending a JSON Web Token is its {@code iss} claim; the server authenticates the token before
+ * answering 304, so that a token claiming another issuer cannot revalidate its responses. For other credentials, the
+ * identity is the SHA-256 digest of the {@code Authorization} header.
+ * <p>
+ * The number of cached responses is bounded, least recently used responses are evicted first. Asynchronous requests
+ * are not cached.
+ */
+public class EtagCachingHttpClient extends HttpClient {
+
+    static final String ETAG_HEADER = "ETag";
+    static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    static final int NOT_MODIFIED = 304;
+    static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final HttpClient delegate;
+    private final Map<CacheKey, CachedResponse> cache;
+
+    EtagCachingHttpClient(HttpClient delegate, Map<CacheKey, CachedResponse> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Returns a builder for clients sharing a cache of at most {@code maximumSize} responses. The builder can be passed
+     * to {@code ApiClient.setHttpClientBuilder}.
+     *
+     * @param delegate    the builder of the clients sending the requests.
+     * @param maximumSize the maximum number of cached responses.
+     * @return the builder.
+     */
+    public static HttpClient.Builder newBuilder(HttpClient.Builder delegate, int maximumSize) {
+        Map<CacheKey, CachedResponse> cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedResponse> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        return new Builder(delegate, cache);
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        if (!"GET".equals(request.method())) {
+            return delegate.send(request, responseBodyHandler);
+        }
+
+        var key = new CacheKey(request.uri(), callerIdentity(request));
+        var cached = get(key);
+        var conditionalRequest = cached == null ? request : HttpRequest.newBuilder(request, (name, value) -> true)
+                .header(IF_NONE_MATCH_HEADER, cached.etag)
+                .build();
+        var response = delegate.send(conditionalRequest, HttpResponse.BodyHandlers.ofByteArray());
+
+        if (cached != null && response.statusCode() == NOT_MODIFIED) {
+            return replay(request, cached.statusCode, cached.headers, cached.body, response, responseBodyHandler);
+        }
+        var etag = response.headers().firstValue(ETAG_HEADER);
+        if (response.statusCode() == 200 && etag.isPresent()) {
+            put(key, new CachedResponse(etag.get(), response.statusCode(), response.headers(), response.body()));
+        } else {
+            remove(key);
+        }
+        return replay(request, response.statusCode(), response.headers(), response.body(), response, responseBodyHandler);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return delegate.sendAsync(request, responseBodyHandler);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return delegate.sendAsync(request, responseBodyHandler, pushPromiseHandler);
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    private CachedResponse get(CacheKey key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    private void put(CacheKey key, CachedResponse response) {
+        synchronized (cache) {
+            cache.put(key, response);
+        }
+    }
+
+    private void remove(CacheKey key) {
+        synchronized (cache) {
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * Returns the identity of the caller sending a request, {@code null} for requests without credentials.
+     */
+    @Nullable
+    private static String callerIdentity(HttpRequest request) {
+        var authorization = request.headers().allValues(AUTHORIZATION_HEADER);
+        if (authorization.isEmpty()) {
+            return null;
+        }
+        if (authorization.size() == 1 && authorization.get(0).startsWith(BEARER_PREFIX)) {
+            try {
+                var issuer = JWTParser.parse(authorization.get(0).substring(BEARER_PREFIX.length())).getJWTClaimsSet().getIssuer();
+                if (issuer != null) {
+                    return "iss:" + issuer;
+                }
+            } catch (ParseException e) {
+                // not a JSON Web Token
+            }
+        }
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(String.join("\n", authorization).getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new EdcException(e);
+        }
+    }
+
+    /**
+     * Passes a buffered response body to the body handler of the caller.
+     */
+    private static <T> HttpResponse<T> replay(HttpRequest request, int statusCode, HttpHeaders headers, byte[] body, HttpResponse<byte[]> received,
+                                              HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        var response = new BufferedResponse<T>(request, statusCode, headers, received);
+        var subscriber = responseBodyHandler.apply(response);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onNext(List.of(ByteBuffer.wrap(body)));
+        subscriber.onComplete();
+        try {
+            response.body = subscriber.getBody().toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+        return response;
+    }
+
+    static final class CacheKey {
+        private final URI uri;
+        private final String callerIdentity;
+
+        CacheKey(URI uri, @Nullable String callerIdentity) {
+            this.uri = uri;
+            this.callerIdentity = callerIdentity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            var other = (CacheKey) o;
+            return uri.equals(other.uri) && Objects.equals(callerIdentity, other.callerIdentity);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uri, callerIdentity);
+        }
+    }
+
+    static final class CachedResponse {
+        private final String etag;
+        private final int statusCode;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        CachedResponse(String etag, int statusCode, HttpHeaders headers, byte[] body) {
+            this.etag = etag;
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    private static final class BufferedResponse<T> implements HttpResponse<T>, HttpResponse.ResponseInfo {
+        private final HttpRequest request;
+        private final int statusCode;
+        private final HttpHeaders headers;
+        private final HttpResponse<byte[]> received;
+        private T body;
+
+        private BufferedResponse(HttpRequest request, int statusCode, HttpHeaders headers, HttpResponse<byte[]> received) {
+            this.request = request;
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.received = received;
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return request;
+        }
+
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public T body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return received.sslSession();
+        }
+
+        @Override
+        public URI uri() {
+            return received.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return received.version();
+        }
+    }
+
+    private static final class Builder implements HttpClient.Builder {
+        private final HttpClient.Builder delegate;
+        private final Map<CacheKey, CachedResponse> cache;
+
+        private Builder(HttpClient.Builder delegate, Map<CacheKey, CachedResponse> cache) {
+            this.delegate = delegate;
+            this.cache = cache;
+        }
+
+        @Override
+        public HttpClient.Builder cookieHandler(CookieHandler cookieHandler) {
+            delegate.cookieHandler(cookieHandler);
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder connectTimeout(Duration duration) {
+            delegate.connectTimeout(duration);
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder sslContext(SSLContext sslContext) {
+            delegate.sslContext(sslContext);
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder sslParameters(SSLParameters sslParameters) {
+            delegate.sslParameters(sslParameters);
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder executor(Executor executor) {
+            delegate.executor(executor);
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder followRedirects(Redirect policy) {
+            delegate.followRedirects(policy);
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder version(Version version) {
+            delegate.version(version);
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder priority(int priority) {
+            delegate.priority(priority);
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder proxy(ProxySelector proxySelector) {
+            delegate.proxy(proxySelector);
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder authenticator(Authenticator authenticator) {
+            delegate.authenticator(authenticator);
+            return this;
+        }
+
+        @Override
+        public HttpClient build() {
+            return new EtagCachingHttpClient(delegate.build(), cache);
+        }
+    }
+}
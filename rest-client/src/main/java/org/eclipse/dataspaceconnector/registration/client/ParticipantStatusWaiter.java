@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.client;
+
+import org.eclipse.dataspaceconnector.registration.client.api.RegistryApi;
+import org.eclipse.dataspaceconnector.registration.client.models.ParticipantDto;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+
+import static org.eclipse.dataspaceconnector.registration.client.models.ParticipantDto.StatusEnum.ONBOARDING_IN_PROGRESS;
+
+/**
+ * Waits for the onboarding of the calling participant to complete, i.e. for its status to become {@code ONBOARDED} or
+ * {@code DENIED}.
+ * <p>
+ * Rather than polling the participant, the waiter issues long-polling requests that the registration service answers
+ * as soon as the status changes. Each request waits at most {@link #MAX_WAIT_PER_REQUEST}, which must stay below the
+ * read timeout of the API client.
+ */
+public class ParticipantStatusWaiter {
+
+    public static final Duration MAX_WAIT_PER_REQUEST = Duration.ofSeconds(30);
+
+    private final RegistryApi api;
+    private final Clock clock;
+
+    public ParticipantStatusWaiter(RegistryApi api) {
+        this(api, Clock.systemUTC());
+    }
+
+    public ParticipantStatusWaiter(RegistryApi api, Clock clock) {
+        this.api = Objects.requireNonNull(api);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    /**
+     * Waits for the onboarding of the calling participant to complete.
+     *
+     * @param timeout the maximum time to wait.
+     * @return the participant, whose status is still {@code ONBOARDING_IN_PROGRESS} if the timeout expired.
+     * @throws ApiException if a request fails, e.g. because the participant was not added.
+     */
+    public ParticipantDto awaitOnboardingCompleted(Duration timeout) {
+        var deadline = clock.instant().plus(timeout);
+        var participant = api.getParticipant();
+        while (participant.getStatus() == ONBOARDING_IN_PROGRESS) {
+            var remaining = Duration.between(clock.instant(), deadline);
+            if (remaining.isNegative() || remaining.isZero()) {
+                break;
+            }
+            var wait = remaining.compareTo(MAX_WAIT_PER_REQUEST) < 0 ? remaining : MAX_WAIT_PER_REQUEST;
+            // rounded up, so that the waiter does not spin for less than a second before the deadline
+            var waitSeconds = (int) Math.max(1, (wait.toMillis() + 999) / 1000);
+            participant = api.awaitParticipantStatusChange(participant.getStatus().getValue(), waitSeconds);
+        }
+        return participant;
+    }
+}
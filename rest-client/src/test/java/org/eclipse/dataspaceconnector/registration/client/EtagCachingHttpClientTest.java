@@ -0,0 +1,187 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.client;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.registration.client.EtagCachingHttpClient.AUTHORIZATION_HEADER;
+import static org.eclipse.dataspaceconnector.registration.client.EtagCachingHttpClient.ETAG_HEADER;
+import static org.eclipse.dataspaceconnector.registration.client.EtagCachingHttpClient.IF_NONE_MATCH_HEADER;
+import static org.eclipse.dataspaceconnector.registration.client.EtagCachingHttpClient.NOT_MODIFIED;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EtagCachingHttpClientTest {
+
+    static final URI URI_1 = URI.create("http://registration-service/registry/participant");
+    static final URI URI_2 = URI.create("http://registration-service/registry/participants");
+
+    HttpClient delegate = mock(HttpClient.class);
+    HttpClient.Builder delegateBuilder = mock(HttpClient.Builder.class);
+    HttpClient client;
+
+    @BeforeEach
+    void setUp() {
+        when(delegateBuilder.build()).thenReturn(delegate);
+        client = EtagCachingHttpClient.newBuilder(delegateBuilder, 1).build();
+    }
+
+    @Test
+    void send_notModified_returnsCachedResponse() throws Exception {
+        doReturn(response(200, "first", "\"v1\""), response(NOT_MODIFIED, "", "\"v1\""))
+                .when(delegate).send(any(), any());
+
+        var first = client.send(get(URI_1), HttpResponse.BodyHandlers.ofString());
+        var second = client.send(get(URI_1), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(first.body()).isEqualTo("first");
+        assertThat(second.statusCode()).isEqualTo(200);
+        assertThat(second.body()).isEqualTo("first");
+        assertThat(second.headers().firstValue(ETAG_HEADER)).contains("\"v1\"");
+        assertThat(sentRequests(2)).extracting(r -> r.headers().firstValue(IF_NONE_MATCH_HEADER).orElse(null))
+                .containsExactly(null, "\"v1\"");
+    }
+
+    @Test
+    void send_modified_replacesCachedResponse() throws Exception {
+        doReturn(response(200, "first", "\"v1\""), response(200, "second", "\"v2\""), response(NOT_MODIFIED, "", "\"v2\""))
+                .when(delegate).send(any(), any());
+
+        client.send(get(URI_1), HttpResponse.BodyHandlers.ofString());
+        assertThat(client.send(get(URI_1), HttpResponse.BodyHandlers.ofString()).body()).isEqualTo("second");
+        assertThat(client.send(get(URI_1), HttpResponse.BodyHandlers.ofString()).body()).isEqualTo("second");
+
+        assertThat(sentRequests(3)).extracting(r -> r.headers().firstValue(IF_NONE_MATCH_HEADER).orElse(null))
+                .containsExactly(null, "\"v1\"", "\"v2\"");
+    }
+
+    @Test
+    void send_withoutEtag_notCached() throws Exception {
+        doReturn(response(200, "first", null)).when(delegate).send(any(), any());
+
+        client.send(get(URI_1), HttpResponse.BodyHandlers.ofString());
+        client.send(get(URI_1), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(sentRequests(2)).allSatisfy(r -> assertThat(r.headers().firstValue(IF_NONE_MATCH_HEADER)).isEmpty());
+    }
+
+    @Test
+    void send_boundedSize() throws Exception {
+        doReturn(response(200, "first", "\"v1\"")).when(delegate).send(any(), any());
+
+        client.send(get(URI_1), HttpResponse.BodyHandlers.ofString());
+        client.send(get(URI_2), HttpResponse.BodyHandlers.ofString());
+        client.send(get(URI_1), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(sentRequests(3).get(2).headers().firstValue(IF_NONE_MATCH_HEADER)).isEmpty();
+    }
+
+    @Test
+    void send_otherIssuer_notServedFromCache() throws Exception {
+        doReturn(response(200, "first", "\"v1\""), response(200, "second", "\"v1\""))
+                .when(delegate).send(any(), any());
+
+        client.send(get(URI_1, bearer("did:web:participant-1")), HttpResponse.BodyHandlers.ofString());
+        var second = client.send(get(URI_1, bearer("did:web:participant-2")), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(second.body()).isEqualTo("second");
+        assertThat(sentRequests(2)).allSatisfy(r -> assertThat(r.headers().firstValue(IF_NONE_MATCH_HEADER)).isEmpty());
+    }
+
+    @Test
+    void send_newTokenOfSameIssuer_revalidates() throws Exception {
+        doReturn(response(200, "first", "\"v1\""), response(NOT_MODIFIED, "", "\"v1\""))
+                .when(delegate).send(any(), any());
+
+        client.send(get(URI_1, bearer("did:web:participant-1")), HttpResponse.BodyHandlers.ofString());
+        var second = client.send(get(URI_1, bearer("did:web:participant-1")), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(second.body()).isEqualTo("first");
+        assertThat(sentRequests(2).get(1).headers().firstValue(IF_NONE_MATCH_HEADER)).contains("\"v1\"");
+    }
+
+    @Test
+    void send_otherCredentials_notServedFromCache() throws Exception {
+        doReturn(response(200, "first", "\"v1\"")).when(delegate).send(any(), any());
+
+        client.send(get(URI_1, "Basic dXNlcjE6cGFzc3dvcmQ="), HttpResponse.BodyHandlers.ofString());
+        client.send(get(URI_1, "Basic dXNlcjI6cGFzc3dvcmQ="), HttpResponse.BodyHandlers.ofString());
+        client.send(get(URI_1), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(sentRequests(3)).allSatisfy(r -> assertThat(r.headers().firstValue(IF_NONE_MATCH_HEADER)).isEmpty());
+    }
+
+    @Test
+    void send_post_notCached() throws Exception {
+        var request = HttpRequest.newBuilder(URI_1).POST(HttpRequest.BodyPublishers.noBody()).build();
+        var handler = HttpResponse.BodyHandlers.ofString();
+
+        client.send(request, handler);
+
+        verify(delegate).send(request, handler);
+    }
+
+    private List<HttpRequest> sentRequests(int count) throws Exception {
+        var captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(delegate, times(count)).send(captor.capture(), any());
+        return captor.getAllValues();
+    }
+
+    private static HttpRequest get(URI uri) {
+        return HttpRequest.newBuilder(uri).GET().build();
+    }
+
+    private static HttpRequest get(URI uri, String authorization) {
+        return HttpRequest.newBuilder(uri).header(AUTHORIZATION_HEADER, authorization).GET().build();
+    }
+
+    private static String bearer(String issuer) {
+        var claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .jwtID(UUID.randomUUID().toString())
+                .build();
+        return "Bearer " + new PlainJWT(claims).serialize();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<byte[]> response(int statusCode, String body, String etag) {
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(statusCode);
+        when(response.body()).thenReturn(body.getBytes(UTF_8));
+        when(response.headers()).thenReturn(HttpHeaders.of(etag == null ? Map.of() : Map.of(ETAG_HEADER, List.of(etag)), (name, value) -> true));
+        return response;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.dataspaceconnector.registration.client;
+
+import org.eclipse.dataspaceconnector.registration.client.api.RegistryApi;
+import org.eclipse.dataspaceconnector.registration.client.models.ParticipantDto;
+import org.eclipse.dataspaceconnector.registration.client.models.ParticipantDto.StatusEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.registration.client.models.ParticipantDto.StatusEnum.DENIED;
+import static org.eclipse.dataspaceconnector.registration.client.models.ParticipantDto.StatusEnum.ONBOARDED;
+import static org.eclipse.dataspaceconnector.registration.client.models.ParticipantDto.StatusEnum.ONBOARDING_IN_PROGRESS;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParticipantStatusWaiterTest {
+
+    Instant now = Instant.now();
+    Clock clock = mock(Clock.class);
+    RegistryApi api = mock(RegistryApi.class);
+    ParticipantStatusWaiter waiter = new ParticipantStatusWaiter(api, clock);
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(now);
+    }
+
+    @Test
+    void awaitOnboardingCompleted_alreadyCompleted() {
+        when(api.getParticipant()).thenReturn(participant(DENIED));
+
+        assertThat(waiter.awaitOnboardingCompleted(Duration.ofMinutes(1)).getStatus()).isEqualTo(DENIED);
+        verify(api, never()).awaitParticipantStatusChange(anyString(), anyInt());
+    }
+
+    @Test
+    void awaitOnboardingCompleted_waitsForStatusChange() {
+        when(api.getParticipant()).thenReturn(participant(ONBOARDING_IN_PROGRESS));
+        when(api.awaitParticipantStatusChange(ONBOARDING_IN_PROGRESS.getValue(), 30))
+                .thenReturn(participant(ONBOARDING_IN_PROGRESS))
+                .thenReturn(participant(ONBOARDED));
+
+        assertThat(waiter.awaitOnboardingCompleted(Duration.ofMinutes(1)).getStatus()).isEqualTo(ONBOARDED);
+    }
+
+    @Test
+    void awaitOnboardingCompleted_untilTimeout() {
+        when(api.getParticipant()).thenReturn(participant(ONBOARDING_IN_PROGRESS));
+        when(api.awaitParticipantStatusChange(ONBOARDING_IN_PROGRESS.getValue(), 10)).thenAnswer(i -> {
+            when(clock.instant()).thenReturn(now.plusSeconds(10));
+            return participant(ONBOARDING_IN_PROGRESS);
+        });
+
+        assertThat(waiter.awaitOnboardingCompleted(Duration.ofSeconds(10)).getStatus()).isEqualTo(ONBOARDING_IN_PROGRESS);
+        verify(api).awaitParticipantStatusChange(ONBOARDING_IN_PROGRESS.getValue(), 10);
+    }
+
+    private static ParticipantDto participant(StatusEnum status) {
+        return new ParticipantDto().did("did:web:participant").status(status);
+    }
+}
@@ -4,9 +4,15 @@ include(":launcher")
 include(":extensions:registration-service")
 include(":extensions:participant-verifier")
 include(":extensions:registration-policy-gaiax-member")
+include(":extensions:registration-policy-claims")
 include(":extensions:participant-store-spi")
+include(":extensions:participant-store-memory")
+include(":extensions:participant-store-file")
+include(":extensions:participant-store-sql")
+include(":extensions:did-document-cache")
 include(":extensions:dataspace-authority-spi")
 include(":system-tests")
 include(":system-tests:launchers:identity-hub")
 include(":rest-client")
 include(":client-cli")
+include(":benchmarks")
@@ -45,6 +45,7 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
+import static org.eclipse.dataspaceconnector.registration.client.models.ParticipantDto.StatusEnum.ONBOARDING_IN_PROGRESS;
 import static org.eclipse.dataspaceconnector.junit.testfixtures.TestUtils.getFreePort;
 import static org.eclipse.dataspaceconnector.registration.client.RegistrationServiceTestUtils.createApi;
 import static org.eclipse.dataspaceconnector.registration.client.RegistrationServiceTestUtils.createDid;
@@ -92,13 +93,36 @@ public class RegistrationApiClientTest {
 
     @Test
     void listParticipants() {
-        assertThat(api.listParticipants())
+        assertThat(api.listParticipants(null, null, null))
                 .noneSatisfy(p -> assertThat(p.getDid()).isEqualTo(did));
 
         api.addParticipant();
 
-        assertThat(api.listParticipants())
+        assertThat(api.listParticipants(null, null, null))
                 .anySatisfy(p -> assertThat(p.getDid()).isEqualTo(did));
+        assertThat(api.listParticipants("ONBOARDING_IN_PROGRESS", null, null))
+                .allSatisfy(p -> assertThat(p.getStatus()).isEqualTo(ONBOARDING_IN_PROGRESS));
+    }
+
+    @Test
+    void listParticipantChanges() {
+        var before = api.listParticipantChanges(0L, 1000);
+        var since = before.isEmpty() ? 0L : before.get(before.size() - 1).getSequence();
+
+        api.addParticipant();
+
+        assertThat(api.listParticipantChanges(since, 1000))
+                .anySatisfy(p -> assertThat(p.getDid()).isEqualTo(did))
+                .allSatisfy(p -> assertThat(p.getSequence()).isGreaterThan(since));
+    }
+
+    @Test
+    void listParticipants_paged() {
+        api.addParticipant();
+
+        var firstPage = api.listParticipantsWithHttpInfo(null, null, 1);
+
+        assertThat(firstPage.getData()).hasSize(1);
     }
 
     @Test